@@ -0,0 +1,104 @@
+package com.mypolls.polls.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.mypolls.polls.model.Choice;
+import com.mypolls.polls.model.ChoiceVoteCount;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.Role;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.model.Vote;
+import com.mypolls.polls.repositories.ChoiceRepository;
+
+// Fixtures shaped like a real feed page: 50 polls per page, 6 choices per poll.
+public class BenchmarkFixtures {
+    public static final int PAGE_SIZE = 50;
+    public static final int CHOICES_PER_POLL = 6;
+
+    // Stands in for @Value injection on beans that are created by hand.
+    public static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        }
+        catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not set " + name, e);
+        }
+    }
+
+    public static User user(long id) {
+        User user = new User("Benchmark User " + id, "bench" + id, "bench" + id + "@mypolls.com", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3P0/2uKWzFmJ/fChmyqGhKe");
+        user.setId(id);
+
+        Role role = new Role(RoleName.ROLE_USER);
+        role.setId(1L);
+        user.setRoles(Collections.singleton(role));
+
+        return(user);
+    }
+
+    public static List <Poll> pollPage(User creator) {
+        List <Poll> polls = new ArrayList <> (PAGE_SIZE);
+        Instant expiration = Instant.now().plus(1, ChronoUnit.DAYS);
+
+        long choiceId = 1;
+        for(long pollId = 1; pollId <= PAGE_SIZE; pollId++) {
+            Poll poll = new Poll();
+            poll.setId(pollId);
+            poll.setQuestion("Which of these options is the best one, poll number " + pollId + "?");
+            poll.setExpirationDateTime(expiration);
+            poll.setCreatedBy(creator.getId());
+
+            for(int i = 0; i < CHOICES_PER_POLL; i++) {
+                Choice choice = new Choice("Choice " + (i + 1));
+                choice.setId(choiceId++);
+                choice.setVoteCount(1000 + (choiceId * 37) % 500);
+                poll.addChoice(choice);
+            }
+
+            polls.add(poll);
+        }
+
+        return(polls);
+    }
+
+    // Answers the vote count query of VoteTallyEngine with the counts of the given polls' choices, no database needed.
+    public static ChoiceRepository choiceRepository(List <Poll> polls) {
+        List <ChoiceVoteCount> counts = new ArrayList <> ();
+        polls.forEach(poll -> poll.getChoices().forEach(choice -> counts.add(new ChoiceVoteCount(choice.getId(), choice.getVoteCount()))));
+
+        return((ChoiceRepository) Proxy.newProxyInstance(ChoiceRepository.class.getClassLoader(), new Class <?> [] { ChoiceRepository.class }, (proxy, method, args) -> {
+            if(method.getName().equals("findVoteCountsByPollIdIn")) {
+                return(counts);
+            }
+
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+
+    // The user has voted in every other poll of the page.
+    public static List <Vote> userVotes(User user, List <Poll> polls) {
+        List <Vote> votes = new ArrayList <> ();
+
+        for(int i = 0; i < polls.size(); i += 2) {
+            Poll poll = polls.get(i);
+
+            Vote vote = new Vote();
+            vote.setId((long) i + 1);
+            vote.setPoll(poll);
+            vote.setChoice(poll.getChoices().get(i % CHOICES_PER_POLL));
+            vote.setUser(user);
+            votes.add(vote);
+        }
+
+        return(votes);
+    }
+}
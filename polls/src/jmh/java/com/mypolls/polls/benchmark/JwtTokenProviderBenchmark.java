@@ -0,0 +1,77 @@
+package com.mypolls.polls.benchmark;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+import com.mypolls.polls.security.VerifiedToken;
+
+// Token generation on login and verification on every authenticated request.
+// "uncached" verifies the signature every time, "cached" hits the verified-token cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+    private JwtTokenProvider uncached;
+    private JwtTokenProvider cached;
+    private Authentication authentication;
+    private String token;
+
+    private static JwtTokenProvider tokenProvider(String secret, int verifiedCacheMaxSize) {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        BenchmarkFixtures.setField(tokenProvider, "jwtSecret", secret);
+        BenchmarkFixtures.setField(tokenProvider, "jwtExpirationInMs", 604800000);
+        BenchmarkFixtures.setField(tokenProvider, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        BenchmarkFixtures.setField(tokenProvider, "verifiedCacheTtlMs", 60000L);
+        tokenProvider.init();
+
+        return(tokenProvider);
+    }
+
+    @Setup
+    public void setup() {
+        byte[] key = new byte[64];
+        new SecureRandom().nextBytes(key);
+        String secret = Base64.getEncoder().encodeToString(key);
+
+        this.uncached = tokenProvider(secret, 0);
+        this.cached = tokenProvider(secret, 10000);
+
+        UserPrincipal principal = UserPrincipal.create(BenchmarkFixtures.user(1));
+        this.authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        this.token = this.uncached.generateToken(this.authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return(this.uncached.generateToken(this.authentication));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        return(this.uncached.verify(this.token));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return(this.cached.verify(this.token));
+    }
+}
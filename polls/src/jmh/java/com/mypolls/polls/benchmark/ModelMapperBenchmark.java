@@ -0,0 +1,65 @@
+package com.mypolls.polls.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.payload.PollResponse;
+import com.mypolls.polls.util.ModelMapper;
+
+// Mapping of one feed page (50 polls, 6 choices each) to poll responses.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelMapperBenchmark {
+    private User creator;
+    private List <Poll> polls;
+    private Map <Long, Long> choiceVotesMap;
+
+    @Setup
+    public void setup() {
+        this.creator = BenchmarkFixtures.user(1);
+        this.polls = BenchmarkFixtures.pollPage(this.creator);
+
+        this.choiceVotesMap = new HashMap <> ();
+        this.polls.forEach(poll -> poll.getChoices().forEach(choice -> this.choiceVotesMap.put(choice.getId(), choice.getVoteCount())));
+    }
+
+    @Benchmark
+    public List <PollResponse> mapPageWithVoteMap() {
+        List <PollResponse> responses = new ArrayList <> (this.polls.size());
+        for(Poll poll : this.polls) {
+            responses.add(ModelMapper.mapPollToPollResponse(poll, this.choiceVotesMap, this.creator, null));
+        }
+
+        return(responses);
+    }
+
+    @Benchmark
+    public List <PollResponse> mapPageFromEntities() {
+        List <PollResponse> responses = new ArrayList <> (this.polls.size());
+        for(Poll poll : this.polls) {
+            responses.add(ModelMapper.mapPollToPollResponse(poll, this.creator, null));
+        }
+
+        return(responses);
+    }
+}
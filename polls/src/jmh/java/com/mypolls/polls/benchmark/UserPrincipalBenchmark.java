@@ -0,0 +1,37 @@
+package com.mypolls.polls.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.security.UserPrincipal;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserPrincipalBenchmark {
+    private User user;
+
+    @Setup
+    public void setup() {
+        this.user = BenchmarkFixtures.user(1);
+    }
+
+    @Benchmark
+    public UserPrincipal create() {
+        return(UserPrincipal.create(this.user));
+    }
+}
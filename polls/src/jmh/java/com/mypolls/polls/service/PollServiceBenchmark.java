@@ -0,0 +1,57 @@
+package com.mypolls.polls.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mypolls.polls.benchmark.BenchmarkFixtures;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.model.Vote;
+
+// The per page map building of PollService.getChoiceVoteCountMap and getPollUserVoteMap, without the repositories.
+// Lives in the service package to reach the package-private helpers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PollServiceBenchmark {
+    private List <Poll> polls;
+    private List <Vote> userVotes;
+    private VoteTallyEngine voteTallyEngine;
+
+    @Setup
+    public void setup() {
+        User user = BenchmarkFixtures.user(1);
+        this.polls = BenchmarkFixtures.pollPage(user);
+        this.userVotes = BenchmarkFixtures.userVotes(user, this.polls);
+
+        // Seeded up front by a first read, the benchmark measures the steady state of a warm tally.
+        this.voteTallyEngine = new VoteTallyEngine();
+        BenchmarkFixtures.setField(this.voteTallyEngine, "choiceRepository", BenchmarkFixtures.choiceRepository(this.polls));
+        this.voteTallyEngine.getChoiceVoteCounts(this.polls);
+    }
+
+    @Benchmark
+    public Map <Long, Long> choiceVoteCountMapFromTally() {
+        return(this.voteTallyEngine.getChoiceVoteCounts(this.polls));
+    }
+
+    @Benchmark
+    public Map <Long, Long> pollUserVoteMap() {
+        return(PollService.toPollUserVoteMap(this.userVotes));
+    }
+}
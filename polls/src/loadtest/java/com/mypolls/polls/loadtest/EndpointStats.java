@@ -0,0 +1,78 @@
+package com.mypolls.polls.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// Latencies (nanoseconds, to 3 significant digits) and response statuses of the requests to one endpoint, recorded by
+// every client at once. A status of 0 stands for a request that failed without a response (connection error, timeout).
+public class EndpointStats {
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+    private final Map <Integer, LongAdder> statuses = new ConcurrentHashMap <> ();
+
+    public void record(int status, long latencyNanos) {
+        this.latencies.recordValue(latencyNanos);
+        this.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+
+        if(status == 0 || status >= 400) {
+            this.errors.increment();
+        }
+    }
+
+    public static EndpointStats merge(Iterable <EndpointStats> stats) {
+        EndpointStats merged = new EndpointStats();
+
+        for(EndpointStats endpoint : stats) {
+            merged.latencies.add(endpoint.latencies);
+            merged.errors.add(endpoint.errors.sum());
+            endpoint.statuses.forEach((status, count) -> merged.statuses.computeIfAbsent(status, s -> new LongAdder()).add(count.sum()));
+        }
+
+        return(merged);
+    }
+
+    public long getRequests() {
+        return(this.latencies.getTotalCount());
+    }
+
+    public long getErrors() {
+        return(this.errors.sum());
+    }
+
+    public double getPercentileMs(double percentile) {
+        return(this.latencies.getValueAtPercentile(percentile) / 1e6);
+    }
+
+    // As written to the result file, latencies in milliseconds.
+    public Map <String, Object> toResult(double seconds) {
+        Map <String, Object> result = new LinkedHashMap <> ();
+        result.put("requests", getRequests());
+        result.put("errors", getErrors());
+        result.put("throughputPerSecond", round(getRequests() / seconds));
+
+        Map <String, Object> latency = new LinkedHashMap <> ();
+        latency.put("mean", round(this.latencies.getMean() / 1e6));
+        latency.put("p50", round(getPercentileMs(50)));
+        latency.put("p90", round(getPercentileMs(90)));
+        latency.put("p99", round(getPercentileMs(99)));
+        latency.put("p999", round(getPercentileMs(99.9)));
+        latency.put("max", round(this.latencies.getMaxValue() / 1e6));
+        result.put("latencyMs", latency);
+
+        Map <String, Long> statusCounts = new TreeMap <> ();
+        this.statuses.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+        result.put("statuses", statusCounts);
+
+        return(result);
+    }
+
+    private static double round(double value) {
+        return(Math.round(value * 1000) / 1000.0);
+    }
+}
@@ -0,0 +1,219 @@
+package com.mypolls.polls.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mypolls.polls.PollsApplication;
+import com.mypolls.polls.loadtest.LoadTestClient.Endpoint;
+
+// End-to-end load test: boots PollsApplication in this JVM against an in-memory H2 database in MySQL mode, seeds it
+// (see LoadTestDataset), then has many clients drive a mix of logins, feed pages, poll views and votes over HTTP. After
+// a warmup, reports the throughput and latency percentiles of each endpoint, printed and written as JSON.
+// Needs nothing but this machine. Run with: mvn -P loadtest test-compile exec:java
+// Tunables (system properties): loadtest.users, loadtest.polls, loadtest.choicesPerPoll, loadtest.votes (seeded),
+// loadtest.skew (Zipf exponent of poll popularity), loadtest.clients, loadtest.warmupSeconds, loadtest.seconds,
+// loadtest.mix (endpoint weights), loadtest.pageSize, loadtest.result (JSON file). Application settings can be given
+// as system properties too, e.g. -Dapp.votes.ingestion.mode=batch. Rate limiting is off unless turned back on.
+public class LoadTest {
+    private static final String DATABASE = "loadtest";
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 10000);
+    private static final int POLLS = Integer.getInteger("loadtest.polls", 2000);
+    private static final int CHOICES_PER_POLL = Integer.getInteger("loadtest.choicesPerPoll", 4);
+    private static final int VOTES = Integer.getInteger("loadtest.votes", 100000);
+    private static final double SKEW = Double.parseDouble(System.getProperty("loadtest.skew", "1.0"));
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 64);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmupSeconds", 15);
+    private static final int SECONDS = Integer.getInteger("loadtest.seconds", 60);
+    private static final String MIX = System.getProperty("loadtest.mix", "login:1,feed:30,poll:49,vote:20");
+    private static final int PAGE_SIZE = Integer.getInteger("loadtest.pageSize", 20);
+    private static final String RESULT = System.getProperty("loadtest.result", "target/loadtest/result.json");
+
+    private static volatile Map <Endpoint, EndpointStats> stats;
+
+    public static void main(String[] args) throws Exception {
+        // Idle kept-alive connections per host, the default of 5 would have most clients reconnect on every request.
+        System.setProperty("http.maxConnections", String.valueOf(CLIENTS));
+
+        Map <Endpoint, Integer> mix = parseMix(MIX);
+
+        byte[] secret = new byte[64];
+        new Random(1).nextBytes(secret);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PollsApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:" + DATABASE + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "app.jwtSecret=" + Base64.getEncoder().encodeToString(secret),
+                "app.jwtExpirationInMs=3600000",
+                "app.cors.allowedOrigins=http://localhost:3000",
+                // Measures the application's capacity, not the per-user limits (every client would soon be throttled).
+                "app.ratelimit.enabled=false",
+                "logging.level.root=WARN"
+            )
+            .run();
+
+        try {
+            LoadTestDataset dataset = new LoadTestDataset(USERS, POLLS, CHOICES_PER_POLL, SKEW);
+
+            long seedStart = System.nanoTime();
+            dataset.seed(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class).encode(LoadTestDataset.PASSWORD), VOTES);
+            double seedSeconds = (System.nanoTime() - seedStart) / 1e9;
+
+            System.out.println(String.format("Seeded %d users, %d polls and %d votes in %.1f s", USERS, POLLS, dataset.getSeededVotes(), seedSeconds));
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            Instant startedAt = Instant.now();
+            double seconds = run(baseUrl, dataset, mix);
+
+            Map <String, Object> result = result(startedAt, seconds, dataset, seedSeconds, mix);
+            print(seconds);
+
+            File file = new File(RESULT);
+            write(file, result);
+            System.out.println("Result written to " + file.getAbsolutePath());
+        }
+        finally {
+            context.close();
+        }
+    }
+
+    // Warmup then measurement, the clients keep running across both, returns the measured duration.
+    private static double run(String baseUrl, LoadTestDataset dataset, Map <Endpoint, Integer> mix) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+        stats = newStats();
+        for(int i = 0; i < CLIENTS; i++) {
+            clients.execute(new LoadTestClient(baseUrl, dataset, mix, PAGE_SIZE, i, () -> stats, running));
+        }
+
+        System.out.println(String.format("Warming up for %d s with %d clients", WARMUP_SECONDS, CLIENTS));
+        TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+
+        System.out.println(String.format("Measuring for %d s", SECONDS));
+        long start = System.nanoTime();
+        stats = newStats();
+        TimeUnit.SECONDS.sleep(SECONDS);
+
+        Map <Endpoint, EndpointStats> measured = stats;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        // Requests still in flight land in a discarded phase.
+        stats = newStats();
+
+        running.set(false);
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+
+        stats = measured;
+        return(seconds);
+    }
+
+    private static Map <Endpoint, EndpointStats> newStats() {
+        Map <Endpoint, EndpointStats> phase = new EnumMap <> (Endpoint.class);
+
+        for(Endpoint endpoint : Endpoint.values()) {
+            phase.put(endpoint, new EndpointStats());
+        }
+
+        return(phase);
+    }
+
+    // e.g. login:1,feed:30,poll:49,vote:20, endpoints left out aren't requested (but every client logs in once).
+    private static Map <Endpoint, Integer> parseMix(String mix) {
+        Map <Endpoint, Integer> weights = new EnumMap <> (Endpoint.class);
+
+        for(String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+
+            if(weight > 0) {
+                weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+
+        if(weights.isEmpty()) {
+            throw new IllegalArgumentException("No endpoint in loadtest.mix: " + mix);
+        }
+
+        return(weights);
+    }
+
+    private static Map <String, Object> result(Instant startedAt, double seconds, LoadTestDataset dataset, double seedSeconds, Map <Endpoint, Integer> mix) {
+        Map <String, Object> config = new LinkedHashMap <> ();
+        config.put("clients", CLIENTS);
+        config.put("warmupSeconds", WARMUP_SECONDS);
+        config.put("seconds", SECONDS);
+        config.put("pageSize", PAGE_SIZE);
+        config.put("skew", SKEW);
+        Map <String, Integer> weights = new LinkedHashMap <> ();
+        mix.forEach((endpoint, weight) -> weights.put(endpoint.key(), weight));
+        config.put("mix", weights);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        config.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        config.put("javaVersion", System.getProperty("java.version"));
+
+        Map <String, Object> seeded = new LinkedHashMap <> ();
+        seeded.put("users", dataset.getUsers());
+        seeded.put("polls", dataset.getPolls());
+        seeded.put("choicesPerPoll", CHOICES_PER_POLL);
+        seeded.put("votes", dataset.getSeededVotes());
+        seeded.put("seconds", Math.round(seedSeconds * 1000) / 1000.0);
+
+        Map <String, Object> endpoints = new LinkedHashMap <> ();
+        stats.forEach((endpoint, endpointStats) -> endpoints.put(endpoint.key(), endpointStats.toResult(seconds)));
+
+        Map <String, Object> result = new LinkedHashMap <> ();
+        result.put("startedAt", startedAt.toString());
+        result.put("durationSeconds", Math.round(seconds * 1000) / 1000.0);
+        result.put("config", config);
+        result.put("dataset", seeded);
+        result.put("endpoints", endpoints);
+        result.put("total", EndpointStats.merge(stats.values()).toResult(seconds));
+
+        return(result);
+    }
+
+    private static void print(double seconds) {
+        List <String> lines = new ArrayList <> ();
+        lines.add(String.format("%-8s %10s %10s %9s %9s %9s %9s %8s", "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "errors"));
+
+        Map <String, EndpointStats> rows = new LinkedHashMap <> ();
+        stats.forEach((endpoint, endpointStats) -> rows.put(endpoint.key(), endpointStats));
+        rows.put("total", EndpointStats.merge(stats.values()));
+
+        rows.forEach((name, row) -> lines.add(String.format("%-8s %10d %10.0f %9.2f %9.2f %9.2f %9.2f %8d", name, row.getRequests(), row.getRequests() / seconds,
+                                                            row.getPercentileMs(50), row.getPercentileMs(90), row.getPercentileMs(99), row.getPercentileMs(99.9), row.getErrors())));
+
+        System.out.println();
+        lines.forEach(System.out::println);
+    }
+
+    private static void write(File file, Map <String, Object> result) throws IOException {
+        if(file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+    }
+}
@@ -0,0 +1,183 @@
+package com.mypolls.polls.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// One simulated user: logs in, then sends one request after another (closed loop, no think time) until stopped, each
+// picked at random by the weights of the mix. A login switches to another random user. Polls are viewed and voted in
+// by popularity (see LoadTestDataset), a vote goes to a poll the user hasn't voted in yet.
+// Latencies are measured from sending the request to having read the whole response, over a kept-alive connection.
+// Being closed loop, a slow response also delays the requests that would have followed it: percentiles are those of
+// the requests sent, not of a fixed arrival rate.
+public class LoadTestClient implements Runnable {
+    public enum Endpoint {
+        LOGIN, FEED, POLL, VOTE;
+
+        public String key() {
+            return(name().toLowerCase());
+        }
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int TIMEOUT_MS = 30000;
+    private static final int VOTE_ATTEMPTS = 10;
+
+    private final String baseUrl;
+    private final LoadTestDataset dataset;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final int pageSize;
+    private final Random random;
+    private final Supplier <Map <Endpoint, EndpointStats>> stats;
+    private final AtomicBoolean running;
+
+    private final ByteArrayOutputStream response = new ByteArrayOutputStream(64 * 1024);
+    private final byte[] buffer = new byte[16 * 1024];
+    private long userId;
+    private String token;
+
+    // stats is asked for the current phase's (warmup, measured) on every request.
+    public LoadTestClient(String baseUrl, LoadTestDataset dataset, Map <Endpoint, Integer> mix, int pageSize, long seed,
+                          Supplier <Map <Endpoint, EndpointStats>> stats, AtomicBoolean running) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.pageSize = pageSize;
+        this.random = new Random(seed);
+        this.stats = stats;
+        this.running = running;
+
+        this.endpoints = mix.keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[this.endpoints.length];
+
+        int sum = 0;
+        for(int i = 0; i < this.endpoints.length; i++) {
+            sum += mix.get(this.endpoints[i]);
+            this.cumulativeWeights[i] = sum;
+        }
+    }
+
+    @Override
+    public void run() {
+        login();
+
+        while(this.running.get()) {
+            switch(nextEndpoint()) {
+                case LOGIN:
+                    login();
+                    break;
+                case FEED:
+                    // Mostly the first page, now and then one of the next few.
+                    int page = this.random.nextInt(10) < 8 ? 0 : 1 + this.random.nextInt(4);
+                    send(Endpoint.FEED, "GET", "/api/polls?page=" + page + "&size=" + this.pageSize, null);
+                    break;
+                case POLL:
+                    send(Endpoint.POLL, "GET", "/api/polls/" + this.dataset.randomPollId(this.random), null);
+                    break;
+                case VOTE:
+                    vote();
+                    break;
+            }
+        }
+    }
+
+    private Endpoint nextEndpoint() {
+        int draw = this.random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+
+        for(int i = 0; ; i++) {
+            if(draw < this.cumulativeWeights[i]) {
+                return(this.endpoints[i]);
+            }
+        }
+    }
+
+    private void login() {
+        this.userId = 1 + this.random.nextInt(this.dataset.getUsers());
+        this.token = null;
+
+        String body = "{\"usernameOrEmail\":\"user" + this.userId + "\",\"password\":\"" + LoadTestDataset.PASSWORD + "\"}";
+
+        if(send(Endpoint.LOGIN, "POST", "/api/auth/login", body) == 200) {
+            try {
+                JsonNode jwt = OBJECT_MAPPER.readTree(this.response.toByteArray());
+                this.token = jwt.path("accessToken").asText(null);
+            }
+            catch(IOException e) {
+                // Goes on anonymously, the votes will fail.
+            }
+        }
+    }
+
+    private void vote() {
+        for(int attempt = 0; attempt < VOTE_ATTEMPTS; attempt++) {
+            long pollId = this.dataset.randomPollId(this.random);
+
+            if(this.dataset.claimVote(pollId, this.userId)) {
+                long choiceId = this.dataset.randomChoiceId(pollId, this.random);
+                send(Endpoint.VOTE, "POST", "/api/polls/" + pollId + "/votes", "{\"choiceId\":" + choiceId + "}");
+                return;
+            }
+        }
+    }
+
+    // Returns the response status (0 when there was no response), the body is left in this.response.
+    private int send(Endpoint endpoint, String method, String path, String body) {
+        this.response.reset();
+        long start = System.nanoTime();
+        int status = 0;
+
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(this.baseUrl + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestProperty("Accept", "application/json");
+
+            if(this.token != null) {
+                connection.setRequestProperty("Authorization", "Bearer " + this.token);
+            }
+
+            if(body != null) {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(bytes.length);
+                connection.setRequestProperty("Content-Type", "application/json");
+
+                try(OutputStream out = connection.getOutputStream()) {
+                    out.write(bytes);
+                }
+            }
+
+            status = connection.getResponseCode();
+
+            // Read to the end (error responses too) and closed, so the connection goes back to the keep-alive cache.
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if(in != null) {
+                try(InputStream stream = in) {
+                    for(int read; (read = stream.read(this.buffer)) != -1; ) {
+                        this.response.write(this.buffer, 0, read);
+                    }
+                }
+            }
+        }
+        catch(IOException e) {
+            status = 0;
+        }
+
+        this.stats.get().get(endpoint).record(status, System.nanoTime() - start);
+
+        return(status);
+    }
+}
@@ -0,0 +1,163 @@
+package com.mypolls.polls.loadtest;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// The users, polls and votes the load runs against, inserted straight into the (empty) database in batches. Users are
+// user1..userN, all with the same password. Popularity is skewed: polls are ranked in random order and both the seeded
+// votes and the load's poll views and votes pick polls by a Zipf distribution over that ranking, so a few polls are hot
+// and most are rarely touched, as in production. Every poll stays open for the whole run.
+// Tallies are seeded lazily by the application, from the counters written here.
+public class LoadTestDataset {
+    public static final String PASSWORD = "loadtest-password";
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final int users;
+    private final int polls;
+    private final int choicesPerPoll;
+    private final ZipfDistribution pollPopularity;
+    private final ZipfDistribution choicePopularity;
+    // Poll ids, most popular first.
+    private final long[] pollsByRank;
+    // (poll, user) pairs that have a vote, seeded or cast by the load.
+    private final Set <Long> votes = ConcurrentHashMap.newKeySet();
+    private int seededVotes;
+
+    public LoadTestDataset(int users, int polls, int choicesPerPoll, double skew) {
+        this.users = users;
+        this.polls = polls;
+        this.choicesPerPoll = choicesPerPoll;
+        this.pollPopularity = new ZipfDistribution(polls, skew);
+        this.choicePopularity = new ZipfDistribution(choicesPerPoll, 1);
+
+        List <Long> ids = new ArrayList <> (polls);
+        for(long id = 1; id <= polls; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(2));
+
+        this.pollsByRank = ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // The password hash is computed once, by the application's encoder.
+    public void seed(JdbcTemplate jdbcTemplate, String passwordHash, int votes) {
+        Random random = new Random(1);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        jdbcTemplate.update("INSERT INTO roles (id, created_at, updated_at, name) VALUES (1, ?, ?, 'ROLE_USER'), (2, ?, ?, 'ROLE_ADMIN')", now, now, now, now);
+
+        long[] pollCounts = new long[this.users + 1];
+        long[] userVoteCounts = new long[this.users + 1];
+        long[] pollVoteCounts = new long[this.polls + 1];
+        long[] choiceVoteCounts = new long[(this.polls + 1) * this.choicesPerPoll];
+        long[] creators = new long[this.polls + 1];
+
+        for(int id = 1; id <= this.polls; id++) {
+            creators[id] = 1 + random.nextInt(this.users);
+            pollCounts[(int) creators[id]]++;
+        }
+
+        // Votes are drawn first, the counters of users, polls and choices are inserted with their final values.
+        long[] votePolls = new long[votes];
+        long[] voteChoices = new long[votes];
+        long[] voteUsers = new long[votes];
+
+        for(long attempts = 0; this.seededVotes < votes && attempts < 10L * votes; attempts++) {
+            long pollId = randomPollId(random);
+            long userId = 1 + random.nextInt(this.users);
+
+            if(!claimVote(pollId, userId)) {
+                continue;
+            }
+
+            long choiceId = randomChoiceId(pollId, random);
+
+            votePolls[this.seededVotes] = pollId;
+            voteChoices[this.seededVotes] = choiceId;
+            voteUsers[this.seededVotes] = userId;
+            this.seededVotes++;
+
+            pollVoteCounts[(int) pollId]++;
+            choiceVoteCounts[(int) choiceId]++;
+            userVoteCounts[(int) userId]++;
+        }
+
+        List <Object[]> batch = new ArrayList <> (BATCH_SIZE);
+        for(long id = 1; id <= this.users; id++) {
+            batch.add(new Object[] {id, now, now, "user" + id + "@loadtest.local", "Load Test User " + id, passwordHash, "user" + id, pollCounts[(int) id], userVoteCounts[(int) id]});
+            flush(jdbcTemplate, "INSERT INTO users (id, created_at, updated_at, email, name, password, username, poll_count, vote_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch, id == this.users);
+        }
+        for(long id = 1; id <= this.users; id++) {
+            batch.add(new Object[] {id});
+            flush(jdbcTemplate, "INSERT INTO user_id (user_id, role_id) VALUES (?, 1)", batch, id == this.users);
+        }
+
+        Instant expiration = Instant.now().plus(Duration.ofDays(7));
+        for(long id = 1; id <= this.polls; id++) {
+            // One a minute, the feed's order is well defined.
+            Timestamp createdAt = Timestamp.from(Instant.now().minus(Duration.ofMinutes(this.polls - id)));
+
+            batch.add(new Object[] {id, createdAt, createdAt, creators[(int) id], creators[(int) id], Timestamp.from(expiration), "Load test question " + id + "?", pollVoteCounts[(int) id]});
+            flush(jdbcTemplate, "INSERT INTO polls (id, created_at, updated_at, created_by, updated_by, expiration_date_time, question, total_votes) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch, id == this.polls);
+        }
+        for(long id = 1; id <= this.polls; id++) {
+            for(int c = 0; c < this.choicesPerPoll; c++) {
+                long choiceId = choiceId(id, c);
+
+                batch.add(new Object[] {choiceId, "Choice " + (c + 1), id, choiceVoteCounts[(int) choiceId]});
+            }
+            flush(jdbcTemplate, "INSERT INTO choices (id, text, poll_id, vote_count) VALUES (?, ?, ?, ?)", batch, id == this.polls);
+        }
+
+        for(int i = 0; i < this.seededVotes; i++) {
+            batch.add(new Object[] {now, now, votePolls[i], voteChoices[i], voteUsers[i]});
+            flush(jdbcTemplate, "INSERT INTO votes (created_at, updated_at, poll_id, choice_id, user_id) VALUES (?, ?, ?, ?, ?)", batch, i == this.seededVotes - 1);
+        }
+    }
+
+    public int getUsers() {
+        return(this.users);
+    }
+
+    public int getPolls() {
+        return(this.polls);
+    }
+
+    public int getSeededVotes() {
+        return(this.seededVotes);
+    }
+
+    public long randomPollId(Random random) {
+        return(this.pollsByRank[this.pollPopularity.sample(random)]);
+    }
+
+    public long randomChoiceId(long pollId, Random random) {
+        return(choiceId(pollId, this.choicePopularity.sample(random)));
+    }
+
+    // False when the user has already voted in the poll.
+    public boolean claimVote(long pollId, long userId) {
+        return(this.votes.add(pollId * (this.users + 1) + userId));
+    }
+
+    private long choiceId(long pollId, int choice) {
+        return(pollId * this.choicesPerPoll + choice);
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, String sql, List <Object[]> batch, boolean last) {
+        if(batch.size() >= BATCH_SIZE || (last && !batch.isEmpty())) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
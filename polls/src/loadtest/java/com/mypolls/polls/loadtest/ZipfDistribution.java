@@ -0,0 +1,27 @@
+package com.mypolls.polls.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Ranks 0..n-1 drawn with probability proportional to 1 / (rank + 1)^exponent: a handful of ranks get most of the
+// draws, the long tail the rest. An exponent of 0 is uniform. Draws are a binary search over the cumulative weights.
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        this.cumulative = new double[n];
+
+        double sum = 0;
+        for(int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            this.cumulative[rank] = sum;
+        }
+    }
+
+    public int sample(Random random) {
+        double target = random.nextDouble() * this.cumulative[this.cumulative.length - 1];
+        int index = Arrays.binarySearch(this.cumulative, target);
+
+        return(index >= 0 ? index : Math.min(-index - 1, this.cumulative.length - 1));
+    }
+}
@@ -5,7 +5,9 @@ import java.util.TimeZone;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import javax.annotation.PostConstruct;
 
@@ -14,6 +16,8 @@ import javax.annotation.PostConstruct;
     PollsApplication.class,
     Jsr310JpaConverters.class           // JPA converters to use Java 8 Date/Time and store as SQL types in DB.
 })
+@EnableScheduling
+@PropertySource("classpath:defaults.properties")
 public class PollsApplication {
 
     // Set default time zone to UTC
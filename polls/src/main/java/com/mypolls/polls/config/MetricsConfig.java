@@ -0,0 +1,16 @@
+package com.mypolls.polls.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+    // Makes @Timed work on beans other than controllers (e.g. PollService), tagged by class and method name.
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return(new TimedAspect(meterRegistry));
+    }
+}
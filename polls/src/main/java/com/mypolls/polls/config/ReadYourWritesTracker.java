@@ -0,0 +1,38 @@
+package com.mypolls.polls.config;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mypolls.polls.security.UserPrincipal;
+import com.mypolls.polls.util.ExpiringLruCache;
+
+// Users who have just written (voted, created a poll), whose reads stay on the primary for
+// app.datasource.replica.stickyMs so that they see their own writes despite replication lag (see ReplicaRoutingDataSource).
+// Per instance: a user whose next request lands on another instance may briefly not see the write there.
+@Component
+public class ReadYourWritesTracker {
+    @Value("${app.datasource.replica.stickyMs:5000}")
+    private long stickyMs;
+
+    @Value("${app.datasource.replica.stickyMaxUsers:100000}")
+    private int maxUsers;
+
+    private ExpiringLruCache <Long, Boolean> recentWriters;
+
+    @PostConstruct
+    public void init() {
+        this.recentWriters = new ExpiringLruCache <> (this.maxUsers, this.stickyMs);
+    }
+
+    // Call once the write has been committed.
+    public void writeCommitted(Long userId) {
+        this.recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean isCurrentUserSticky() {
+        Long userId = UserPrincipal.currentUserId();
+        return(userId != null && this.recentWriters.get(userId) != null);
+    }
+}
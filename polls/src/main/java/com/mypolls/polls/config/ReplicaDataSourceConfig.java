@@ -0,0 +1,65 @@
+package com.mypolls.polls.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Read replica, only set up when app.datasource.replica.url is set. Replaces Spring Boot's DataSource with one routing
+// read-only transactions to the replica (see ReplicaRoutingDataSource). The primary is still configured through
+// spring.datasource.*, the replica's pool through app.datasource.replica.hikari.* and it logs in with the primary's
+// credentials unless app.datasource.replica.username / password are set.
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+
+        if(!StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName("primary");
+        }
+
+        return(dataSource);
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                                @Value("${app.datasource.replica.url}") String url,
+                                                @Value("${app.datasource.replica.username:}") String username,
+                                                @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+
+        if(StringUtils.hasText(username)) {
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+        }
+
+        dataSource.setPoolName("replica");
+        // A replica is never written to through this pool.
+        dataSource.setReadOnly(true);
+
+        return(dataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource, ReadYourWritesTracker readYourWritesTracker) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesTracker);
+        routingDataSource.afterPropertiesSet();
+
+        // Defers picking the target until the first statement, by which time the transaction is known to be read-only.
+        return(new LazyConnectionDataSourceProxy(routingDataSource));
+    }
+}
@@ -0,0 +1,60 @@
+package com.mypolls.polls.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends the connections of read-only transactions (@Transactional(readOnly = true), which Spring Data's own find methods
+// are too) to the replica, everything else to the primary. Has to sit behind a LazyConnectionDataSourceProxy: the
+// transaction is only marked read-only once it has begun, the physical connection must not be picked before that.
+// Reads of a user who has just written stay on the primary (see ReadYourWritesTracker), as do those run through onPrimary.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal <Boolean> primaryForced = new ThreadLocal <> ();
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map <Object, Object> targets = new HashMap <> ();
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    // Runs the reads on the primary whatever the transaction, for reads that must not lag (e.g. retrying a replica miss).
+    // Only applies to transactions started within, one already holding a connection keeps it.
+    public static <T> T onPrimary(Supplier <T> reads) {
+        Boolean previous = primaryForced.get();
+        primaryForced.set(Boolean.TRUE);
+
+        try {
+            return(reads.get());
+        }
+        finally {
+            if(previous == null) {
+                primaryForced.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || primaryForced.get() != null) {
+            return(Target.PRIMARY);
+        }
+
+        return(this.readYourWritesTracker.isCurrentUserSticky() ? Target.PRIMARY : Target.REPLICA);
+    }
+}
@@ -0,0 +1,99 @@
+package com.mypolls.polls.config;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+// Regions of the Hibernate second-level cache, each a Caffeine backed JCache cache bounded by
+// app.cache.<region>.maxSize entries and expiring app.cache.<region>.expireAfterWriteSeconds after being written.
+// Hits and misses are exported per region as cache.gets{cache=<region>}.
+// Vote counts are never read from cached entities, see CounterRepository.
+// A poll closed by another instance is only evicted there (see PollExpiryScheduler), here its entry is served until it
+// expires: the polls region's entries expire within app.polls.expiry.graceMs, the time a poll is already left for its
+// last votes to land before it's closed. A cached poll outlives its close by less than that.
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String POLLS = "polls";
+    public static final String POLL_CHOICES = "polls.choices";
+    public static final String CHOICES = "choices";
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "users.roles";
+    public static final String ROLES = "roles";
+
+    // Hibernate's own regions of the query cache (only RoleRepository.findByName is cached).
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry) {
+        long pollsExpireAfterWriteMs = TimeUnit.SECONDS.toMillis(this.environment.getProperty("app.cache." + POLLS + ".expireAfterWriteSeconds", Long.class, 4L));
+        long graceMs = this.environment.getProperty("app.polls.expiry.graceMs", Long.class, 5000L);
+
+        if(pollsExpireAfterWriteMs >= graceMs) {
+            throw new IllegalStateException("app.cache." + POLLS + ".expireAfterWriteSeconds must be shorter than app.polls.expiry.graceMs");
+        }
+
+        // Own manager per application context, a shared one would clash when several contexts run in one JVM (tests).
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                                            .getCacheManager(URI.create("polls-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createRegion(cacheManager, meterRegistry, POLLS, 10000, 4);
+        createRegion(cacheManager, meterRegistry, POLL_CHOICES, 10000, 600);
+        createRegion(cacheManager, meterRegistry, CHOICES, 60000, 600);
+        createRegion(cacheManager, meterRegistry, USERS, 10000, 600);
+        createRegion(cacheManager, meterRegistry, USER_ROLES, 10000, 600);
+        createRegion(cacheManager, meterRegistry, ROLES, 100, 3600);
+        createRegion(cacheManager, meterRegistry, QUERY_RESULTS, 100, 3600);
+
+        // Must outlive every cached query result, so neither bounded nor expiring (one entry per table).
+        createRegion(cacheManager, meterRegistry, UPDATE_TIMESTAMPS, null, null);
+
+        return(cacheManager);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return(properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager));
+    }
+
+    private void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String region, Integer defaultMaxSize, Integer defaultExpireAfterWriteSeconds) {
+        CaffeineConfiguration <Object, Object> configuration = new CaffeineConfiguration <> ();
+        // Hibernate's cache entries are immutable, no need to copy them in and out.
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+
+        if(defaultMaxSize != null) {
+            long maxSize = this.environment.getProperty("app.cache." + region + ".maxSize", Long.class, (long) defaultMaxSize);
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+
+        if(defaultExpireAfterWriteSeconds != null) {
+            long expireAfterWriteSeconds = this.environment.getProperty("app.cache." + region + ".expireAfterWriteSeconds", Long.class, (long) defaultExpireAfterWriteSeconds);
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(expireAfterWriteSeconds)));
+        }
+
+        Cache <Object, Object> cache = cacheManager.createCache(region, configuration);
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+}
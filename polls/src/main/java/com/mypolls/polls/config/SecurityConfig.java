@@ -78,6 +78,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                     .permitAll()
                 .antMatchers(HttpMethod.GET, "/api/polls/**", "/api/users/**")
                     .permitAll()
+                .antMatchers("/actuator/health")
+                    .permitAll()
+                // Behind a proxy every request comes from localhost, so the rest of the actuator takes an admin token.
+                .antMatchers("/actuator/**")
+                    .hasRole("ADMIN")
                 .anyRequest()
                     .authenticated();
 
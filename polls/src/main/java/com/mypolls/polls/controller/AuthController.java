@@ -1,23 +1,27 @@
 package com.mypolls.polls.controller;
 
-import java.net.URI;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.mypolls.polls.exception.AppException;
 import com.mypolls.polls.model.Role;
@@ -30,6 +34,9 @@ import com.mypolls.polls.payload.SignupRequest;
 import com.mypolls.polls.repositories.RoleRepository;
 import com.mypolls.polls.repositories.UserRepository;
 import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.PasswordHashingExecutor;
+import com.mypolls.polls.security.PasswordHashingExecutor.Operation;
+import com.mypolls.polls.service.UserIdentityIndex;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -49,51 +56,80 @@ public class AuthController {
     @Autowired
     JwtTokenProvider tokenProvider;
 
-    @PostMapping("/login")
-    public ResponseEntity <?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = this.authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(loginRequest.getUsernameOrEmail(), loginRequest.getPassword())
-        );
-   
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+    @Autowired
+    UserIdentityIndex userIdentityIndex;
+
+    @Autowired
+    PasswordHashingExecutor passwordHashingExecutor;
 
-        String jwt = this.tokenProvider.generateToken(authentication);
+    // Spring Boot's, also the one async requests run on.
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    TaskExecutor applicationTaskExecutor;
 
-        return(ResponseEntity.ok(new JwtAuthenticationResponse(jwt)));
+    // Both endpoints return as soon as the work is handed to the password hashing pool, freeing the request thread.
+    @PostMapping("/login")
+    public CompletableFuture <ResponseEntity <?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return(
+            this.passwordHashingExecutor.submit(Operation.LOGIN, () -> {
+                // Stateless, the authentication only serves to issue the token (and must not linger on a pool thread's context).
+                Authentication authentication = this.authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsernameOrEmail(), loginRequest.getPassword())
+                );
+
+                String jwt = this.tokenProvider.generateToken(authentication);
+
+                return(ResponseEntity.ok(new JwtAuthenticationResponse(jwt)));
+            })
+        );
     }
 
     @PostMapping("/signup")
-    public ResponseEntity <?> registerUser(@Valid @RequestBody SignupRequest signupRequest) {
-        if(this.userRepository.existsByUsername(signupRequest.getUsername())) {
+    public CompletableFuture <ResponseEntity <?>> registerUser(@Valid @RequestBody SignupRequest signupRequest) {
+        if(!this.userIdentityIndex.isUsernameAvailable(signupRequest.getUsername())) {
             return(
-                new ResponseEntity <> (new ApiResponse(false, "Username is already taken!"),HttpStatus.BAD_REQUEST)
+                CompletableFuture.completedFuture(new ResponseEntity <> (new ApiResponse(false, "Username is already taken!"),HttpStatus.BAD_REQUEST))
             );
         }
 
-        if(this.userRepository.existsByEmail(signupRequest.getEmail())) {
+        if(!this.userIdentityIndex.isEmailAvailable(signupRequest.getEmail())) {
             return(
-                new ResponseEntity <> (new ApiResponse(false, "Email is already in use!"), HttpStatus.BAD_REQUEST)
+                CompletableFuture.completedFuture(new ResponseEntity <> (new ApiResponse(false, "Email is already in use!"), HttpStatus.BAD_REQUEST))
             );
         }
-    
-        // Else, create a new user account.
-        User user = new User(signupRequest.getName(), signupRequest.getUsername(), signupRequest.getEmail(), signupRequest.getPassword());
 
-        user.setPassword(this.passwordEncoder.encode(user.getPassword()));
+        // Resolved here, the current request isn't bound to the pool thread that completes the signup.
+        UriComponentsBuilder location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/users/{username}");
+
+        // The user is saved off the hashing pool, whose few threads are kept for hashing.
+        return(
+            this.passwordHashingExecutor.submit(Operation.SIGNUP, () -> this.passwordEncoder.encode(signupRequest.getPassword()))
+                                        .thenApplyAsync(passwordHash -> createUser(signupRequest, passwordHash, location), this.applicationTaskExecutor)
+        );
+    }
+
+    private ResponseEntity <?> createUser(SignupRequest signupRequest, String passwordHash, UriComponentsBuilder location) {
+        // Else, create a new user account.
+        User user = new User(signupRequest.getName(), signupRequest.getUsername(), signupRequest.getEmail(), passwordHash);
 
-        // System.out.println("---------------" + user.getPassword().length());
-        
         Role userRole = this.roleRepository.findByName(RoleName.ROLE_USER)
                                             .orElseThrow(() -> new AppException("User role not set"));
 
         user.setRoles(Collections.singleton(userRole));
 
-        User result = this.userRepository.save(user);
+        User result;
+        try {
+            result = this.userRepository.save(user);
+        }
+        catch(DataIntegrityViolationException ex) {
+            // Taken meanwhile, or on another instance whose signups this one's identity filters haven't seen yet.
+            return(
+                new ResponseEntity <> (new ApiResponse(false, "Username or email is already in use!"), HttpStatus.BAD_REQUEST)
+            );
+        }
+
+        this.userIdentityIndex.userRegistered(result.getUsername(), result.getEmail());
 
-        URI location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/users/{username}")
-                                                                            .buildAndExpand(result.getUsername())
-                                                                            .toUri();
-        
-        return(ResponseEntity.created(location).body(new ApiResponse(true, "User registered successfully!")));
+        return(ResponseEntity.created(location.buildAndExpand(result.getUsername()).toUri()).body(new ApiResponse(true, "User registered successfully!")));
     }
 }
@@ -1,12 +1,17 @@
 package com.mypolls.polls.controller;
 
 import java.net.URI;
+import java.util.List;
+import java.util.function.Predicate;
 
 import javax.validation.Valid;
 
 // import org.slf4j.Logger;
 // import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,19 +21,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import com.mypolls.polls.model.PagedResponse;
 import com.mypolls.polls.model.Poll;
 import com.mypolls.polls.model.VoteRequest;
 import com.mypolls.polls.payload.ApiResponse;
+import com.mypolls.polls.payload.PollBatchResponse;
 import com.mypolls.polls.payload.PollRequest;
 import com.mypolls.polls.payload.PollResponse;
 // import com.mypolls.polls.repositories.PollRepository;
 // import com.mypolls.polls.repositories.UserRepository;
 // import com.mypolls.polls.repositories.VoteRepository;
 import com.mypolls.polls.security.CurrentUser;
+import com.mypolls.polls.security.RateLimited;
+import com.mypolls.polls.security.RateLimited.Limit;
 import com.mypolls.polls.security.UserPrincipal;
+import com.mypolls.polls.service.PollExportService;
 import com.mypolls.polls.service.PollService;
 import com.mypolls.polls.util.AppConstants;
 
@@ -47,17 +58,30 @@ public class PollController {
     @Autowired
     private PollService pollService;
 
+    @Autowired
+    private PollExportService pollExportService;
+
     // private static Logger logger = LoggerFactory.getLogger(PollController.class);
 
-    @GetMapping
-    public PagedResponse <PollResponse> getPolls(@CurrentUser UserPrincipal currentUser,
+    // Conditional GETs: a 304 (null) for an If-None-Match matching the response's ETag, see PollService. The responses
+    // come already rendered as JSON (see PollJsonCache).
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public byte[] getPolls(@CurrentUser UserPrincipal currentUser,
                                                 @RequestParam(value = "page", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) int page,
-                                                @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size) {
-                                                    return(pollService.getAllPolls(currentUser, page, size));
+                                                @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                ServletWebRequest webRequest) {
+                                                    // Keyset pagination when a cursor (empty for the first page) is given, offset pagination otherwise.
+                                                    if(cursor != null) {
+                                                        return(pollService.getAllPolls(currentUser, cursor, size, notModified(webRequest)));
+                                                    }
+
+                                                    return(pollService.getAllPolls(currentUser, page, size, notModified(webRequest)));
                                                 }
 
     @PostMapping
     @PreAuthorize("hasRole('USER')")
+    @RateLimited(Limit.POLLS)
     public ResponseEntity <?> createPoll(@Valid @RequestBody PollRequest pollRequest) {
         Poll poll = pollService.createPoll(pollRequest);
         
@@ -68,19 +92,70 @@ public class PollController {
         );
     }
 
-    @GetMapping("/{pollId}")
-    public PollResponse getPollById(@CurrentUser UserPrincipal currentUser, @PathVariable Long pollId) {
+    // e.g. GET /api/polls/batch?ids=1,2,3
+    @GetMapping("/batch")
+    public PollBatchResponse getPollsByIds(@CurrentUser UserPrincipal currentUser, @RequestParam(value = "ids") List <Long> ids) {
         return(
-            pollService.getPollById(pollId, currentUser)
+            pollService.getPollsByIds(ids, currentUser)
+        );
+    }
+
+    @GetMapping(value = "/{pollId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public byte[] getPollById(@CurrentUser UserPrincipal currentUser, @PathVariable Long pollId, ServletWebRequest webRequest) {
+        // Anonymous users all get the same response, which is kept gzipped too.
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = currentUser == null && acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        webRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        // A strong ETag is per encoding.
+        Predicate <String> notModified = notModified(webRequest);
+        byte[] json = pollService.getPollById(pollId, currentUser, gzip, gzip ? eTag -> notModified.test(eTag.replaceFirst("\"$", "-gzip\"")) : notModified);
+
+        if(gzip && json != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return(json);
+    }
+
+    // Server-Sent Events stream of the poll's vote counts, instead of polling GET /{pollId}.
+    @GetMapping(value = "/{pollId}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPollResults(@PathVariable Long pollId) {
+        return(
+            pollService.streamPollResults(pollId)
+        );
+    }
+
+    // Raw votes of the poll, streamed as CSV or NDJSON (one JSON object per line).
+    @GetMapping("/{pollId}/export")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity <StreamingResponseBody> exportPoll(@CurrentUser UserPrincipal currentUser, @PathVariable Long pollId, @RequestParam(value = "format", defaultValue = "csv") String format) {
+        PollExportService.Format exportFormat = PollExportService.Format.of(format);
+        pollExportService.checkExportAllowed(pollId, currentUser);
+
+        StreamingResponseBody body = out -> pollExportService.exportVotes(pollId, exportFormat, out);
+
+        return(
+            ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"poll-" + pollId + "-votes." + exportFormat.getExtension() + "\"")
+                        .body(body)
         );
     }
 
     @PostMapping("/{pollId}/votes")
     @PreAuthorize("hasRole('USER')")
+    @RateLimited(Limit.VOTES)
     public PollResponse castVote(@CurrentUser UserPrincipal currentUser, @PathVariable Long pollId, @Valid @RequestBody VoteRequest voteRequest) {
         return(
             pollService.castVote(pollId, voteRequest, currentUser)              // Will cast vote and also return updated poll information.
         );
     }
 
+    // Lets clients keep the response and revalidate it (Spring Security would otherwise have it not stored at all).
+    private static Predicate <String> notModified(ServletWebRequest webRequest) {
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return(webRequest::checkNotModified);
+    }
 }
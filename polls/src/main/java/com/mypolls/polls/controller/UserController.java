@@ -10,35 +10,29 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.mypolls.polls.exception.ResourceNotFoundException;
 import com.mypolls.polls.model.PagedResponse;
-import com.mypolls.polls.model.User;
 import com.mypolls.polls.payload.PollResponse;
 import com.mypolls.polls.payload.UserIdentityAvailability;
 import com.mypolls.polls.payload.UserProfile;
 import com.mypolls.polls.payload.UserSummary;
-import com.mypolls.polls.repositories.PollRepository;
-import com.mypolls.polls.repositories.UserRepository;
-import com.mypolls.polls.repositories.VoteRepository;
 import com.mypolls.polls.security.CurrentUser;
 import com.mypolls.polls.security.UserPrincipal;
 import com.mypolls.polls.service.PollService;
+import com.mypolls.polls.service.UserIdentityIndex;
+import com.mypolls.polls.service.UserService;
 import com.mypolls.polls.util.AppConstants;
 
 @RestController
 @RequestMapping("/api")
 public class UserController {
     @Autowired
-    private PollRepository pollRepository;
+    private UserService userService;
 
     @Autowired
-    private VoteRepository voteRepository;
+    private PollService pollService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private PollService pollService;
+    private UserIdentityIndex userIdentityIndex;
 
     // private static Logger logger = LoggerFactory.getLogger(UserController.class);
 
@@ -51,7 +45,15 @@ public class UserController {
 
     @GetMapping("/user/checkUsernameAvailability")
     public UserIdentityAvailability checkUsernameAvailability(@RequestParam(value = "username") String username) {
-        Boolean isAvailable = ! (userRepository.existsByUsername(username));
+        Boolean isAvailable = userIdentityIndex.isUsernameAvailable(username);
+        return(
+            new UserIdentityAvailability(isAvailable)
+        );
+    }
+
+    @GetMapping("/user/checkEmailAvailability")
+    public UserIdentityAvailability checkEmailAvailability(@RequestParam(value = "email") String email) {
+        Boolean isAvailable = userIdentityIndex.isEmailAvailable(email);
         return(
             new UserIdentityAvailability(isAvailable)
         );
@@ -59,14 +61,9 @@ public class UserController {
 
     @GetMapping("/users/{username}")
     public UserProfile getUserProfile(@PathVariable(value = "username") String username) {
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-
-        Long pollCount = pollRepository.countByCreatedBy(user.getId());
-        Long voteCount = voteRepository.countByUserId(user.getId());
-
-        UserProfile userProfile = new UserProfile(user.getId(), user.getUsername(), user.getName(), user.getCreatedAt(), pollCount, voteCount);
-
-        return(userProfile);
+        return(
+            userService.getUserProfile(username)
+        );
     }
 
     // Get all polls created by logged-in user.
@@ -74,8 +71,13 @@ public class UserController {
     public PagedResponse <PollResponse> getPollsByCreatedBy(@PathVariable(value = "username") String username,
                                                             @CurrentUser UserPrincipal currentUser,
                                                             @RequestParam(value = "page", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) int page,
-                                                            @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size
+                                                            @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+                                                            @RequestParam(value = "cursor", required = false) String cursor
                                                         ) {
+                                                            if(cursor != null) {
+                                                                return(pollService.getPollsCreatedBy(username, currentUser, cursor, size));
+                                                            }
+
                                                             return(
                                                                 pollService.getPollsCreatedBy(username, currentUser, page, size)
                                                             );
@@ -86,8 +88,13 @@ public class UserController {
     public PagedResponse <PollResponse> getPollsVotedBy(@PathVariable(value = "username") String username,
                                                         @CurrentUser UserPrincipal currentUser,
                                                         @RequestParam(value = "page", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) int page,
-                                                        @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size
+                                                        @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+                                                        @RequestParam(value = "cursor", required = false) String cursor
                                                     ) {
+                                                        if(cursor != null) {
+                                                            return(pollService.getPollsVotedBy(username, currentUser, cursor, size));
+                                                        }
+
                                                         return(
                                                             pollService.getPollsVotedBy(username, currentUser, page, size)
                                                         );
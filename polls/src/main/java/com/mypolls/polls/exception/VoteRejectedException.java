@@ -0,0 +1,13 @@
+package com.mypolls.polls.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Expected outcomes of casting a vote (already voted, poll expired), frequent enough under load that the stack trace
+// isn't worth filling in: it would only ever point at the same few lines of PollService.
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class VoteRejectedException extends RuntimeException {
+    public VoteRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
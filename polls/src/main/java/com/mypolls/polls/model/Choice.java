@@ -6,9 +6,15 @@ import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.mypolls.polls.config.SecondLevelCacheConfig;
+
 
 @Entity
 @Table(name = "choices")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.CHOICES)
 public class Choice {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +28,12 @@ public class Choice {
     @JoinColumn(name = "poll_id", nullable = false)
     private Poll poll;
 
+    // Denormalized count of votes, only ever changed by CounterRepository (never by dirty checking). Bypasses the
+    // second-level cache, so the count of an open poll's choice is read with a query (or from VoteTallyEngine), never
+    // off the entity. Only a closed poll's counts are final and may be (see VoteTallyEngine.getChoiceVoteCounts).
+    @Column(nullable = false, updatable = false)
+    private long voteCount;
+
 
     public Choice() {
     }
@@ -55,6 +67,14 @@ public class Choice {
         this.poll = poll;
     }
 
+    public long getVoteCount() {
+        return this.voteCount;
+    }
+
+    public void setVoteCount(long voteCount) {
+        this.voteCount = voteCount;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,35 @@
+package com.mypolls.polls.model;
+
+import java.util.Map;
+
+// A node's share of the cluster-wide vote counts: the votes it has committed per poll and choice since it started,
+// exchanged between nodes by VoteCountExchange.
+public class NodeVoteCounts {
+    private String nodeId;
+    // Poll id -> choice id -> vote count.
+    private Map <Long, Map <Long, Long>> counts;
+
+    public NodeVoteCounts() {
+    }
+
+    public NodeVoteCounts(String nodeId, Map <Long, Map <Long, Long>> counts) {
+        this.nodeId = nodeId;
+        this.counts = counts;
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Map <Long, Map <Long, Long>> getCounts() {
+        return this.counts;
+    }
+
+    public void setCounts(Map <Long, Map <Long, Long>> counts) {
+        this.counts = counts;
+    }
+}
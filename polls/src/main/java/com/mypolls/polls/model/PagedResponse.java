@@ -2,13 +2,18 @@ package com.mypolls.polls.model;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Either an offset page (page, totalElements, totalPages) or a keyset page (nextCursor), unused fields are left out.
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse <T> {
     private List <T> content;
-    private int page;
+    private Integer page;
     private int size;
     private Long totalElements;
-    private int totalPages;
+    private Integer totalPages;
     private Boolean last;
+    private String nextCursor;
 
     public PagedResponse() {
 
@@ -24,6 +29,13 @@ public class PagedResponse <T> {
         this.last = last;
     }
 
+    public PagedResponse(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.last = nextCursor == null;
+    }
+
 
     public List<T> getContent() {
         return this.content;
@@ -33,11 +45,11 @@ public class PagedResponse <T> {
         this.content = content;
     }
 
-    public int getPage() {
+    public Integer getPage() {
         return this.page;
     }
 
-    public void setPage(int page) {
+    public void setPage(Integer page) {
         this.page = page;
     }
 
@@ -57,11 +69,11 @@ public class PagedResponse <T> {
         this.totalElements = totalElements;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return this.totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
 
@@ -76,4 +88,12 @@ public class PagedResponse <T> {
     public void setLast(Boolean last) {
         this.last = last;
     }
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -10,13 +10,22 @@ import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 
+import com.mypolls.polls.config.SecondLevelCacheConfig;
 import com.mypolls.polls.model.audit.UserDateAudit;
 
 @Entity
-@Table(name = "polls")
+@Table(name = "polls", indexes = {
+    // Backs the keyset paginated feeds, see PollRepository.findPageAfter.
+    @Index(columnList = "createdAt, id"),
+    @Index(columnList = "createdBy, createdAt, id"),
+    @Index(columnList = "closedAt, expirationDateTime")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.POLLS)
 public class Poll extends UserDateAudit {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,11 +44,21 @@ public class Poll extends UserDateAudit {
     @Size(min = 2, max = 6)
     @Fetch(FetchMode.SELECT)
     @BatchSize(size = 30)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.POLL_CHOICES)
     private List <Choice> choices = new ArrayList <Choice> ();
 
     @NotNull
     private Instant expirationDateTime;
 
+    // Denormalized count of votes, only ever changed by CounterRepository (never by dirty checking). Bypasses the
+    // second-level cache, so the cached value is stale: read it with a query, never off the entity.
+    @Column(nullable = false, updatable = false)
+    private long totalVotes;
+
+    // Set by PollExpiryScheduler once the poll has expired and its counts have been frozen, only ever by a bulk update.
+    @Column(updatable = false, insertable = false)
+    private Instant closedAt;
+
 
     public Long getId() {
         return this.id;
@@ -72,7 +91,28 @@ public class Poll extends UserDateAudit {
     public void setExpirationDateTime(Instant expirationDateTime) {
         this.expirationDateTime = expirationDateTime;
     }
+
+    public long getTotalVotes() {
+        return this.totalVotes;
+    }
+
+    public void setTotalVotes(long totalVotes) {
+        this.totalVotes = totalVotes;
+    }
     
+    public Instant getClosedAt() {
+        return this.closedAt;
+    }
+
+    public void setClosedAt(Instant closedAt) {
+        this.closedAt = closedAt;
+    }
+
+    // Closed polls can't receive votes anymore, their Choice.voteCount and totalVotes are final.
+    public boolean isClosed() {
+        return(this.closedAt != null);
+    }
+
     public void addChoice(Choice choice) {
         this.choices.add(choice);
         choice.setPoll(this);
@@ -1,12 +1,17 @@
 package com.mypolls.polls.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
 
+import com.mypolls.polls.config.SecondLevelCacheConfig;
 import com.mypolls.polls.model.audit.DateAudit;
+import com.mypolls.polls.security.RolePrincipalCacheListener;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
+import javax.persistence.EntityListeners;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -16,6 +21,8 @@ import javax.persistence.GenerationType;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(RolePrincipalCacheListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ROLES)
 public class Role extends DateAudit {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,11 +3,17 @@ package com.mypolls.polls.model;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
 
+import com.mypolls.polls.config.SecondLevelCacheConfig;
 import com.mypolls.polls.model.audit.DateAudit;
+import com.mypolls.polls.security.UserPrincipalCacheListener;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
@@ -26,6 +32,8 @@ import javax.persistence.GenerationType;
     @UniqueConstraint(columnNames = {"username"}),
     @UniqueConstraint(columnNames = {"email"})
 })
+@EntityListeners(UserPrincipalCacheListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS)
 
 public class User extends DateAudit {
     @Id
@@ -56,8 +64,17 @@ public class User extends DateAudit {
         joinColumns = @JoinColumn(name = "user_id"),
         inverseJoinColumns = @JoinColumn(name = "role_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_ROLES)
     private Set <Role> roles = new HashSet <Role> ();
 
+    // Denormalized profile counters, only ever changed by CounterRepository (never by dirty checking) and repaired by
+    // VoteCountRepairJob. Bypass the second-level cache, only read off a user loaded by a query (findByUsername).
+    @Column(nullable = false, updatable = false)
+    private long pollCount;
+
+    @Column(nullable = false, updatable = false)
+    private long voteCount;
+
 
     public User() {
     }
@@ -118,4 +135,20 @@ public class User extends DateAudit {
     public void setRoles(Set<Role> roles) {
         this.roles = roles;
     }
+
+    public long getPollCount() {
+        return this.pollCount;
+    }
+
+    public void setPollCount(long pollCount) {
+        this.pollCount = pollCount;
+    }
+
+    public long getVoteCount() {
+        return this.voteCount;
+    }
+
+    public void setVoteCount(long voteCount) {
+        this.voteCount = voteCount;
+    }
 }
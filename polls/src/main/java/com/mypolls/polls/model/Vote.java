@@ -10,6 +10,8 @@ import com.mypolls.polls.model.audit.DateAudit;
         "poll_id",
         "user_id"
     })
+}, indexes = {
+    @Index(columnList = "user_id, createdAt, id")
 })
 public class Vote extends DateAudit {
     @Id
@@ -33,6 +33,10 @@ public abstract class DateAudit implements Serializable {
         return(createdAt);
     }
 
+    public void setCreatedAt(Instant createdAt){
+        this.createdAt = createdAt;
+    }
+
     public Instant getUpdatedAt(){
         return(updatedAt);
     }
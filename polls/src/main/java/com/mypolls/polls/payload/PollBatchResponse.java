@@ -0,0 +1,35 @@
+package com.mypolls.polls.payload;
+
+import java.util.List;
+import java.util.Map;
+
+// Polls fetched by id, in the order they were asked for. Ids that don't exist are listed in missingIds.
+public class PollBatchResponse {
+    private Map <Long, PollResponse> polls;
+    private List <Long> missingIds;
+
+    public PollBatchResponse() {
+
+    }
+
+    public PollBatchResponse(Map <Long, PollResponse> polls, List <Long> missingIds) {
+        this.polls = polls;
+        this.missingIds = missingIds;
+    }
+
+    public Map <Long, PollResponse> getPolls() {
+        return this.polls;
+    }
+
+    public void setPolls(Map <Long, PollResponse> polls) {
+        this.polls = polls;
+    }
+
+    public List <Long> getMissingIds() {
+        return this.missingIds;
+    }
+
+    public void setMissingIds(List <Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
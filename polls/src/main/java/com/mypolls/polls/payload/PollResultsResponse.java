@@ -0,0 +1,46 @@
+package com.mypolls.polls.payload;
+
+import java.util.List;
+
+import com.mypolls.polls.model.ChoiceVoteCount;
+
+// Live vote counts of a poll, as pushed by the results stream.
+public class PollResultsResponse {
+    private Long pollId;
+    private List <ChoiceVoteCount> choices;
+    private Long totalVotes;
+
+    public PollResultsResponse() {
+
+    }
+
+    public PollResultsResponse(Long pollId, List <ChoiceVoteCount> choices, Long totalVotes) {
+        this.pollId = pollId;
+        this.choices = choices;
+        this.totalVotes = totalVotes;
+    }
+
+    public Long getPollId() {
+        return this.pollId;
+    }
+
+    public void setPollId(Long pollId) {
+        this.pollId = pollId;
+    }
+
+    public List <ChoiceVoteCount> getChoices() {
+        return this.choices;
+    }
+
+    public void setChoices(List <ChoiceVoteCount> choices) {
+        this.choices = choices;
+    }
+
+    public Long getTotalVotes() {
+        return this.totalVotes;
+    }
+
+    public void setTotalVotes(Long totalVotes) {
+        this.totalVotes = totalVotes;
+    }
+}
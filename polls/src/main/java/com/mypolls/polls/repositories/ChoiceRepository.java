@@ -0,0 +1,28 @@
+package com.mypolls.polls.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mypolls.polls.model.Choice;
+import com.mypolls.polls.model.ChoiceVoteCount;
+
+@Repository
+public interface ChoiceRepository extends JpaRepository <Choice, Long> {
+    @Query("SELECT NEW com.mypolls.polls.model.ChoiceVoteCount(c.id, c.voteCount) FROM Choice c WHERE c.poll.id in :pollIds")
+    List <ChoiceVoteCount> findVoteCountsByPollIdIn(@Param("pollIds") List<Long> pollIds);
+
+    // Recompute the denormalized counts of a range of choices from the votes table, those of closed polls are final.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE choices c SET c.vote_count = (SELECT COUNT(v.id) FROM votes v WHERE v.choice_id = c.id) WHERE c.id BETWEEN :fromId AND :toId AND c.poll_id IN (SELECT p.id FROM polls p WHERE p.closed_at IS NULL)", nativeQuery = true)
+    int recomputeVoteCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM Choice c")
+    Long findMaxId();
+}
@@ -0,0 +1,74 @@
+package com.mypolls.polls.repositories;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Updates of the denormalized counters (Choice.voteCount, Poll.totalVotes, User.pollCount / voteCount) and of
+// Poll.closedAt, in plain JDBC. A JPQL or native bulk update run through Hibernate would invalidate whole regions of
+// the second-level cache on every vote, these leave the cache alone instead, so the cached counters go stale and the
+// counts are never read off an entity (see Choice.voteCount).
+// Joins the caller's transaction, if any.
+@Repository
+public class CounterRepository {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // The counts of a closed poll are frozen (see closePolls).
+    private static final String INCREMENT_CHOICE = "UPDATE choices SET vote_count = vote_count + ? WHERE id = ? AND EXISTS (SELECT 1 FROM polls p WHERE p.id = choices.poll_id AND p.closed_at IS NULL)";
+    private static final String INCREMENT_POLL = "UPDATE polls SET total_votes = total_votes + ? WHERE id = ? AND closed_at IS NULL";
+    private static final String INCREMENT_USER_VOTES = "UPDATE users SET vote_count = vote_count + ? WHERE id = ?";
+    private static final String INCREMENT_USER_POLLS = "UPDATE users SET poll_count = poll_count + ? WHERE id = ?";
+
+    private static final String RECOMPUTE_CHOICES_OF_OPEN_POLLS = "UPDATE choices c SET c.vote_count = (SELECT COUNT(v.id) FROM votes v WHERE v.choice_id = c.id) WHERE c.poll_id IN (SELECT p.id FROM polls p WHERE p.id IN (:pollIds) AND p.closed_at IS NULL)";
+    private static final String CLOSE_POLLS = "UPDATE polls p SET p.total_votes = (SELECT COUNT(v.id) FROM votes v WHERE v.poll_id = p.id), p.closed_at = :closedAt WHERE p.id IN (:pollIds) AND p.closed_at IS NULL";
+
+    public void incrementVoteCounts(Long pollId, Long choiceId, Long userId) {
+        jdbcTemplate.update(INCREMENT_CHOICE, 1, choiceId);
+        jdbcTemplate.update(INCREMENT_POLL, 1, pollId);
+        jdbcTemplate.update(INCREMENT_USER_VOTES, 1, userId);
+    }
+
+    // Increments by id, one batch per table.
+    public void incrementVoteCounts(Map <Long, Long> pollIncrements, Map <Long, Long> choiceIncrements, Map <Long, Long> userIncrements) {
+        incrementCounters(INCREMENT_CHOICE, choiceIncrements);
+        incrementCounters(INCREMENT_POLL, pollIncrements);
+        incrementCounters(INCREMENT_USER_VOTES, userIncrements);
+    }
+
+    public void incrementPollCount(Long userId) {
+        incrementCounters(INCREMENT_USER_POLLS, Collections.singletonMap(userId, 1L));
+    }
+
+    // Freezes the vote counts of the given polls and marks them closed, polls that were already closed are left
+    // untouched. Must run in a transaction, returns the number of polls closed.
+    public int closePolls(List <Long> pollIds, Instant closedAt) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("pollIds", pollIds).addValue("closedAt", Timestamp.from(closedAt));
+
+        namedParameterJdbcTemplate.update(RECOMPUTE_CHOICES_OF_OPEN_POLLS, parameters);
+        return(namedParameterJdbcTemplate.update(CLOSE_POLLS, parameters));
+    }
+
+    private void incrementCounters(String sql, Map <Long, Long> increments) {
+        if(increments.isEmpty()) {
+            return;
+        }
+
+        List <Object[]> args = new ArrayList <> (increments.size());
+        increments.forEach((id, increment) -> args.add(new Object[] {increment, id}));
+
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+}
@@ -1,5 +1,6 @@
 package com.mypolls.polls.repositories;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -7,9 +8,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.PollExpiration;
 
 @Repository
 public interface PollRepository extends JpaRepository <Poll, Long> {
@@ -21,4 +27,30 @@ public interface PollRepository extends JpaRepository <Poll, Long> {
 
     List <Poll> findByIdIn(List <Long> pollIds);
     List <Poll> findByIdIn(List <Long> pollIds, Sort sort);
+
+    // Keyset pages of the (createdAt, id) ordered feeds, these never run a count query.
+    @Query("SELECT p FROM Poll p ORDER BY p.createdAt DESC, p.id DESC")
+    List <Poll> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Poll p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List <Poll> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Poll p WHERE p.createdBy = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List <Poll> findFirstPageByCreatedBy(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT p FROM Poll p WHERE p.createdBy = :userId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List <Poll> findPageByCreatedByAfter(@Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Recompute the denormalized vote totals of a range of polls from the votes table, closed polls are left as they closed.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE polls p SET p.total_votes = (SELECT COUNT(v.id) FROM votes v WHERE v.poll_id = p.id) WHERE p.id BETWEEN :fromId AND :toId AND p.closed_at IS NULL", nativeQuery = true)
+    int recomputeTotalVotes(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Polls that are still open and expire before the given instant, soonest first.
+    @Query("SELECT NEW com.mypolls.polls.model.PollExpiration(p.id, p.expirationDateTime) FROM Poll p WHERE p.closedAt IS NULL AND p.expirationDateTime <= :until ORDER BY p.expirationDateTime")
+    List <PollExpiration> findOpenExpiringBefore(@Param("until") Instant until, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Poll p")
+    Long findMaxId();
 }
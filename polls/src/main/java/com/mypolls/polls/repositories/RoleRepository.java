@@ -1,6 +1,7 @@
 package com.mypolls.polls.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.mypolls.polls.model.Role;
@@ -8,7 +9,11 @@ import com.mypolls.polls.model.RoleName;
 
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
 @Repository
 public interface RoleRepository extends JpaRepository <Role, Long> {
+    // Looked up on every signup, served from the query cache until the roles table changes.
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     Optional <Role> findByName(RoleName roleName);
 }
@@ -4,7 +4,11 @@ import java.util.Optional;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mypolls.polls.model.User;
 
@@ -18,4 +22,13 @@ public interface UserRepository extends JpaRepository <User, Long> {        // <
 
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // Recompute the denormalized profile counters of a range of users from the polls and votes tables.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users u SET u.poll_count = (SELECT COUNT(p.id) FROM polls p WHERE p.created_by = u.id), u.vote_count = (SELECT COUNT(v.id) FROM votes v WHERE v.user_id = u.id) WHERE u.id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int recomputeCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    Long findMaxId();
 }
@@ -1,5 +1,6 @@
 package com.mypolls.polls.repositories;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -31,4 +32,11 @@ public interface VoteRepository extends JpaRepository <Vote, Long> {
 
     @Query("SELECT v.poll.id FROM Vote v WHERE v.user.id = :userId")
     Page <Long> findVotedPollIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset pages of a user's votes, newest first.
+    @Query("SELECT v FROM Vote v WHERE v.user.id = :userId ORDER BY v.createdAt DESC, v.id DESC")
+    List <Vote> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT v FROM Vote v WHERE v.user.id = :userId AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.id < :id)) ORDER BY v.createdAt DESC, v.id DESC")
+    List <Vote> findPageByUserIdAfter(@Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
 }
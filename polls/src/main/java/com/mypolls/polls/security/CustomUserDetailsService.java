@@ -1,12 +1,21 @@
 package com.mypolls.polls.security;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import com.mypolls.polls.config.ReplicaRoutingDataSource;
 import com.mypolls.polls.model.User;
 import com.mypolls.polls.repositories.UserRepository;
 
@@ -14,25 +23,58 @@ import com.mypolls.polls.repositories.UserRepository;
 public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
-    
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
         // Login with either username or email, used by spring security.
-        User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).orElseThrow(
-            () -> new UsernameNotFoundException("User with given username/email not found: " + usernameOrEmail)
-        );
-    
-        return(UserPrincipal.create(user));
+        UserPrincipal principal = loadPrincipal(() -> userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail));
+
+        if(principal == null) {
+            throw new UsernameNotFoundException("User with given username/email not found: " + usernameOrEmail);
+        }
+
+        return(principal);
     }
 
     // To be used by JWTAuthenticationFilter.
-    @Transactional
     public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id).orElseThrow(
-            () -> new UsernameNotFoundException("User with given id not found: " + id)
-        );
+        UserPrincipal principal = loadPrincipal(() -> userRepository.findById(id));
+
+        if(principal == null) {
+            throw new UsernameNotFoundException("User with given id not found: " + id);
+        }
+
+        return(principal);
+    }
+
+    // Read from the replica, if any. A user who has only just signed up may not have made it there yet, so a miss is
+    // retried on the primary.
+    private UserPrincipal loadPrincipal(Supplier <Optional <User>> finder) {
+        UserPrincipal principal = loadPrincipalInTransaction(finder);
+
+        if(principal == null && StringUtils.hasText(this.replicaUrl)) {
+            principal = ReplicaRoutingDataSource.onPrimary(() -> loadPrincipalInTransaction(finder));
+        }
+
+        return(principal);
+    }
 
-        return(UserPrincipal.create(user));
+    private UserPrincipal loadPrincipalInTransaction(Supplier <Optional <User>> finder) {
+        // The roles are loaded lazily, within the transaction.
+        return(this.readOnlyTransactionTemplate.execute(status -> finder.get().map(UserPrincipal::create).orElse(null)));
     }
 }
@@ -22,7 +22,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private UserPrincipalCache userPrincipalCache;
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     
@@ -41,10 +41,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if(StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
+            VerifiedToken token = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : null;
+
+            if(token != null) {
+                // Prefer the principal embedded in the token, and fall back to the (cached) user from the database.
+                UserDetails userDetails = tokenProvider.getUserPrincipal(token);
+                if(userDetails == null) {
+                    userDetails = userPrincipalCache.get(token.getUserId());
+                }
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                                                                                                         userDetails,
                                                                                                         null,
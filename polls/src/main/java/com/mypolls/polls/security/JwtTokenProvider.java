@@ -1,14 +1,23 @@
 package com.mypolls.polls.security;
 
+import java.security.Key;
 import java.util.Base64;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.mypolls.polls.util.ExpiringLruCache;
+
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SecurityException;
@@ -23,45 +32,90 @@ public class JwtTokenProvider {
     @Value("${app.jwtExpirationInMs}")
     private int jwtExpirationInMs;
 
+    // Carry name, username and roles in the token, so that authenticating a request needs no database access.
+    // Role changes then only take effect once the user's current tokens expire.
+    @Value("${app.jwt.embedClaims:false}")
+    private boolean embedClaims;
+
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_USERNAME = "username";
+    private static final String CLAIM_ROLES = "roles";
+
+    @Value("${app.jwt.verifiedCache.maxSize:10000}")
+    private int verifiedCacheMaxSize;
+
+    @Value("${app.jwt.verifiedCache.ttlMs:60000}")
+    private long verifiedCacheTtlMs;
+
+    // Built once, both are immutable and safe to share between threads.
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Recently verified tokens, so that clients sending the same token again skip the HMAC check. Holds immutable
+    // copies of what requests need of the claims, never the claims themselves. An entry never outlives the expiry of its token.
+    private ExpiringLruCache <String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        // Stackoverflow reference:
+        // decode the base64 encoded string
+        byte[] decodedKey = Base64.getDecoder().decode(this.jwtSecret);
+
+        this.signingKey = Keys.hmacShaKeyFor(decodedKey);
+        this.parser = Jwts.parserBuilder().setSigningKey(this.signingKey).build();
+        this.verifiedTokens = new ExpiringLruCache <> (this.verifiedCacheMaxSize, this.verifiedCacheTtlMs);
+    }
+
     public String generateToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
         Date now = new Date();
         Date expiry = new Date(now.getTime() + this.jwtExpirationInMs);
 
-        // Stackoverflow reference:
-        // decode the base64 encoded string
-        byte[] decodedKey = Base64.getDecoder().decode(this.jwtSecret);
+        JwtBuilder builder = Jwts.builder()
+                                .setSubject(Long.toString(userPrincipal.getId()))
+                                .setIssuedAt(new Date())
+                                .setExpiration(expiry);
+
+        if(this.embedClaims) {
+            List <String> roles = userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+
+            builder.claim(CLAIM_NAME, userPrincipal.getName())
+                    .claim(CLAIM_USERNAME, userPrincipal.getUsername())
+                    .claim(CLAIM_ROLES, roles);
+        }
 
         return (
-            Jwts.builder()
-                .setSubject(Long.toString(userPrincipal.getId()))
-                .setIssuedAt(new Date())
-                .setExpiration(expiry)
-                .signWith(Keys.hmacShaKeyFor(decodedKey), SignatureAlgorithm.HS512)
-                .compact()
+            builder.signWith(this.signingKey, SignatureAlgorithm.HS512)
+                    .compact()
         );
     }
 
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                            .setSigningKey(this.jwtSecret)
-                            .build()
-                            .parseClaimsJws(token)
-                            .getBody();
-
-        // Claims claims = Jwts.parser()
-        //                     .setSigningKey(jwtSecret)
-        //                     .parseClaimsJws(token)
-        //                     .getBody();
-
-        return(Long.parseLong(claims.getSubject()));
+    // The principal carried by the token itself, null unless embedded claims are enabled and the token has them.
+    public UserPrincipal getUserPrincipal(VerifiedToken token) {
+        if(!this.embedClaims || !token.hasEmbeddedPrincipal()) {
+            return(null);
+        }
+
+        return(token.toUserPrincipal());
     }
 
-    public boolean validateToken(String authToken) {
+    // Verifies the token and extracts what requests need of its claims in a single pass, null when the token is invalid or expired.
+    public VerifiedToken verify(String authToken) {
+        VerifiedToken token = this.verifiedTokens.get(authToken);
+        if(token != null) {
+            return(token);
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(this.jwtSecret).build().parseClaimsJws(authToken);
-            return(true);
+            Claims claims = this.parser.parseClaimsJws(authToken).getBody();
+            token = toVerifiedToken(claims);
+
+            if(claims.getExpiration() != null) {
+                this.verifiedTokens.put(authToken, token, token.getExpiresAt());
+            }
+
+            return(token);
         }
         catch(SecurityException e) {
             logger.error("Invalid JWT security signature.");
@@ -78,7 +132,34 @@ public class JwtTokenProvider {
         catch(IllegalArgumentException e) {
             logger.error("JWT claims string is empty.");
         }
-        
-        return(false);
+
+        return(null);
+    }
+
+    public Long getUserIdFromJWT(String token) {
+        VerifiedToken verified = verify(token);
+
+        return(verified == null ? null : verified.getUserId());
+    }
+
+    public boolean validateToken(String authToken) {
+        return(verify(authToken) != null);
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        long expiresAt = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+
+        List <?> roles = claims.get(CLAIM_ROLES, List.class);
+        List <String> roleNames = null;
+        if(roles != null) {
+            roleNames = new ArrayList <> (roles.size());
+            for(Object role : roles) {
+                roleNames.add(String.valueOf(role));
+            }
+        }
+
+        return(
+            new VerifiedToken(Long.parseLong(claims.getSubject()), expiresAt, claims.get(CLAIM_NAME, String.class), claims.get(CLAIM_USERNAME, String.class), roleNames)
+        );
     }
 }
@@ -0,0 +1,101 @@
+package com.mypolls.polls.security;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.mypolls.polls.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Runs the BCrypt heavy parts of login and signup on a small dedicated pool, off the request threads.
+// Its queue is bounded, once full new work is refused right away with a 503 rather than piling up, so a login storm
+// is capped at app.auth.hashing.threads cores and never takes request threads away from the rest of the api.
+@Component
+public class PasswordHashingExecutor {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Defaults to half the cores, leaving the other half to everything else.
+    @Value("${app.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queueCapacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map <Operation, Timer> timers = new EnumMap <> (Operation.class);
+    private final Map <Operation, Counter> rejections = new EnumMap <> (Operation.class);
+
+    // Tags the metrics.
+    public enum Operation {
+        LOGIN,
+        SIGNUP;
+
+        String tag() {
+            return(name().toLowerCase());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        int poolSize = this.threads > 0 ? this.threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue <> (this.queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue", this.executor, pool -> pool.getQueue().size())
+            .description("Logins and signups waiting for a password hashing thread")
+            .register(this.meterRegistry);
+        Gauge.builder("auth.hashing.active", this.executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashing threads busy")
+            .register(this.meterRegistry);
+
+        for(Operation operation : Operation.values()) {
+            this.timers.put(operation, Timer.builder("auth.hashing")
+                                            .description("Time spent on a login or signup by the password hashing pool, queueing excluded")
+                                            .tag("operation", operation.tag())
+                                            .publishPercentileHistogram()
+                                            .register(this.meterRegistry));
+            this.rejections.put(operation, this.meterRegistry.counter("auth.hashing.rejected", "operation", operation.tag()));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.executor.shutdownNow();
+    }
+
+    // Throws ServiceUnavailableException when saturated. The future completes on a hashing thread, chain anything
+    // else (e.g. database work) with an executor of its own.
+    public <T> CompletableFuture <T> submit(Operation operation, Supplier <T> task) {
+        Timer timer = this.timers.get(operation);
+
+        try {
+            return(CompletableFuture.supplyAsync(() -> timer.record(task), this.executor));
+        }
+        catch(RejectedExecutionException e) {
+            this.rejections.get(operation).increment();
+            throw new ServiceUnavailableException("Too many logins and signups in progress, try again shortly", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.mypolls.polls.security;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.mypolls.polls.security.RateLimited.Limit;
+import com.mypolls.polls.util.RateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Per-user rate limits of the handler methods annotated with @RateLimited, checked before they run so that a user
+// over the limit is turned away with a 429 (and a Retry-After) without costing a transaction or a pooled connection.
+// Each limit keeps its own buckets, at most app.ratelimit.maxUsers of them (see RateLimiter). Per instance, behind a
+// load balancer each one lets a user through at the configured rate. Anonymous requests aren't limited here, the
+// limited endpoints require a user anyway.
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ratelimit.maxUsers:100000}")
+    private int maxUsers;
+
+    private final Map <Limit, RateLimiter <Long>> limiters = new EnumMap <> (Limit.class);
+    private final Map <Limit, Counter> rejections = new EnumMap <> (Limit.class);
+
+    @PostConstruct
+    public void init() {
+        for(Limit limit : Limit.values()) {
+            long requestsPerMinute = this.environment.getRequiredProperty("app.ratelimit." + limit.tag() + ".requestsPerMinute", Long.class);
+            long burst = this.environment.getRequiredProperty("app.ratelimit." + limit.tag() + ".burst", Long.class);
+
+            this.limiters.put(limit, new RateLimiter <> (requestsPerMinute, burst, this.maxUsers));
+            this.rejections.put(limit, Counter.builder("ratelimit.rejected")
+                                              .description("Requests turned away for going over a per-user rate limit")
+                                              .tag("limit", limit.tag())
+                                              .register(this.meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if(!this.enabled || !(handler instanceof HandlerMethod)) {
+            return(true);
+        }
+
+        RateLimited rateLimited = ((HandlerMethod) handler).getMethodAnnotation(RateLimited.class);
+        Long userId = UserPrincipal.currentUserId();
+
+        if(rateLimited == null || userId == null) {
+            return(true);
+        }
+
+        long waitNanos = this.limiters.get(rateLimited.value()).tryAcquire(userId);
+
+        if(waitNanos == 0) {
+            return(true);
+        }
+
+        this.rejections.get(rateLimited.value()).increment();
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests, please try again in " + retryAfterSeconds + " seconds");
+
+        return(false);
+    }
+
+    // Drops the buckets of the users who are back under their limit.
+    @Scheduled(fixedDelayString = "${app.ratelimit.sweepIntervalMs:60000}")
+    public void sweep() {
+        this.limiters.values().forEach(RateLimiter::sweep);
+    }
+}
@@ -0,0 +1,20 @@
+package com.mypolls.polls.security;
+
+import java.lang.annotation.*;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+    Limit value();
+
+    // Configured by app.ratelimit.<tag>.requestsPerMinute and .burst (see RateLimitInterceptor), tags the metrics.
+    enum Limit {
+        POLLS,
+        VOTES;
+
+        String tag() {
+            return(name().toLowerCase());
+        }
+    }
+}
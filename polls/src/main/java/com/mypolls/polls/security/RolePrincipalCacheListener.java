@@ -0,0 +1,23 @@
+package com.mypolls.polls.security;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.mypolls.polls.model.Role;
+
+// JPA entity listener on Role, see UserPrincipalCacheListener. Any cached principal may hold the role.
+public class RolePrincipalCacheListener {
+    // Lazy, see UserPrincipalCacheListener.
+    @Autowired
+    @Lazy
+    private UserPrincipalCache userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evictAll(Role role) {
+        userPrincipalCache.evictAll();
+    }
+}
@@ -5,14 +5,18 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.mypolls.polls.model.User;
 
-public class UserPrincipal implements UserDetails {
+public class UserPrincipal implements UserDetails, CredentialsContainer {
     private Long id;
     private String name;
     private String username;
@@ -44,6 +48,26 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    // Principal rebuilt from the claims of a token issued with app.jwt.embedClaims, it has no email or password.
+    public static UserPrincipal create(Long id, String name, String username, List <String> roles) {
+        List <GrantedAuthority> authorities = roles.stream()
+                                                    .map(SimpleGrantedAuthority::new)
+                                                    .collect(Collectors.toList());
+
+        return(new UserPrincipal(id, name, username, null, null, authorities));
+    }
+
+    // Id of the user the current request is authenticated as, null when anonymous.
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if(authentication == null || authentication instanceof AnonymousAuthenticationToken || !(authentication.getPrincipal() instanceof UserPrincipal)) {
+            return(null);
+        }
+
+        return(((UserPrincipal) authentication.getPrincipal()).getId());
+    }
+
     public Long getId() {
         return(this.id);
     }
@@ -62,7 +86,12 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public String getPassword() {
-        return(this.password.toString());
+        return(this.password);
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
     }
 
     @Override
@@ -0,0 +1,67 @@
+package com.mypolls.polls.security;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mypolls.polls.util.ExpiringLruCache;
+
+// Principals of recently authenticated users, keyed by user id, so that JwtAuthenticationFilter doesn't
+// have to load the user and its roles on every request. Entries are evicted when the user entity changes
+// (see UserPrincipalCacheListener), all of them when a role changes (see RolePrincipalCacheListener), and otherwise
+// expire after app.security.principalCache.ttlMs.
+@Component
+public class UserPrincipalCache {
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Value("${app.security.principalCache.maxSize:10000}")
+    private int maxSize;
+
+    @Value("${app.security.principalCache.ttlMs:300000}")
+    private long ttlMs;
+
+    private ExpiringLruCache <Long, UserPrincipal> principals;
+
+    @PostConstruct
+    public void init() {
+        this.principals = new ExpiringLruCache <> (this.maxSize, this.ttlMs);
+    }
+
+    public UserPrincipal get(Long userId) {
+        return(this.principals.get(userId, id -> {
+            // The password hash has no business sitting in memory for the lifetime of the entry.
+            UserPrincipal principal = (UserPrincipal) customUserDetailsService.loadUserById(id);
+            principal.eraseCredentials();
+            return(principal);
+        }));
+    }
+
+    // Call whenever a user or its roles change outside of the User entity (e.g. a bulk update on the user_id join table).
+    public void evict(Long userId) {
+        this.principals.remove(userId);
+        afterCompletion(() -> this.principals.remove(userId));
+    }
+
+    // Call whenever a role changes, any principal may hold it.
+    public void evictAll() {
+        this.principals.clear();
+        afterCompletion(this.principals::clear);
+    }
+
+    // Evict again once the change is visible to other transactions, in case a request reloaded the old state meanwhile.
+    private static void afterCompletion(Runnable eviction) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mypolls.polls.security;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.mypolls.polls.model.User;
+
+// JPA entity listener on User, instantiated and autowired by Hibernate through Spring's bean container.
+// Note that changes to the roles collection alone don't fire @PostUpdate, those have to call UserPrincipalCache.evict.
+public class UserPrincipalCacheListener {
+    // Lazy, the cache depends on the EntityManagerFactory that creates this listener; resolved eagerly the
+    // injection fails and Hibernate silently falls back to an unmanaged instance.
+    @Autowired
+    @Lazy
+    private UserPrincipalCache userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userPrincipalCache.evict(user.getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.mypolls.polls.security;
+
+import java.util.Collections;
+import java.util.List;
+
+// What a request needs of a verified token, copied out of its (mutable) Claims so that it can be cached and shared
+// between requests. Name, username and roles are only set for tokens issued with app.jwt.embedClaims.
+public final class VerifiedToken {
+    private final long userId;
+    // Milliseconds since the epoch, Long.MAX_VALUE for a token that doesn't expire.
+    private final long expiresAt;
+    private final String name;
+    private final String username;
+    private final List <String> roles;
+
+    public VerifiedToken(long userId, long expiresAt, String name, String username, List <String> roles) {
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.name = name;
+        this.username = username;
+        this.roles = roles == null ? null : Collections.unmodifiableList(roles);
+    }
+
+    public long getUserId() {
+        return(this.userId);
+    }
+
+    public long getExpiresAt() {
+        return(this.expiresAt);
+    }
+
+    public boolean hasEmbeddedPrincipal() {
+        return(this.roles != null);
+    }
+
+    // A new principal on every call, a principal is not to be shared between requests (see UserPrincipal.eraseCredentials).
+    public UserPrincipal toUserPrincipal() {
+        return(UserPrincipal.create(this.userId, this.name, this.username, this.roles));
+    }
+}
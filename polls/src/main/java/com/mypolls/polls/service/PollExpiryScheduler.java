@@ -0,0 +1,153 @@
+package com.mypolls.polls.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.PollExpiration;
+import com.mypolls.polls.repositories.CounterRepository;
+import com.mypolls.polls.repositories.PollRepository;
+import com.mypolls.polls.util.HashedTimingWheel;
+
+// Closes polls once they expire. Closing recomputes Choice.voteCount and Poll.totalVotes from the votes table one
+// last time and sets Poll.closedAt, from then on those columns are the poll's final results and reads of the poll
+// are served from them without keeping a tally (see VoteTallyEngine.getChoiceVoteCounts).
+// Expirations within app.polls.expiry.horizonMs are kept in a timing wheel, reloaded from the database every
+// app.polls.expiry.reloadIntervalMs, new polls are added to it as they are created.
+@Component
+public class PollExpiryScheduler {
+    @Autowired
+    private PollRepository pollRepository;
+
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private VoteTallyEngine voteTallyEngine;
+
+    @Autowired
+    private PollVoterIndex pollVoterIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.polls.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.polls.expiry.tickMs:1000}")
+    private long tickMs;
+
+    @Value("${app.polls.expiry.horizonMs:600000}")
+    private long horizonMs;
+
+    // Votes that passed the expiry check right before the deadline may still be committing, give them time to land.
+    @Value("${app.polls.expiry.graceMs:5000}")
+    private long graceMs;
+
+    @Value("${app.polls.expiry.loadBatchSize:10000}")
+    private int loadBatchSize;
+
+    @Value("${app.polls.expiry.closeBatchSize:500}")
+    private int closeBatchSize;
+
+    private static final Logger logger = LoggerFactory.getLogger(PollExpiryScheduler.class);
+
+    private HashedTimingWheel <Long> wheel;
+
+    // Polls currently in the wheel, so that reloads don't schedule them twice.
+    private final Set <Long> scheduled = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        // One turn of the wheel covers the horizon, so loaded polls never wait out extra rounds.
+        int wheelSize = (int) Math.max(1, Math.min(this.horizonMs / this.tickMs + 1, 1 << 20));
+        this.wheel = new HashedTimingWheel <> (this.tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    // Polls due past the horizon are left to a later reload, the wheel only covers the horizon.
+    public void schedule(Long pollId, Instant expirationDateTime) {
+        long dueAt = expirationDateTime.toEpochMilli() + this.graceMs;
+
+        if(!this.enabled || dueAt > System.currentTimeMillis() + this.horizonMs || !this.scheduled.add(pollId)) {
+            return;
+        }
+
+        this.wheel.schedule(pollId, dueAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.polls.expiry.reloadIntervalMs:300000}")
+    public void loadUpcoming() {
+        if(!this.enabled) {
+            return;
+        }
+
+        // Also picks up polls that expired while no instance was running, those are due on the next tick.
+        Instant until = Instant.now().plusMillis(this.horizonMs - this.graceMs);
+        List <PollExpiration> expirations = pollRepository.findOpenExpiringBefore(until, PageRequest.of(0, this.loadBatchSize));
+
+        expirations.forEach(expiration -> schedule(expiration.getPollId(), expiration.getExpirationDateTime()));
+
+        if(expirations.size() == this.loadBatchSize) {
+            logger.warn("Loaded the first {} expiring polls only, the rest are picked up by the next reload", this.loadBatchSize);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.polls.expiry.tickMs:1000}")
+    public void tick() {
+        if(!this.enabled) {
+            return;
+        }
+
+        List <Long> due = this.wheel.advance(System.currentTimeMillis());
+
+        for(int from = 0; from < due.size(); from += this.closeBatchSize) {
+            List <Long> pollIds = new ArrayList <> (due.subList(from, Math.min(from + this.closeBatchSize, due.size())));
+
+            try {
+                closePolls(pollIds);
+            }
+            catch(RuntimeException e) {
+                // Left out of the wheel, the next reload schedules them again.
+                logger.error("Failed to close {} expired polls", pollIds.size(), e);
+            }
+            finally {
+                this.scheduled.removeAll(pollIds);
+            }
+        }
+    }
+
+    // Idempotent, polls closed meanwhile (e.g. by another instance) are skipped by both updates.
+    private void closePolls(List <Long> pollIds) {
+        Integer closed = transactionTemplate.execute(status -> counterRepository.closePolls(pollIds, Instant.now()));
+
+        // Closed polls are read straight from their final counts, their tallies, cluster counts and voters are of no use anymore.
+        pollIds.forEach(voteTallyEngine::pollClosed);
+        pollIds.forEach(pollVoterIndex::pollClosed);
+
+        // Only these polls' cached entries are out of date, the update went around Hibernate (see CounterRepository).
+        // Evicted on this instance only, on the others they expire within the grace period (see SecondLevelCacheConfig).
+        Cache cache = entityManagerFactory.getCache();
+        pollIds.forEach(pollId -> cache.evict(Poll.class, pollId));
+
+        logger.info("Closed {} expired polls", closed);
+    }
+}
@@ -0,0 +1,182 @@
+package com.mypolls.polls.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.exception.BadRequestException;
+import com.mypolls.polls.exception.ResourceNotFoundException;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.repositories.PollRepository;
+import com.mypolls.polls.security.UserPrincipal;
+
+// Exports the raw votes of a poll as CSV or NDJSON, streamed row by row from a forward-only JDBC cursor
+// straight to the response, so memory use doesn't grow with the size of the poll.
+@Service
+public class PollExportService {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PollRepository pollRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // A hint to the driver, rows are fetched this many at a time where it supports it. MySQL Connector/J ignores it
+    // and buffers the whole result unless useCursorFetch=true is on the connection url, or it is Integer.MIN_VALUE to
+    // stream rows one at a time (see application-mysql.properties).
+    @Value("${app.polls.export.fetchSize:1000}")
+    private int fetchSize;
+
+    private static final Logger logger = LoggerFactory.getLogger(PollExportService.class);
+
+    private static final String SELECT_VOTES = "SELECT v.id, v.choice_id, c.text, v.user_id, v.created_at FROM votes v JOIN choices c ON c.id = v.choice_id WHERE v.poll_id = ? ORDER BY v.id";
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return this.contentType;
+        }
+
+        public String getExtension() {
+            return this.extension;
+        }
+
+        public static Format of(String format) {
+            for(Format value : values()) {
+                if(value.extension.equalsIgnoreCase(format)) {
+                    return(value);
+                }
+            }
+
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+    }
+
+    // Only the poll's creator (or an admin) may export its votes, checked before anything is streamed.
+    public void checkExportAllowed(Long pollId, UserPrincipal currentUser) {
+        Poll poll = pollRepository.findById(pollId).orElseThrow(() -> new ResourceNotFoundException("Poll", "id", pollId));
+
+        boolean isAdmin = currentUser.getAuthorities().stream().anyMatch(authority -> RoleName.ROLE_ADMIN.name().equals(authority.getAuthority()));
+
+        if(!isAdmin && !currentUser.getId().equals(poll.getCreatedBy())) {
+            throw new AccessDeniedException("Only the creator of a poll can export its votes");
+        }
+    }
+
+    // Streams from the replica, if any.
+    @Transactional(readOnly = true)
+    public long exportVotes(Long pollId, Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        Long rows = jdbcTemplate.execute(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_VOTES, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(this.fetchSize);
+            ps.setLong(1, pollId);
+            return(ps);
+        }, (PreparedStatementCallback <Long>) ps -> {
+            try(ResultSet rs = ps.executeQuery()) {
+                return(format == Format.CSV ? writeCsv(rs, writer) : writeNdjson(rs, writer));
+            }
+            catch(IOException e) {
+                // The client went away, stop the query instead of reading (and discarding) the rest of the rows.
+                logger.info("Export of poll {} aborted: {}", pollId, e.getMessage());
+                ps.cancel();
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return(rows == null ? 0 : rows);
+    }
+
+    private long writeCsv(ResultSet rs, Writer writer) throws SQLException, IOException {
+        writer.write("vote_id,choice_id,choice_text,user_id,created_at\n");
+
+        long rows = 0;
+        while(rs.next()) {
+            writer.write(Long.toString(rs.getLong(1)));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong(2)));
+            writer.write(',');
+            writeCsvField(writer, rs.getString(3));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong(4)));
+            writer.write(',');
+            writer.write(toIsoString(rs.getTimestamp(5)));
+            writer.write('\n');
+            rows++;
+        }
+
+        writer.flush();
+        return(rows);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private long writeNdjson(ResultSet rs, Writer writer) throws SQLException, IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        long rows = 0;
+        while(rs.next()) {
+            generator.writeStartObject();
+            generator.writeNumberField("voteId", rs.getLong(1));
+            generator.writeNumberField("choiceId", rs.getLong(2));
+            generator.writeStringField("choiceText", rs.getString(3));
+            generator.writeNumberField("userId", rs.getLong(4));
+            generator.writeStringField("createdAt", toIsoString(rs.getTimestamp(5)));
+            generator.writeEndObject();
+            rows++;
+        }
+
+        generator.writeRaw('\n');
+        generator.flush();
+        return(rows);
+    }
+
+    private static String toIsoString(Timestamp timestamp) {
+        return(timestamp == null ? "" : timestamp.toInstant().toString());
+    }
+}
@@ -0,0 +1,210 @@
+package com.mypolls.polls.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.model.PagedResponse;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.payload.PollResponse;
+import com.mypolls.polls.util.OffHeapCache;
+import com.mypolls.polls.util.PollETag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Polls rendered as JSON, kept off the heap (see OffHeapCache) so that reads of a poll that hasn't changed neither
+// rebuild its PollResponse nor serialize it again. Only the part every user gets is cached: the response without its
+// selectedChoice and closing brace, the selected choice is spliced in per request. Keyed by poll id and version, the
+// hash of the counts and state its PollETag is made of: a vote or the poll expiring changes the version, and with it
+// invalidates the entry. The gzipped JSON of the response as anonymous users get it is kept too, up to
+// app.polls.jsonCache.gzipMaxBytes, the personalized ones can't be spliced once compressed.
+// app.polls.jsonCache.maxBytes=0 turns the caching off, polls are then rendered on every read.
+@Component
+public class PollJsonCache {
+    private static final byte[] SELECTED_CHOICE = ",\"selectedChoice\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY_CONTENT = "\"content\":[]".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.polls.jsonCache.maxBytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.polls.jsonCache.gzipMaxBytes:16777216}")
+    private long gzipMaxBytes;
+
+    // Most polls render to a few hundred bytes up to a couple of kilobytes.
+    @Value("${app.polls.jsonCache.blockSize:256}")
+    private int blockSize;
+
+    private OffHeapCache <Long> json;
+    private OffHeapCache <Long> gzip;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        this.json = new OffHeapCache <> (this.maxBytes, this.blockSize);
+        this.gzip = new OffHeapCache <> (this.maxBytes > 0 ? this.gzipMaxBytes : 0, this.blockSize);
+
+        this.hits = Counter.builder("polls.jsoncache.requests").description("Polls read from the rendered JSON cache, or rendered").tag("result", "hit").register(this.meterRegistry);
+        this.misses = Counter.builder("polls.jsoncache.requests").description("Polls read from the rendered JSON cache, or rendered").tag("result", "miss").register(this.meterRegistry);
+
+        registerGauges("json", this.json);
+        registerGauges("gzip", this.gzip);
+    }
+
+    private void registerGauges(String format, OffHeapCache <Long> cache) {
+        Gauge.builder("polls.jsoncache.bytes", cache, OffHeapCache::usedBytes)
+            .description("Off-heap memory taken by the rendered JSON cache")
+            .tag("format", format)
+            .register(this.meterRegistry);
+        Gauge.builder("polls.jsoncache.entries", cache, OffHeapCache::size)
+            .description("Polls in the rendered JSON cache")
+            .tag("format", format)
+            .register(this.meterRegistry);
+    }
+
+    // The counts of the poll's choices are needed unless it's closed.
+    public static long version(Poll poll, Map <Long, Long> choiceVoteCounts) {
+        return(new PollETag(null).addPoll(poll, choiceVoteCounts).getValue());
+    }
+
+    // Same, from the id, expiration and counts of an open poll's choices (e.g. its tally's).
+    public static long version(Long pollId, Instant expirationDateTime, Map <Long, Long> choiceVoteCounts) {
+        return(new PollETag(null).addOpenPoll(pollId, expirationDateTime, choiceVoteCounts).getValue());
+    }
+
+    public boolean contains(Long pollId, long version) {
+        return(this.json.contains(pollId, version));
+    }
+
+    // Appends the poll's JSON with the user's selected choice (null for none) to out, false (with nothing appended)
+    // when it isn't cached.
+    public boolean write(Long pollId, long version, Long selectedChoice, ByteArrayOutputStream out) {
+        if(!this.json.copyTo(pollId, version, out)) {
+            this.misses.increment();
+            return(false);
+        }
+
+        this.hits.increment();
+        close(out, selectedChoice);
+        return(true);
+    }
+
+    // Renders the poll's response, given without its selectedChoice, caches it and appends it to out as write does.
+    public void render(PollResponse pollResponse, long version, Long selectedChoice, ByteArrayOutputStream out) {
+        byte[] bytes;
+        try {
+            bytes = this.objectMapper.writeValueAsBytes(pollResponse);
+        }
+        catch(JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render poll " + pollResponse.getId(), e);
+        }
+
+        // Without the closing brace.
+        int length = bytes.length - 1;
+        this.json.put(pollResponse.getId(), version, bytes, 0, length);
+
+        out.write(bytes, 0, length);
+        close(out, selectedChoice);
+    }
+
+    // The page's JSON, the given page (without content) with the content given as JSON instead.
+    public byte[] renderPage(PagedResponse <?> page, ByteArrayOutputStream content) {
+        byte[] bytes;
+        try {
+            bytes = this.objectMapper.writeValueAsBytes(page);
+        }
+        catch(JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render page", e);
+        }
+
+        int contentAt = indexOf(bytes, EMPTY_CONTENT) + EMPTY_CONTENT.length - 1;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length + content.size());
+        try {
+            out.write(bytes, 0, contentAt);
+            content.writeTo(out);
+            out.write(bytes, contentAt, bytes.length - contentAt);
+        }
+        catch(IOException e) {
+            // Not from memory.
+            throw new UncheckedIOException(e);
+        }
+
+        return(out.toByteArray());
+    }
+
+    // The gzipped JSON of the poll as anonymous users get it, null when it isn't cached (nor its JSON).
+    public byte[] getGzip(Long pollId, long version) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        if(this.gzip.copyTo(pollId, version, out)) {
+            this.hits.increment();
+            return(out.toByteArray());
+        }
+
+        return(write(pollId, version, null, out) ? gzip(pollId, version, out.toByteArray()) : null);
+    }
+
+    // Compresses the JSON of the poll as anonymous users get it, and caches the result.
+    public byte[] gzip(Long pollId, long version, byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+
+        try(GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] bytes = out.toByteArray();
+        this.gzip.put(pollId, version, bytes);
+        return(bytes);
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        for(int i = 0; i + part.length <= bytes.length; i++) {
+            int j = 0;
+            while(j < part.length && bytes[i + j] == part[j]) {
+                j++;
+            }
+
+            if(j == part.length) {
+                return(i);
+            }
+        }
+
+        throw new IllegalStateException("No " + new String(part, StandardCharsets.UTF_8) + " in the page");
+    }
+
+    private static void close(ByteArrayOutputStream out, Long selectedChoice) {
+        if(selectedChoice != null) {
+            out.write(SELECTED_CHOICE, 0, SELECTED_CHOICE.length);
+
+            byte[] id = selectedChoice.toString().getBytes(StandardCharsets.US_ASCII);
+            out.write(id, 0, id.length);
+        }
+
+        out.write('}');
+    }
+}
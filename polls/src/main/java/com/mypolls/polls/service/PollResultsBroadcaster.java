@@ -0,0 +1,303 @@
+package com.mypolls.polls.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.exception.AppException;
+import com.mypolls.polls.exception.ServiceUnavailableException;
+import com.mypolls.polls.model.ChoiceVoteCount;
+import com.mypolls.polls.payload.PollResultsResponse;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.repositories.ChoiceRepository;
+import com.mypolls.polls.repositories.PollRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Pushes live vote counts to the subscribers of GET /api/polls/{pollId}/results/stream.
+// Committed votes only mark their poll as dirty, a single tick every app.polls.stream.minIntervalMs then computes
+// the counts of each dirty poll once and fans the same serialized event out to all of its subscribers.
+// Every subscriber buffers at most one (the latest) event, so a slow consumer skips intermediate updates
+// instead of growing a queue. Sends block a sender thread, a subscriber whose send has been pending for over
+// app.polls.stream.sendTimeoutMs (a client that stopped reading) is dropped and its sender interrupted, so that it
+// can't hold up the fixed pool of senders.
+@Component
+public class PollResultsBroadcaster {
+    @Autowired
+    private VoteTallyEngine voteTallyEngine;
+
+    @Autowired
+    private PollRepository pollRepository;
+
+    @Autowired
+    private ChoiceRepository choiceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.polls.stream.timeoutMs:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.polls.stream.maxSubscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.polls.stream.senderThreads:4}")
+    private int senderThreads;
+
+    @Value("${app.polls.stream.sendTimeoutMs:5000}")
+    private long sendTimeoutMs;
+
+    private static final Logger logger = LoggerFactory.getLogger(PollResultsBroadcaster.class);
+
+    private final ConcurrentHashMap <Long, Set <Subscriber>> subscribers = new ConcurrentHashMap <> ();
+    private final Set <Long> dirtyPolls = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private ExecutorService senders;
+
+    private class Subscriber {
+        private final Long pollId;
+        private final SseEmitter emitter;
+        private final AtomicReference <String> latest = new AtomicReference <> ();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Set while an event is being sent, guarded by this.
+        private Thread sender;
+        private long sendStartedAt;
+
+        Subscriber(Long pollId, SseEmitter emitter) {
+            this.pollId = pollId;
+            this.emitter = emitter;
+        }
+
+        void offer(String event) {
+            // Overwrites an update the subscriber hasn't received yet, only the latest counts matter.
+            this.latest.set(event);
+
+            if(this.sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                String event;
+                while((event = this.latest.getAndSet(null)) != null) {
+                    sendStarted();
+                    try {
+                        this.emitter.send(SseEmitter.event().name("results").data(event, MediaType.APPLICATION_JSON));
+                    }
+                    finally {
+                        sendEnded();
+                    }
+                }
+            }
+            catch(IOException | IllegalStateException e) {
+                // The client went away (or the emitter already completed).
+                unsubscribe(this);
+                this.emitter.completeWithError(e);
+                return;
+            }
+            finally {
+                this.sending.set(false);
+            }
+
+            // An event may have been offered after the last getAndSet, but before sending was cleared.
+            if(this.latest.get() != null && this.sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private synchronized void sendStarted() {
+            this.sender = Thread.currentThread();
+            this.sendStartedAt = System.currentTimeMillis();
+        }
+
+        private synchronized void sendEnded() {
+            this.sender = null;
+            // Clears an interrupt that came in too late to abort the send, the thread goes back to the pool.
+            Thread.interrupted();
+        }
+
+        // Interrupts the send when it has been pending since before the given time.
+        synchronized boolean interruptSendStartedBefore(long time) {
+            if(this.sender == null || this.sendStartedAt >= time) {
+                return(false);
+            }
+
+            this.sender.interrupt();
+            return(true);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("poll-results-sender-");
+        threadFactory.setDaemon(true);
+
+        // Each subscriber has at most one drain task queued, so the queue is bounded by maxSubscribers.
+        this.senders = new ThreadPoolExecutor(this.senderThreads, this.senderThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue <> (), threadFactory);
+
+        Gauge.builder("polls.results.subscribers", this.subscriberCount, AtomicInteger::get)
+            .description("Open live results streams")
+            .register(this.meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.senders.shutdownNow();
+        this.subscribers.values().forEach(pollSubscribers -> pollSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    // Opens a stream that starts with the given counts.
+    public SseEmitter subscribe(Long pollId, Map <Long, Long> choiceVotesMap) {
+        return(subscribe(pollId, choiceVotesMap, new SseEmitter(this.timeoutMs)));
+    }
+
+    SseEmitter subscribe(Long pollId, Map <Long, Long> choiceVotesMap, SseEmitter emitter) {
+        if(this.subscriberCount.incrementAndGet() > this.maxSubscribers) {
+            this.subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many live results streams are open, please try again later");
+        }
+
+        Subscriber subscriber = new Subscriber(pollId, emitter);
+
+        this.subscribers.computeIfAbsent(pollId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscriber.offer(toEvent(pollId, choiceVotesMap));
+
+        return(emitter);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        this.subscribers.computeIfPresent(subscriber.pollId, (pollId, pollSubscribers) -> {
+            if(pollSubscribers.remove(subscriber)) {
+                this.subscriberCount.decrementAndGet();
+            }
+
+            return(pollSubscribers.isEmpty() ? null : pollSubscribers);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.polls.stream.sendTimeoutMs:5000}")
+    public void dropStalledSubscribers() {
+        long stalledSince = System.currentTimeMillis() - this.sendTimeoutMs;
+
+        this.subscribers.values().forEach(pollSubscribers -> pollSubscribers.forEach(subscriber -> {
+            if(subscriber.interruptSendStartedBefore(stalledSince)) {
+                logger.info("Dropping a live results stream of poll {}, its client stopped reading", subscriber.pollId);
+                unsubscribe(subscriber);
+                subscriber.emitter.completeWithError(new IOException("Send timed out"));
+            }
+        }));
+    }
+
+    // Must only be called once the vote has been committed (and counted by the tally).
+    public void voteCommitted(Long pollId) {
+        if(this.subscribers.containsKey(pollId)) {
+            this.dirtyPolls.add(pollId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.polls.stream.minIntervalMs:1000}")
+    public void publish() {
+        if(this.dirtyPolls.isEmpty()) {
+            return;
+        }
+
+        // Removed before reading the counts, so that a vote committed meanwhile marks the poll dirty again.
+        List <Long> pollIds = new ArrayList <> ();
+        for(Iterator <Long> it = this.dirtyPolls.iterator(); it.hasNext(); ) {
+            pollIds.add(it.next());
+            it.remove();
+        }
+
+        Map <Long, Map <Long, Long>> counts = getChoiceVoteCounts(pollIds);
+
+        for(Long pollId : pollIds) {
+            Set <Subscriber> pollSubscribers = this.subscribers.get(pollId);
+            if(pollSubscribers == null || !counts.containsKey(pollId)) {
+                continue;
+            }
+
+            String event = toEvent(pollId, counts.get(pollId));
+            pollSubscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    // Counts come from the tally where it holds the poll, the rest from the denormalized counts, in one query.
+    private Map <Long, Map <Long, Long>> getChoiceVoteCounts(List <Long> pollIds) {
+        Map <Long, Map <Long, Long>> counts = new HashMap <> ();
+        List <Long> missing = new ArrayList <> ();
+
+        for(Long pollId : pollIds) {
+            Map <Long, Long> choiceVotesMap = voteTallyEngine.getChoiceVoteCountsIfPresent(pollId);
+
+            if(choiceVotesMap != null) {
+                counts.put(pollId, choiceVotesMap);
+            }
+            else {
+                missing.add(pollId);
+            }
+        }
+
+        if(!missing.isEmpty()) {
+            Map <Long, Long> choiceVoteCounts = VoteTallyEngine.toMap(choiceRepository.findVoteCountsByPollIdIn(missing));
+
+            for(Poll poll : pollRepository.findByIdIn(missing)) {
+                counts.put(poll.getId(), VoteTallyEngine.countsOf(poll, choiceVoteCounts));
+            }
+        }
+
+        return(counts);
+    }
+
+    private String toEvent(Long pollId, Map <Long, Long> choiceVotesMap) {
+        List <ChoiceVoteCount> choices = new ArrayList <> ();
+        new TreeMap <> (choiceVotesMap).forEach((choiceId, voteCount) -> choices.add(new ChoiceVoteCount(choiceId, voteCount)));
+
+        long totalVotes = choiceVotesMap.values().stream().mapToLong(Long::longValue).sum();
+
+        try {
+            return(objectMapper.writeValueAsString(new PollResultsResponse(pollId, choices, totalVotes)));
+        }
+        catch(JsonProcessingException e) {
+            throw new AppException("Could not serialize poll results", e);
+        }
+    }
+}
@@ -1,40 +1,68 @@
 package com.mypolls.polls.service;
 
+import java.io.ByteArrayOutputStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.mypolls.polls.config.ReadYourWritesTracker;
 import com.mypolls.polls.exception.BadRequestException;
 import com.mypolls.polls.exception.ResourceNotFoundException;
+import com.mypolls.polls.exception.VoteRejectedException;
 import com.mypolls.polls.model.Choice;
-import com.mypolls.polls.model.ChoiceVoteCount;
 import com.mypolls.polls.model.PagedResponse;
 import com.mypolls.polls.model.Poll;
 import com.mypolls.polls.model.User;
 import com.mypolls.polls.model.Vote;
 import com.mypolls.polls.model.VoteRequest;
+import com.mypolls.polls.payload.PollBatchResponse;
 import com.mypolls.polls.payload.PollRequest;
 import com.mypolls.polls.payload.PollResponse;
+import com.mypolls.polls.repositories.ChoiceRepository;
+import com.mypolls.polls.repositories.CounterRepository;
 import com.mypolls.polls.repositories.PollRepository;
 import com.mypolls.polls.repositories.UserRepository;
 import com.mypolls.polls.repositories.VoteRepository;
 import com.mypolls.polls.security.UserPrincipal;
 import com.mypolls.polls.util.AppConstants;
 import com.mypolls.polls.util.ModelMapper;
+import com.mypolls.polls.util.PageCursor;
+import com.mypolls.polls.util.PollETag;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class PollService {
@@ -47,23 +75,108 @@ public class PollService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ChoiceRepository choiceRepository;
+
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @Autowired
+    private VoteTallyEngine voteTallyEngine;
+
+    @Autowired
+    private VoteIngestionPipeline voteIngestionPipeline;
+
+    @Autowired
+    private PollResultsBroadcaster pollResultsBroadcaster;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PollExpiryScheduler pollExpiryScheduler;
+
+    @Autowired
+    private FeedLookupExecutor feedLookupExecutor;
+
+    @Autowired
+    private PollJsonCache pollJsonCache;
+
+    @Autowired
+    private PollVoterIndex pollVoterIndex;
+
+    @Value("${app.votes.tally.enabled:true}")
+    private boolean tallyEnabled;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter votesAccepted;
+    private Counter votesDuplicate;
+    private Counter votesExpired;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
     private static final Logger logger = LoggerFactory.getLogger(PollService.class);
 
+    @PostConstruct
+    public void init() {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+
+        this.votesAccepted = voteCounter("accepted");
+        this.votesDuplicate = voteCounter("duplicate");
+        this.votesExpired = voteCounter("expired");
+    }
+
+    private Counter voteCounter(String outcome) {
+        return(Counter.builder("polls.votes").description("Votes cast, by outcome").tag("outcome", outcome).register(this.meterRegistry));
+    }
+
     private void validatePageNumberAndSize(int page, int size) {
         if(page < 0) {
             throw new BadRequestException("Page number cannot be less than zero.");
         }
+        if(size < 1) {
+            throw new BadRequestException("Page size must be at least 1.");
+        }
         if(size > AppConstants.MAX_PAGE_SIZE) {
             throw new BadRequestException("Page size must be under: " + AppConstants.MAX_PAGE_SIZE);
         }
     }
 
-    private Map <Long, Long> getChoiceVoteCountMap(List <Long> pollIds) {
-        // Retrieve vote counts of every choice belonging to the given pollIds.
-        List <ChoiceVoteCount> votes = voteRepository.countByPollIdInGroupByChoiceId(pollIds);
+    private Map <Long, Long> getChoiceVoteCountMap(List <Poll> polls) {
+        // Retrieve vote counts of every choice belonging to the given polls.
+        if(this.tallyEnabled) {
+            return(voteTallyEngine.getChoiceVoteCounts(polls));
+        }
 
-        Map <Long, Long> choiceVotesMap = votes.stream().collect(Collectors.toMap(ChoiceVoteCount::getChoiceId, ChoiceVoteCount::getVoteCount));
-        return(choiceVotesMap);
+        // Queried rather than read off the polls, whose counts may come from the second-level cache (see Choice.voteCount).
+        List <Long> pollIds = polls.stream().map(Poll::getId).collect(Collectors.toList());
+        return(VoteTallyEngine.toMap(choiceRepository.findVoteCountsByPollIdIn(pollIds)));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private Map <Long, Long> getPollUserVoteMap(UserPrincipal currentUser, List <Long> pollIds) {
@@ -73,12 +186,29 @@ public class PollService {
         if(currentUser != null) {
             List <Vote> userVotes = voteRepository.findByUserIdAndPollIdIn(currentUser.getId(), pollIds);
 
-            pollUserVoteMap = userVotes.stream().collect(Collectors.toMap(vote -> vote.getPoll().getId(), vote -> vote.getChoice().getId()));
+            pollUserVoteMap = toPollUserVoteMap(userVotes);
         }
 
         return(pollUserVoteMap);
     }
 
+    static Map <Long, Long> toPollUserVoteMap(List <Vote> userVotes) {
+        return(userVotes.stream().collect(Collectors.toMap(vote -> vote.getPoll().getId(), vote -> vote.getChoice().getId())));
+    }
+
+    // Starts the lookup on the feed lookup pool, see FeedLookupExecutor. No query (nor pool) needed for anonymous users.
+    private CompletableFuture <Map <Long, Long>> lookUpPollUserVoteMap(UserPrincipal currentUser, List <Long> pollIds) {
+        if(currentUser == null) {
+            return(CompletableFuture.completedFuture(null));
+        }
+
+        return(feedLookupExecutor.supply(() -> getPollUserVoteMap(currentUser, pollIds)));
+    }
+
+    private CompletableFuture <Map <Long, User>> lookUpPollCreatorMap(List <Poll> polls) {
+        return(feedLookupExecutor.supply(() -> getPollCreatorMap(polls)));
+    }
+
     private Map <Long, User> getPollCreatorMap(List <Poll> polls) {
         // Information of creator of given polls.
         List <Long> creatorIds = polls.stream()
@@ -86,46 +216,186 @@ public class PollService {
                                     .distinct()
                                     .collect(Collectors.toList());
         
-        List <User> creators = userRepository.findByIdIn(creatorIds);
-        
-        Map <Long, User> creatorMap = creators.stream().collect(Collectors.toMap(User::getId, Function.identity()));
-        return(creatorMap);
+        // Creators in the second-level cache are loaded one by one from it, the rest with a single query.
+        Cache cache = entityManagerFactory.getCache();
+        Map <Boolean, List <Long>> cachedCreatorIds = creatorIds.stream().collect(Collectors.partitioningBy(id -> cache.contains(User.class, id)));
+
+        return(readOnlyTransactionTemplate.execute(status -> {
+            Map <Long, User> creatorMap = new HashMap <> ();
+
+            for(Long creatorId : cachedCreatorIds.get(true)) {
+                userRepository.findById(creatorId).ifPresent(creator -> creatorMap.put(creatorId, creator));
+            }
+
+            if(!cachedCreatorIds.get(false).isEmpty()) {
+                userRepository.findByIdIn(cachedCreatorIds.get(false)).forEach(creator -> creatorMap.put(creator.getId(), creator));
+            }
+
+            return(creatorMap);
+        }));
+    }
+
+    // Map polls to poll_responses containing vote counts and poll creator information.
+    private List <PollResponse> mapPollsToPollResponses(List <Poll> polls, UserPrincipal currentUser) {
+        if(polls.isEmpty()) {
+            return(Collections.emptyList());
+        }
+
+        List <Long> pollIds = polls.stream().map(Poll::getId).collect(Collectors.toList());
+        // The queries run concurrently, the vote counts are meanwhile read from the tally on this thread.
+        CompletableFuture <Map <Long, Long>> pollUserVotes = lookUpPollUserVoteMap(currentUser, pollIds);
+        CompletableFuture <Map <Long, User>> creators = lookUpPollCreatorMap(polls);
+
+        Map <Long, Long> choiceVoteCountMap = getChoiceVoteCountMap(polls);
+        Map <Long, Long> pollUserVoteMap = FeedLookupExecutor.join(pollUserVotes);
+        Map <Long, User> creatorMap = FeedLookupExecutor.join(creators);
+
+        return(
+            polls.stream().map(poll -> ModelMapper.mapPollToPollResponse(poll,
+                                                                        choiceVoteCountMap,
+                                                                        creatorMap.get(poll.getCreatedBy()),
+                                                                        pollUserVoteMap == null ? null : pollUserVoteMap.getOrDefault(poll.getId(), null)))
+                        .collect(Collectors.toList())
+        );
     }
 
+    // The polls' JSON, comma separated, appended to out. False, with nothing else looked up, when notModified accepts
+    // the given ETag (holding whatever else is in the response) completed with the polls: only the open polls' counts
+    // are needed for it. The polls are then spliced from PollJsonCache, only those it misses have their creator (and
+    // if closed, their counts) looked up and are rendered.
+    private boolean writePollsJson(List <Poll> polls, UserPrincipal currentUser, PollETag eTag, Predicate <String> notModified, ByteArrayOutputStream out) {
+        Map <Long, Long> choiceVoteCountMap = new HashMap <> ();
+
+        List <Poll> openPolls = polls.stream().filter(poll -> !poll.isClosed()).collect(Collectors.toList());
+        if(!openPolls.isEmpty()) {
+            choiceVoteCountMap.putAll(getChoiceVoteCountMap(openPolls));
+        }
+
+        polls.forEach(poll -> eTag.addPoll(poll, choiceVoteCountMap));
+        if(notModified.test(eTag.toString())) {
+            return(false);
+        }
+
+        if(polls.isEmpty()) {
+            return(true);
+        }
+
+        List <Long> pollIds = polls.stream().map(Poll::getId).collect(Collectors.toList());
+        CompletableFuture <Map <Long, Long>> pollUserVotes = lookUpPollUserVoteMap(currentUser, pollIds);
+
+        Map <Long, Long> versions = new HashMap <> ();
+        List <Poll> uncached = new ArrayList <> ();
+
+        for(Poll poll : polls) {
+            long version = PollJsonCache.version(poll, choiceVoteCountMap);
+            versions.put(poll.getId(), version);
+
+            if(!pollJsonCache.contains(poll.getId(), version)) {
+                uncached.add(poll);
+            }
+        }
+
+        // As with mapPollsToPollResponses, for the uncached polls only.
+        CompletableFuture <Map <Long, User>> creators = uncached.isEmpty() ? CompletableFuture.completedFuture(Collections.emptyMap()) : lookUpPollCreatorMap(uncached);
+
+        List <Poll> uncountedPolls = uncached.stream().filter(Poll::isClosed).collect(Collectors.toList());
+        if(!uncountedPolls.isEmpty()) {
+            choiceVoteCountMap.putAll(getChoiceVoteCountMap(uncountedPolls));
+        }
+
+        Map <Long, Long> pollUserVoteMap = FeedLookupExecutor.join(pollUserVotes);
+        Map <Long, User> creatorMap = FeedLookupExecutor.join(creators);
+
+        for(int i = 0; i < polls.size(); i++) {
+            Poll poll = polls.get(i);
+            long version = versions.get(poll.getId());
+            Long selectedChoice = pollUserVoteMap == null ? null : pollUserVoteMap.get(poll.getId());
 
-    public PagedResponse <PollResponse> getAllPolls(UserPrincipal currentUser, int page, int size) {
+            if(i > 0) {
+                out.write(',');
+            }
+
+            if(pollJsonCache.write(poll.getId(), version, selectedChoice, out)) {
+                continue;
+            }
+
+            // Unless it was evicted since the check, the creator (and counts) of the poll have been looked up.
+            boolean lookedUp = uncached.contains(poll);
+            User creator = lookedUp ? creatorMap.get(poll.getCreatedBy()) : getPollCreatorMap(Collections.singletonList(poll)).get(poll.getCreatedBy());
+            Map <Long, Long> counts = lookedUp || !poll.isClosed() ? choiceVoteCountMap : getChoiceVoteCountMap(Collections.singletonList(poll));
+
+            pollJsonCache.render(ModelMapper.mapPollToPollResponse(poll, counts, creator, null), version, selectedChoice, out);
+        }
+
+        return(true);
+    }
+
+    // Keyset pages fetch one row more than asked for, to find out whether there is a next page without counting.
+    private static Pageable keysetPageable(int size) {
+        return(PageRequest.of(0, size + 1));
+    }
+
+    private static <T> String nextCursor(List <T> rows, int size, Function <T, PageCursor> cursorOf) {
+        if(rows.size() <= size) {
+            return(null);
+        }
+
+        rows.remove(rows.size() - 1);
+        return(cursorOf.apply(rows.get(rows.size() - 1)).encode());
+    }
+
+    // The page as JSON, see writePollsJson. Conditional: null, without looking up anything but the page and its open
+    // polls' counts, when notModified accepts the page's ETag (see PollETag).
+    // The feeds load their page in a transaction of its own, ended before the lookups are fanned out: these take a
+    // pooled connection each, one held meanwhile by the waiting request would leave a busy pool deadlocked. The
+    // lookups (and counts) are read in transactions of their own, not from the page's snapshot.
+    @Timed("polls.service")
+    public byte[] getAllPolls(UserPrincipal currentUser, String cursor, int size, Predicate <String> notModified) {
+        validatePageNumberAndSize(0, size);
+
+        PageCursor after = PageCursor.decode(cursor);
+        List <Poll> polls = readOnlyTransactionTemplate.execute(status -> new ArrayList <> (after == null ? pollRepository.findFirstPage(keysetPageable(size))
+                                                                                                        : pollRepository.findPageAfter(after.getCreatedAt(), after.getId(), keysetPageable(size))));
+
+        String nextCursor = nextCursor(polls, size, poll -> new PageCursor(poll.getCreatedAt(), poll.getId()));
+
+        PollETag eTag = new PollETag(currentUser == null ? null : currentUser.getId()).add(size).add(nextCursor);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        if(!writePollsJson(polls, currentUser, eTag, notModified, content)) {
+            return(null);
+        }
+
+        return(
+            pollJsonCache.renderPage(new PagedResponse <> (Collections.emptyList(), size, nextCursor), content)
+        );
+    }
+
+    // Conditional, as with cursors.
+    @Timed("polls.service")
+    public byte[] getAllPolls(UserPrincipal currentUser, int page, int size, Predicate <String> notModified) {
         validatePageNumberAndSize(page, size);
 
         // Retrieve polls.
         Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, "createdAt");
-        Page <Poll> polls = pollRepository.findAll(pageable);
-
-        if(polls.getNumberOfElements() == 0) {
-            return(
-                new PagedResponse<>(Collections.emptyList(), polls.getNumber(), polls.getSize(), polls.getTotalElements(), polls.getTotalPages(), polls.isLast())
-            );
-        }
+        Page <Poll> polls = readOnlyTransactionTemplate.execute(status -> pollRepository.findAll(pageable));
 
         // Map polls to poll_responses containing vote counts and poll creator information.
-        List <Long> pollIds = polls.map(Poll::getId).getContent();
-        Map <Long, Long> choiceVoteCountMap = getChoiceVoteCountMap(pollIds);
-        Map <Long, Long> pollUserVoteMap = getPollUserVoteMap(currentUser, pollIds);
-        Map <Long, User> creatorMap = getPollCreatorMap(polls.getContent());
+        PollETag eTag = new PollETag(currentUser == null ? null : currentUser.getId()).add(polls.getNumber())
+                                                                                    .add(polls.getSize())
+                                                                                    .add(polls.getTotalElements());
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
 
-        List <PollResponse> pollResponses = polls.map(poll -> {
-            return(
-                ModelMapper.mapPollToPollResponse(poll,
-                                                choiceVoteCountMap,
-                                                creatorMap.get(poll.getCreatedBy()),
-                                                pollUserVoteMap == null ? null : pollUserVoteMap.getOrDefault(poll.getId(), null))
-            );
-        }).getContent();
+        if(!writePollsJson(polls.getContent(), currentUser, eTag, notModified, content)) {
+            return(null);
+        }
 
         return(
-            new PagedResponse <> (pollResponses, polls.getNumber(), polls.getSize(), polls.getTotalElements(), polls.getTotalPages(), polls.isLast())
+            pollJsonCache.renderPage(new PagedResponse <> (Collections.emptyList(), polls.getNumber(), polls.getSize(), polls.getTotalElements(), polls.getTotalPages(), polls.isLast()), content)
         );
     }
 
+    @Timed("polls.service")
     public Poll createPoll(PollRequest pollRequest) {
         Poll poll = new Poll();
         poll.setQuestion(pollRequest.getQuestion());
@@ -138,49 +408,189 @@ public class PollService {
         Instant expirationDateTime = now.plus(Duration.ofDays(pollRequest.getPollLength().getDays())).plus(Duration.ofHours(pollRequest.getPollLength().getHours()));
         poll.setExpirationDateTime(expirationDateTime);
 
-        pollRepository.save(poll);
+        // The creator's poll count is bumped in the same transaction as the poll itself.
+        transactionTemplate.execute(status -> {
+            pollRepository.save(poll);
+            counterRepository.incrementPollCount(poll.getCreatedBy());
+
+            runAfterCommit(() -> {
+                pollExpiryScheduler.schedule(poll.getId(), expirationDateTime);
+                readYourWritesTracker.writeCommitted(poll.getCreatedBy());
+            });
+            return(poll);
+        });
 
         return(poll);
     }
 
-    public PollResponse getPollById(Long pollId, UserPrincipal currentUser) {
-        Poll poll = pollRepository.findById(pollId).orElseThrow(
-            () -> new ResourceNotFoundException("Poll", "id", pollId)
-        );
+    // The poll as JSON, gzipped if asked (anonymous users only, see PollJsonCache). Conditional: null, without building
+    // the response, when notModified accepts the poll's ETag (see PollETag). An open poll with a tally gets its ETag
+    // from memory and, for anonymous users, its JSON from PollJsonCache too, without so much as a transaction.
+    @Timed("polls.service")
+    public byte[] getPollById(Long pollId, UserPrincipal currentUser, boolean gzip, Predicate <String> notModified) {
+        Long userId = currentUser == null ? null : currentUser.getId();
+
+        Map <Long, Long> tallyCounts = this.tallyEnabled ? voteTallyEngine.getChoiceVoteCountsIfPresent(pollId) : null;
+        Instant expirationDateTime = this.tallyEnabled ? voteTallyEngine.getExpirationDateTimeIfPresent(pollId) : null;
+
+        if(tallyCounts != null && expirationDateTime != null) {
+            if(notModified.test(new PollETag(userId).addOpenPoll(pollId, expirationDateTime, tallyCounts).toString())) {
+                return(null);
+            }
 
-        // Get vote counts of each choice for given poll.
-        List <ChoiceVoteCount> votes = voteRepository.countByPollIdGroupByChoiceId(pollId);
+            // Built from the same counts as the ETag.
+            long version = PollJsonCache.version(pollId, expirationDateTime, tallyCounts);
+            Long selectedChoice = getUserVoteChoiceId(currentUser, pollId);
 
-        Map <Long, Long> choiceVotesMap = votes.stream().collect(Collectors.toMap(ChoiceVoteCount::getChoiceId, ChoiceVoteCount::getVoteCount));
+            byte[] json = getCachedPollJson(pollId, version, selectedChoice, gzip);
+            if(json != null) {
+                return(json);
+            }
 
+            return(readOnlyTransactionTemplate.execute(status -> renderPollJson(findPoll(pollId), tallyCounts, version, selectedChoice, gzip)));
+        }
+
+        return(readOnlyTransactionTemplate.execute(status -> {
+            Poll poll = findPoll(pollId);
+
+            // A closed poll's ETag (and version) doesn't need its counts.
+            Map <Long, Long> choiceVotesMap = poll.isClosed() ? Collections.emptyMap() : getChoiceVoteCountMap(Collections.singletonList(poll));
+
+            if(notModified.test(new PollETag(userId).addPoll(poll, choiceVotesMap).toString())) {
+                return(null);
+            }
+
+            long version = PollJsonCache.version(poll, choiceVotesMap);
+            Long selectedChoice = getUserVoteChoiceId(currentUser, pollId);
+
+            byte[] json = getCachedPollJson(pollId, version, selectedChoice, gzip);
+            if(json != null) {
+                return(json);
+            }
+
+            return(renderPollJson(poll, poll.isClosed() ? getChoiceVoteCountMap(Collections.singletonList(poll)) : choiceVotesMap, version, selectedChoice, gzip));
+        }));
+    }
+
+    private Poll findPoll(Long pollId) {
+        return(pollRepository.findById(pollId).orElseThrow(() -> new ResourceNotFoundException("Poll", "id", pollId)));
+    }
+
+    // Get vote done by logged in user, no query for anonymous users.
+    private Long getUserVoteChoiceId(UserPrincipal currentUser, Long pollId) {
+        if(currentUser == null) {
+            return(null);
+        }
+
+        return(readOnlyTransactionTemplate.execute(status -> {
+            Vote userVote = voteRepository.findByUserIdAndPollId(currentUser.getId(), pollId);
+            return(userVote == null ? null : userVote.getChoice().getId());
+        }));
+    }
+
+    private byte[] getCachedPollJson(Long pollId, long version, Long selectedChoice, boolean gzip) {
+        if(gzip) {
+            return(pollJsonCache.getGzip(pollId, version));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return(pollJsonCache.write(pollId, version, selectedChoice, out) ? out.toByteArray() : null);
+    }
+
+    private byte[] renderPollJson(Poll poll, Map <Long, Long> choiceVotesMap, long version, Long selectedChoice, boolean gzip) {
         // Get information of poll creator.
         User creator = userRepository.findById(poll.getCreatedBy()).orElseThrow(() -> new ResourceNotFoundException("User", "id", poll.getCreatedBy()));
 
-        // Get vote done by logged in user.
-        Vote userVote = null;
-        if(currentUser != null) {
-            userVote = voteRepository.findByUserIdAndPollId(currentUser.getId(), pollId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pollJsonCache.render(ModelMapper.mapPollToPollResponse(poll, choiceVotesMap, creator, null), version, selectedChoice, out);
+
+        return(gzip ? pollJsonCache.gzip(poll.getId(), version, out.toByteArray()) : out.toByteArray());
+    }
+
+    // Several polls at once, in a constant number of queries however many ids are asked for.
+    @Timed("polls.service")
+    public PollBatchResponse getPollsByIds(List <Long> ids, UserPrincipal currentUser) {
+        List <Long> pollIds = new ArrayList <> (new LinkedHashSet <> (ids));
+
+        if(pollIds.isEmpty()) {
+            throw new BadRequestException("At least one poll id is required.");
+        }
+        if(pollIds.size() > AppConstants.MAX_BATCH_SIZE) {
+            throw new BadRequestException("Number of poll ids must be under: " + AppConstants.MAX_BATCH_SIZE);
+        }
+
+        // Loaded in a transaction ended before the lookups, as with the feeds.
+        List <Poll> polls = readOnlyTransactionTemplate.execute(status -> pollRepository.findByIdIn(pollIds));
+
+        Map <Long, PollResponse> pollResponseMap = mapPollsToPollResponses(polls, currentUser).stream()
+                                                                                            .collect(Collectors.toMap(PollResponse::getId, Function.identity()));
+
+        Map <Long, PollResponse> pollResponses = new LinkedHashMap <> ();
+        List <Long> missingIds = new ArrayList <> ();
+
+        for(Long pollId : pollIds) {
+            if(pollResponseMap.containsKey(pollId)) {
+                pollResponses.put(pollId, pollResponseMap.get(pollId));
+            }
+            else {
+                missingIds.add(pollId);
+            }
+        }
+
+        return(new PollBatchResponse(pollResponses, missingIds));
+    }
+
+    // Live results of a poll, starting with the current counts and updated as votes are committed.
+    public SseEmitter streamPollResults(Long pollId) {
+        Poll poll = pollRepository.findById(pollId).orElseThrow(() -> new ResourceNotFoundException("Poll", "id", pollId));
+
+        return(pollResultsBroadcaster.subscribe(pollId, getChoiceVoteCountMap(Collections.singletonList(poll))));
+    }
+
+    private Choice getSelectedChoice(Poll poll, VoteRequest voteRequest) {
+        if(poll.isClosed() || poll.getExpirationDateTime().isBefore(Instant.now())) {
+            this.votesExpired.increment();
+            throw new VoteRejectedException("The requested poll has expired");
         }
 
         return(
-            ModelMapper.mapPollToPollResponse(poll, choiceVotesMap, creator, userVote == null ? null : userVote.getChoice().getId())
+            poll.getChoices().stream()
+                            .filter(choice -> choice.getId().equals(voteRequest.getChoiceId()))
+                            .findFirst()
+                            .orElseThrow(() -> new ResourceNotFoundException("Choice", "id", voteRequest.getChoiceId()))
         );
     }
 
     // Method will cast a vote and also get the updated poll after vote has been cast.
+    @Timed("polls.service")
     public PollResponse castVote(Long pollId, VoteRequest voteRequest, UserPrincipal currentUser) {
-        Poll poll = pollRepository.findById(pollId).orElseThrow(() -> new ResourceNotFoundException("Poll", "id", pollId));
+        // Known duplicates are turned away before anything is loaded.
+        if(pollVoterIndex.hasVoted(pollId, currentUser.getId())) {
+            throw duplicateVote(pollId, currentUser.getId());
+        }
 
-        if(poll.getExpirationDateTime().isBefore(Instant.now())) {
-            throw new BadRequestException("The requested poll has expired");
+        PollResponse pollResponse;
+        if(voteIngestionPipeline.isEnabled()) {
+            pollResponse = castVoteBatched(pollId, voteRequest, currentUser);
+        }
+        else {
+            pollResponse = this.transactionTemplate.execute(status -> castVoteInTransaction(pollId, voteRequest, currentUser));
         }
 
+        this.votesAccepted.increment();
+        return(pollResponse);
+    }
+
+    private PollResponse castVoteInTransaction(Long pollId, VoteRequest voteRequest, UserPrincipal currentUser) {
+        Poll poll = pollRepository.findById(pollId).orElseThrow(() -> new ResourceNotFoundException("Poll", "id", pollId));
+
+        Choice selectedChoice = getSelectedChoice(poll, voteRequest);
+        checkNotVoted(pollId, currentUser.getId());
+
         User user = userRepository.getById(currentUser.getId());
 
-        Choice selectedChoice = poll.getChoices().stream()
-                                                .filter(choice -> choice.getId().equals(voteRequest.getChoiceId()))
-                                                .findFirst()
-                                                .orElseThrow(() -> new ResourceNotFoundException("Choice", "id", voteRequest.getChoiceId()));
+        // Read the counts before inserting, so that seeding the tally can't observe this (uncommitted) vote.
+        Map <Long, Long> choiceVotesMap = new HashMap <> (getChoiceVoteCountMap(Collections.singletonList(poll)));
 
         // Save vote (cast it).
         Vote vote = new Vote();
@@ -192,14 +602,22 @@ public class PollService {
             vote = voteRepository.save(vote);
         }
         catch (DataIntegrityViolationException ex){
-            logger.info("User {} has already voted in Poll {}", currentUser.getId(), pollId);
-            throw new BadRequestException("You have already voted in this poll, cannot vote again");
+            // The unique constraint only trips on a committed vote.
+            pollVoterIndex.voteCommitted(pollId, currentUser.getId());
+            throw duplicateVote(pollId, currentUser.getId());
         }
 
-        // Get updated poll.
-        List <ChoiceVoteCount> votes = voteRepository.countByPollIdGroupByChoiceId(pollId);
+        // Bump the denormalized counts atomically, in the same transaction as the vote itself.
+        counterRepository.incrementVoteCounts(pollId, selectedChoice.getId(), currentUser.getId());
 
-        Map <Long, Long> choiceVotesMap = votes.stream().collect(Collectors.toMap(ChoiceVoteCount::getChoiceId, ChoiceVoteCount::getVoteCount));
+        // Get updated poll, the tally itself only counts the vote once it has been committed.
+        choiceVotesMap.merge(selectedChoice.getId(), 1L, Long::sum);
+        runAfterCommit(() -> {
+            voteTallyEngine.recordVote(pollId, selectedChoice.getId());
+            pollVoterIndex.voteCommitted(pollId, currentUser.getId());
+            pollResultsBroadcaster.voteCommitted(pollId);
+            readYourWritesTracker.writeCommitted(currentUser.getId());
+        });
 
         User creator = userRepository.findById(poll.getCreatedBy()).orElseThrow(() -> new ResourceNotFoundException("User", "id", poll.getCreatedBy()));
         
@@ -208,6 +626,76 @@ public class PollService {
         );
     }
 
+    // Write-behind variant, the vote is validated here and then inserted by the ingestion pipeline as part of a batch.
+    private PollResponse castVoteBatched(Long pollId, VoteRequest voteRequest, UserPrincipal currentUser) {
+        // No transaction (and so no pooled connection) is held while waiting for the pipeline.
+        Poll poll = pollRepository.findById(pollId).orElseThrow(() -> new ResourceNotFoundException("Poll", "id", pollId));
+
+        Choice selectedChoice = getSelectedChoice(poll, voteRequest);
+        checkNotVoted(pollId, currentUser.getId());
+
+        // Seed the tally before the vote can be flushed, so that the pipeline's commit is counted exactly once.
+        Map <Long, Long> choiceVotesMap = new HashMap <> (getChoiceVoteCountMap(Collections.singletonList(poll)));
+
+        VoteIngestionPipeline.Outcome outcome = voteIngestionPipeline.submitAndAwait(pollId, selectedChoice.getId(), currentUser.getId());
+        if(outcome == VoteIngestionPipeline.Outcome.DUPLICATE) {
+            throw duplicateVote(pollId, currentUser.getId());
+        }
+        if(outcome == VoteIngestionPipeline.Outcome.POLL_CLOSED) {
+            // Closed since it was loaded.
+            this.votesExpired.increment();
+            throw new VoteRejectedException("The requested poll has expired");
+        }
+
+        readYourWritesTracker.writeCommitted(currentUser.getId());
+
+        choiceVotesMap.merge(selectedChoice.getId(), 1L, Long::sum);
+
+        User creator = userRepository.findById(poll.getCreatedBy()).orElseThrow(() -> new ResourceNotFoundException("User", "id", poll.getCreatedBy()));
+
+        return(
+            ModelMapper.mapPollToPollResponse(poll, choiceVotesMap, creator, selectedChoice.getId())
+        );
+    }
+
+    // The poll's voters are loaded on its first vote, which may turn out to be a duplicate already.
+    private void checkNotVoted(Long pollId, Long userId) {
+        pollVoterIndex.track(pollId);
+
+        if(pollVoterIndex.hasVoted(pollId, userId)) {
+            throw duplicateVote(pollId, userId);
+        }
+    }
+
+    private VoteRejectedException duplicateVote(Long pollId, Long userId) {
+        logger.info("User {} has already voted in Poll {}", userId, pollId);
+        this.votesDuplicate.increment();
+
+        return(new VoteRejectedException("You have already voted in this poll, cannot vote again"));
+    }
+
+    // The page is loaded in a transaction ended before the lookups, as with the feeds.
+    @Timed("polls.service")
+    public PagedResponse <PollResponse> getPollsCreatedBy(String username, UserPrincipal currentUser, String cursor, int size) {
+        validatePageNumberAndSize(0, size);
+
+        PageCursor after = PageCursor.decode(cursor);
+        List <Poll> polls = readOnlyTransactionTemplate.execute(status -> {
+            User user = userRepository.findByUsername(username).orElseThrow(()-> new ResourceNotFoundException("User", "username", username));
+
+            return(new ArrayList <> (after == null ? pollRepository.findFirstPageByCreatedBy(user.getId(), keysetPageable(size))
+                                                    : pollRepository.findPageByCreatedByAfter(user.getId(), after.getCreatedAt(), after.getId(), keysetPageable(size))));
+        });
+
+        String nextCursor = nextCursor(polls, size, poll -> new PageCursor(poll.getCreatedAt(), poll.getId()));
+
+        return(
+            new PagedResponse <> (mapPollsToPollResponses(polls, currentUser), size, nextCursor)
+        );
+    }
+
+    @Timed("polls.service")
+    @Transactional(readOnly = true)
     public PagedResponse <PollResponse> getPollsCreatedBy(String username, UserPrincipal currentUser, int page, int size) {
         validatePageNumberAndSize(page, size);
 
@@ -225,7 +713,7 @@ public class PollService {
 
 
         List <Long> pollIds = polls.map(Poll::getId).getContent();
-        Map <Long, Long> choiceVoteCountMap = getChoiceVoteCountMap(pollIds);
+        Map <Long, Long> choiceVoteCountMap = getChoiceVoteCountMap(polls.getContent());
         Map <Long, Long> pollUserVoteMap = getPollUserVoteMap(currentUser, pollIds);
 
         List <PollResponse> pollResponses = polls.map(poll -> {
@@ -239,14 +727,45 @@ public class PollService {
         );
     }
 
+    // Pages through the user's votes, newest vote first, the polls of a page are then sorted by creation time like the offset variant.
+    // The votes and polls are loaded in a transaction ended before the lookups, as with the feeds.
+    @Timed("polls.service")
+    public PagedResponse <PollResponse> getPollsVotedBy(String username, UserPrincipal currentUser, String cursor, int size) {
+        validatePageNumberAndSize(0, size);
+
+        PageCursor after = PageCursor.decode(cursor);
+        List <Vote> votes = readOnlyTransactionTemplate.execute(status -> {
+            User user = userRepository.findByUsername(username).orElseThrow(()-> new ResourceNotFoundException("User", "username", username));
+
+            return(new ArrayList <> (after == null ? voteRepository.findFirstPageByUserId(user.getId(), keysetPageable(size))
+                                                    : voteRepository.findPageByUserIdAfter(user.getId(), after.getCreatedAt(), after.getId(), keysetPageable(size))));
+        });
+
+        String nextCursor = nextCursor(votes, size, vote -> new PageCursor(vote.getCreatedAt(), vote.getId()));
+
+        List <Poll> polls = Collections.emptyList();
+        if(!votes.isEmpty()) {
+            List <Long> pollIds = votes.stream().map(vote -> vote.getPoll().getId()).collect(Collectors.toList());
+            polls = readOnlyTransactionTemplate.execute(status -> pollRepository.findByIdIn(pollIds, Sort.by(Sort.Direction.DESC, "createdAt")));
+        }
+
+        return(
+            new PagedResponse <> (mapPollsToPollResponses(polls, currentUser), size, nextCursor)
+        );
+    }
+
+    // As with cursors, nothing is held while the lookups run.
+    @Timed("polls.service")
     public PagedResponse <PollResponse> getPollsVotedBy(String username, UserPrincipal currentUser, int page, int size) {
         validatePageNumberAndSize(page, size);
 
-        User user = userRepository.findByUsername(username).orElseThrow(()-> new ResourceNotFoundException("User", "username", username));
-
         // Get all polls created by user with username.
         Pageable pageable = PageRequest.of(page, size, Sort.Direction.DESC, "createdAt");
-        Page <Long> userVotedPollIds = voteRepository.findVotedPollIdsByUserId(user.getId(), pageable);
+        Page <Long> userVotedPollIds = readOnlyTransactionTemplate.execute(status -> {
+            User user = userRepository.findByUsername(username).orElseThrow(()-> new ResourceNotFoundException("User", "username", username));
+
+            return(voteRepository.findVotedPollIdsByUserId(user.getId(), pageable));
+        });
 
         if(userVotedPollIds.getNumberOfElements() == 0) {
             return(
@@ -257,11 +776,15 @@ public class PollService {
 
         List <Long> pollIds = userVotedPollIds.getContent();
         Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
-        List <Poll> polls = pollRepository.findByIdIn(pollIds, sort);
+        List <Poll> polls = readOnlyTransactionTemplate.execute(status -> pollRepository.findByIdIn(pollIds, sort));
 
-        Map <Long, Long> choiceVoteCountMap = getChoiceVoteCountMap(pollIds);
-        Map <Long, Long> pollUserVoteMap = getPollUserVoteMap(currentUser, pollIds);
-        Map <Long, User> creatorMap = getPollCreatorMap(polls);
+        // The queries run concurrently, the vote counts are meanwhile read from the tally on this thread.
+        CompletableFuture <Map <Long, Long>> pollUserVotes = lookUpPollUserVoteMap(currentUser, pollIds);
+        CompletableFuture <Map <Long, User>> creators = lookUpPollCreatorMap(polls);
+
+        Map <Long, Long> choiceVoteCountMap = getChoiceVoteCountMap(polls);
+        Map <Long, Long> pollUserVoteMap = FeedLookupExecutor.join(pollUserVotes);
+        Map <Long, User> creatorMap = FeedLookupExecutor.join(creators);
 
         List <PollResponse> pollResponses = polls.stream().map(poll -> {
             return(
@@ -0,0 +1,136 @@
+package com.mypolls.polls.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mypolls.polls.config.ReplicaRoutingDataSource;
+import com.mypolls.polls.util.CompressedBitmap;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// The users who have voted in each active poll, as a compressed bitmap of their ids, so that a repeated vote is turned
+// away from memory instead of by the votes (poll_id, user_id) unique constraint at the end of a transaction.
+// The constraint stays the final guard: a user found here has voted, one who isn't may still have (the poll's voters
+// are still being loaded, or the vote was cast on another node). A user is only ever added once their vote is known to
+// be committed.
+// A poll's voters are loaded on its first vote, from the primary, then added to as votes commit. They are forgotten
+// once the poll closes or goes unvoted in for app.votes.voters.idleEvictionMs, at most app.votes.voters.maxPolls polls
+// are tracked at a time.
+@Component
+public class PollVoterIndex {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.votes.voters.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.votes.voters.maxPolls:10000}")
+    private int maxPolls;
+
+    @Value("${app.votes.voters.idleEvictionMs:3600000}")
+    private long idleEvictionMs;
+
+    private static final Logger logger = LoggerFactory.getLogger(PollVoterIndex.class);
+
+    private static final String SELECT_VOTERS = "SELECT user_id FROM votes WHERE poll_id = ?";
+
+    private final ConcurrentHashMap <Long, PollVoters> polls = new ConcurrentHashMap <> ();
+
+    private static class PollVoters {
+        private final CompressedBitmap voters = new CompressedBitmap();
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        synchronized boolean contains(long userId) {
+            this.lastAccess = System.currentTimeMillis();
+            return(this.voters.contains(userId));
+        }
+
+        synchronized void add(long userId) {
+            this.voters.add(userId);
+        }
+
+        synchronized long sizeInBytes() {
+            return(this.voters.sizeInBytes());
+        }
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("polls.voters.polls", this.polls, ConcurrentHashMap::size)
+            .description("Polls whose voters are tracked in memory")
+            .register(this.meterRegistry);
+        Gauge.builder("polls.voters.bytes", this, PollVoterIndex::sizeInBytes)
+            .description("Memory taken by the voter bitmaps, roughly")
+            .register(this.meterRegistry);
+    }
+
+    // Memory only, false when the poll's voters aren't tracked.
+    public boolean hasVoted(Long pollId, Long userId) {
+        PollVoters voters = this.polls.get(pollId);
+        return(voters != null && voters.contains(userId));
+    }
+
+    // Loads the poll's voters unless they are tracked already. Call for open polls only, before they are voted in.
+    public void track(Long pollId) {
+        if(!this.enabled || this.polls.containsKey(pollId) || this.polls.size() >= this.maxPolls) {
+            return;
+        }
+
+        PollVoters voters = new PollVoters();
+        if(this.polls.putIfAbsent(pollId, voters) != null) {
+            return;
+        }
+
+        // Registered before the query: votes committed meanwhile are added by voteCommitted if the query misses them.
+        try {
+            ReplicaRoutingDataSource.onPrimary(() -> {
+                this.jdbcTemplate.query(SELECT_VOTERS, rs -> {
+                    voters.add(rs.getLong(1));
+                }, pollId);
+                return(null);
+            });
+        }
+        catch(RuntimeException e) {
+            this.polls.remove(pollId, voters);
+            logger.warn("Could not load the voters of poll {}", pollId, e);
+        }
+    }
+
+    // The user's vote in the poll has been committed, by this request or (found out through the unique constraint) by an earlier one.
+    public void voteCommitted(Long pollId, Long userId) {
+        PollVoters voters = this.polls.get(pollId);
+
+        if(voters != null) {
+            voters.add(userId);
+        }
+    }
+
+    // A closed poll isn't voted in anymore.
+    public void pollClosed(Long pollId) {
+        this.polls.remove(pollId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.voters.evictionIntervalMs:60000}", initialDelayString = "${app.votes.voters.evictionIntervalMs:60000}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - this.idleEvictionMs;
+
+        this.polls.values().removeIf(voters -> voters.lastAccess < idleSince);
+    }
+
+    private long sizeInBytes() {
+        return(this.polls.values().stream().mapToLong(PollVoters::sizeInBytes).sum());
+    }
+}
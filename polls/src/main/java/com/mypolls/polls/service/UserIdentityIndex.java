@@ -0,0 +1,135 @@
+package com.mypolls.polls.service;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mypolls.polls.repositories.UserRepository;
+import com.mypolls.polls.util.BloomFilter;
+
+// Answers username / email availability checks without a query whenever the name is definitely not taken.
+// Taken names live in Bloom filters built from the users table at startup and updated on signup, only possible hits
+// are confirmed with the database. Signups on other instances are picked up by the periodic rebuild, until then the
+// unique constraints on users are what reject a duplicate (see AuthController.registerUser).
+@Component
+public class UserIdentityIndex implements ApplicationRunner {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.users.identityFilter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.users.identityFilter.expectedUsers:1000000}")
+    private long expectedUsers;
+
+    @Value("${app.users.identityFilter.falsePositiveRate:0.01}")
+    private double falsePositiveRate;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityIndex.class);
+
+    private static class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        Filters(long expectedUsers, double falsePositiveRate) {
+            this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+            this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+        }
+
+        void put(String username, String email) {
+            this.usernames.put(normalize(username));
+            this.emails.put(normalize(email));
+        }
+    }
+
+    // The filters in use (null until the first build completes, every check goes to the database meanwhile) and the
+    // filters being rebuilt, if any. Signups are recorded in both, read together so that a swap can't lose one.
+    private static class State {
+        private final Filters current;
+        private final Filters building;
+
+        State(Filters current, Filters building) {
+            this.current = current;
+            this.building = building;
+        }
+    }
+
+    // Only replaced by rebuild.
+    private volatile State state = new State(null, null);
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.identityFilter.rebuildIntervalMs:600000}", initialDelayString = "${app.users.identityFilter.rebuildIntervalMs:600000}")
+    public synchronized void rebuild() {
+        if(!this.enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+
+        // Leave headroom, so the false positive rate holds until the next rebuild.
+        long userCount = userRepository.count();
+        Filters rebuilt = new Filters(Math.max(this.expectedUsers, userCount * 2), this.falsePositiveRate);
+        this.state = new State(this.state.current, rebuilt);
+
+        jdbcTemplate.query("SELECT username, email FROM users", rs -> {
+            rebuilt.put(rs.getString(1), rs.getString(2));
+        });
+
+        this.state = new State(rebuilt, null);
+
+        logger.info("Built username and email filters over {} users in {} ms", userCount, System.currentTimeMillis() - start);
+    }
+
+    // Call once the user has been committed.
+    public void userRegistered(String username, String email) {
+        State current = this.state;
+
+        if(current.current != null) {
+            current.current.put(username, email);
+        }
+
+        if(current.building != null) {
+            current.building.put(username, email);
+        }
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        Filters current = this.state.current;
+
+        if(current != null && !current.usernames.mightContain(normalize(username))) {
+            return(true);
+        }
+
+        return(!userRepository.existsByUsername(username));
+    }
+
+    public boolean isEmailAvailable(String email) {
+        Filters current = this.state.current;
+
+        if(current != null && !current.emails.mightContain(normalize(email))) {
+            return(true);
+        }
+
+        return(!userRepository.existsByEmail(email));
+    }
+
+    // MySQL compares these case insensitively, a name differing only in case from a taken one has to hit the database.
+    private static String normalize(String value) {
+        return(value.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,29 @@
+package com.mypolls.polls.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mypolls.polls.exception.ResourceNotFoundException;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.payload.UserProfile;
+import com.mypolls.polls.repositories.UserRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+public class UserService {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Timed("polls.service")
+    @Transactional(readOnly = true)
+    public UserProfile getUserProfile(String username) {
+        User user = userRepository.findByUsername(username).orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        // Counts come from the denormalized counters on the user row, no need to count polls and votes.
+        return(
+            new UserProfile(user.getId(), user.getUsername(), user.getName(), user.getCreatedAt(), user.getPollCount(), user.getVoteCount())
+        );
+    }
+}
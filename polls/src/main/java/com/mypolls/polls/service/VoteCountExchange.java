@@ -0,0 +1,96 @@
+package com.mypolls.polls.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.mypolls.polls.model.NodeVoteCounts;
+
+// Exchanges the nodes' vote counts (see VoteTallyEngine.mergeVoteCounts) every app.votes.cluster.exchangeIntervalMs,
+// when app.votes.cluster.enabled is set. Needs a VoteCountTransport bean. The node id defaults to the host name plus a
+// random suffix, a restarted node counts from zero again and mustn't be mistaken for its previous run.
+@Component
+public class VoteCountExchange {
+    @Autowired
+    private VoteTallyEngine voteTallyEngine;
+
+    @Autowired
+    private PollResultsBroadcaster pollResultsBroadcaster;
+
+    @Autowired(required = false)
+    private VoteCountTransport transport;
+
+    @Value("${app.votes.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.votes.cluster.nodeId:}")
+    private String nodeId;
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteCountExchange.class);
+
+    @PostConstruct
+    public void init() {
+        if(!this.enabled) {
+            return;
+        }
+
+        if(this.transport == null) {
+            throw new IllegalStateException("app.votes.cluster.enabled is set but there is no VoteCountTransport");
+        }
+
+        if(!StringUtils.hasText(this.nodeId)) {
+            this.nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+
+        this.transport.subscribe(this::receive);
+        logger.info("Exchanging vote counts as node {}", this.nodeId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.cluster.exchangeIntervalMs:1000}")
+    public void publish() {
+        if(!this.enabled) {
+            return;
+        }
+
+        try {
+            this.transport.publish(new NodeVoteCounts(this.nodeId, voteTallyEngine.getLocalVoteCounts()));
+        }
+        catch(RuntimeException e) {
+            // The next exchange sends the same counts and then some.
+            logger.warn("Failed to publish the vote counts", e);
+        }
+    }
+
+    void receive(NodeVoteCounts counts) {
+        if(this.nodeId.equals(counts.getNodeId())) {
+            return;
+        }
+
+        Set <Long> pollIds = voteTallyEngine.mergeVoteCounts(counts.getNodeId(), counts.getCounts());
+        pollIds.forEach(pollResultsBroadcaster::voteCommitted);
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    private static String hostName() {
+        try {
+            return(InetAddress.getLocalHost().getHostName());
+        }
+        catch(UnknownHostException e) {
+            return("node");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mypolls.polls.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mypolls.polls.repositories.ChoiceRepository;
+import com.mypolls.polls.repositories.PollRepository;
+import com.mypolls.polls.repositories.UserRepository;
+
+// Backfills and repairs the denormalized Choice.voteCount, Poll.totalVotes and User.pollCount / voteCount columns.
+// Works through id ranges, one short transaction per range, so that it never locks a whole table at once.
+// The counts of closed polls are their final results, frozen when they closed (see CounterRepository.closePolls), and
+// are left alone. A user's counts span open and closed polls alike and are always recomputed.
+@Component
+public class VoteCountRepairJob implements ApplicationRunner {
+    @Autowired
+    private ChoiceRepository choiceRepository;
+
+    @Autowired
+    private PollRepository pollRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.votes.counts.repairOnStartup:false}")
+    private boolean repairOnStartup;
+
+    @Value("${app.votes.counts.repairBatchSize:5000}")
+    private long batchSize;
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteCountRepairJob.class);
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if(this.repairOnStartup) {
+            repair();
+        }
+    }
+
+    // Disabled unless a cron expression is configured, e.g. "0 0 4 * * *".
+    @Scheduled(cron = "${app.votes.counts.repairCron:-}")
+    public void repair() {
+        long start = System.currentTimeMillis();
+
+        long maxChoiceId = choiceRepository.findMaxId();
+        for(long fromId = 1; fromId <= maxChoiceId; fromId += this.batchSize) {
+            choiceRepository.recomputeVoteCounts(fromId, fromId + this.batchSize - 1);
+        }
+
+        long maxPollId = pollRepository.findMaxId();
+        for(long fromId = 1; fromId <= maxPollId; fromId += this.batchSize) {
+            pollRepository.recomputeTotalVotes(fromId, fromId + this.batchSize - 1);
+        }
+
+        long maxUserId = userRepository.findMaxId();
+        for(long fromId = 1; fromId <= maxUserId; fromId += this.batchSize) {
+            userRepository.recomputeCounts(fromId, fromId + this.batchSize - 1);
+        }
+
+        logger.info("Repaired vote counts up to choice id {}, poll id {} and user id {} in {} ms", maxChoiceId, maxPollId, maxUserId, System.currentTimeMillis() - start);
+    }
+}
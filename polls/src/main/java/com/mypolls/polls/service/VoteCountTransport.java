@@ -0,0 +1,15 @@
+package com.mypolls.polls.service;
+
+import java.util.function.Consumer;
+
+import com.mypolls.polls.model.NodeVoteCounts;
+
+// How VoteCountExchange gets the nodes' vote counts to each other, e.g. a message broker topic or a shared cache. Best
+// effort is enough: counts merge idempotently and in any order, a lost or duplicated message is made up for by the next.
+public interface VoteCountTransport {
+    // Sends this node's counts to the other nodes (it may be delivered back to this one too).
+    void publish(NodeVoteCounts counts);
+
+    // Registers the receiver of the other nodes' counts, called once before anything is published.
+    void subscribe(Consumer <NodeVoteCounts> receiver);
+}
@@ -0,0 +1,384 @@
+package com.mypolls.polls.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mypolls.polls.exception.AppException;
+import com.mypolls.polls.exception.ServiceUnavailableException;
+import com.mypolls.polls.repositories.CounterRepository;
+
+// Opt-in write-behind path for votes (app.votes.ingestion.mode=batched).
+// Validated votes are put on a bounded queue and a single flusher thread writes them in JDBC batches,
+// one transaction per batch. A vote is only inserted, and counted, while its poll is open. A batch failing on a
+// constraint (typically the votes (poll_id, user_id) unique constraint, for a vote cast concurrently through another
+// path or twice in the batch) is retried a vote at a time, so that duplicates are told apart from other failures and
+// every submitter learns the outcome of its own vote.
+@Component
+public class VoteIngestionPipeline {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private VoteTallyEngine voteTallyEngine;
+
+    @Autowired
+    private PollResultsBroadcaster pollResultsBroadcaster;
+
+    @Autowired
+    private PollVoterIndex pollVoterIndex;
+
+    @Value("${app.votes.ingestion.mode:sync}")
+    private String mode;
+
+    @Value("${app.votes.ingestion.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.votes.ingestion.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.votes.ingestion.maxBatchDelayMs:10}")
+    private long maxBatchDelayMs;
+
+    @Value("${app.votes.ingestion.enqueueTimeoutMs:50}")
+    private long enqueueTimeoutMs;
+
+    @Value("${app.votes.ingestion.outcomeTimeoutMs:5000}")
+    private long outcomeTimeoutMs;
+
+    @Value("${app.votes.ingestion.stopTimeoutMs:10000}")
+    private long stopTimeoutMs;
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteIngestionPipeline.class);
+
+    // Inserts nothing once the poll is closed.
+    private static final String INSERT_VOTE = "INSERT INTO votes (poll_id, choice_id, user_id, created_at, updated_at) SELECT id, ?, ?, ?, ? FROM polls WHERE id = ? AND closed_at IS NULL";
+
+    public enum Outcome {
+        STORED,
+        // The user had already voted in the poll.
+        DUPLICATE,
+        POLL_CLOSED
+    }
+
+    private BlockingQueue <PendingVote> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    // Submits hold the read lock from their check of running to their offer, closing takes the write lock: once closed,
+    // no vote can still make it onto the queue behind the flusher's back.
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+
+    private static class PendingVote {
+        private final Long pollId;
+        private final Long choiceId;
+        private final Long userId;
+        private final CompletableFuture <Outcome> outcome = new CompletableFuture <> ();
+
+        PendingVote(Long pollId, Long choiceId, Long userId) {
+            this.pollId = pollId;
+            this.choiceId = choiceId;
+            this.userId = userId;
+        }
+    }
+
+    public boolean isEnabled() {
+        return("batched".equalsIgnoreCase(this.mode));
+    }
+
+    @PostConstruct
+    public void start() {
+        if(!isEnabled()) {
+            return;
+        }
+
+        this.queue = new ArrayBlockingQueue <> (this.queueCapacity);
+        this.running = true;
+
+        this.flusher = new Thread(this::flushLoop, "vote-ingestion-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if(this.flusher == null) {
+            return;
+        }
+
+        // Let the flusher drain whatever has already been accepted onto the queue, then fail what it couldn't.
+        close();
+        this.flusher.join(this.stopTimeoutMs);
+
+        if(this.flusher.isAlive()) {
+            this.flusher.interrupt();
+        }
+
+        failPending();
+    }
+
+    public CompletableFuture <Outcome> submit(Long pollId, Long choiceId, Long userId) {
+        PendingVote vote = new PendingVote(pollId, choiceId, userId);
+
+        boolean queued;
+        this.lifecycle.readLock().lock();
+        try {
+            if(!this.running) {
+                throw stopped();
+            }
+
+            queued = this.queue.offer(vote, this.enqueueTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        finally {
+            this.lifecycle.readLock().unlock();
+        }
+
+        // Backpressure, the queue is bounded and a full queue means the database can't keep up.
+        if(!queued) {
+            throw new ServiceUnavailableException("Too many votes are being cast right now, please try again");
+        }
+
+        return(vote.outcome);
+    }
+
+    // Blocks the caller until its vote has been flushed, without holding a transaction or connection meanwhile.
+    public Outcome submitAndAwait(Long pollId, Long choiceId, Long userId) {
+        CompletableFuture <Outcome> outcome = submit(pollId, choiceId, userId);
+
+        try {
+            return(outcome.get(this.outcomeTimeoutMs, TimeUnit.MILLISECONDS));
+        }
+        catch(TimeoutException e) {
+            throw new ServiceUnavailableException("Your vote is still being processed, please check the poll again shortly");
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof ServiceUnavailableException) {
+                throw (ServiceUnavailableException) e.getCause();
+            }
+
+            throw new AppException("Could not cast vote", e.getCause());
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException("Interrupted while casting vote", e);
+        }
+    }
+
+    public int getQueueDepth() {
+        return(this.queue == null ? 0 : this.queue.size());
+    }
+
+    private void flushLoop() {
+        List <PendingVote> batch = new ArrayList <> (this.batchSize);
+
+        try {
+            while(this.running || !this.queue.isEmpty()) {
+                try {
+                    PendingVote first = this.queue.poll(this.maxBatchDelayMs, TimeUnit.MILLISECONDS);
+                    if(first == null) {
+                        continue;
+                    }
+
+                    batch.add(first);
+                    this.queue.drainTo(batch, this.batchSize - 1);
+
+                    flush(batch);
+                }
+                catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    batch.forEach(vote -> vote.outcome.completeExceptionally(stopped()));
+                    return;
+                }
+                catch(RuntimeException e) {
+                    logger.error("Could not flush a batch of {} votes", batch.size(), e);
+                    batch.forEach(vote -> vote.outcome.completeExceptionally(e));
+                }
+                finally {
+                    batch.clear();
+                }
+            }
+        }
+        finally {
+            // Without a flusher, nothing would ever complete the votes still accepted.
+            close();
+            failPending();
+        }
+    }
+
+    private void close() {
+        this.lifecycle.writeLock().lock();
+        try {
+            this.running = false;
+        }
+        finally {
+            this.lifecycle.writeLock().unlock();
+        }
+    }
+
+    // Votes accepted but never flushed, their submitters are told so rather than left waiting for an outcome.
+    private void failPending() {
+        List <PendingVote> pending = new ArrayList <> ();
+        this.queue.drainTo(pending);
+
+        if(!pending.isEmpty()) {
+            logger.warn("Failing {} votes that were not flushed before vote ingestion stopped", pending.size());
+            pending.forEach(vote -> vote.outcome.completeExceptionally(stopped()));
+        }
+    }
+
+    private static ServiceUnavailableException stopped() {
+        return(new ServiceUnavailableException("Votes can't be cast right now, please try again"));
+    }
+
+    private void flush(List <PendingVote> batch) {
+        Outcome[] outcomes;
+        try {
+            outcomes = this.transactionTemplate.execute(status -> insertBatch(batch));
+        }
+        catch(DataIntegrityViolationException e) {
+            // The whole batch was rolled back.
+            outcomes = new Outcome[batch.size()];
+            for(int i = 0; i < batch.size(); i++) {
+                outcomes[i] = insertOne(batch.get(i));
+            }
+        }
+
+        // The tally only counts committed votes. A duplicate is one of a committed vote, the voter index learns of both.
+        for(int i = 0; i < batch.size(); i++) {
+            PendingVote vote = batch.get(i);
+
+            if(outcomes[i] == Outcome.STORED || outcomes[i] == Outcome.DUPLICATE) {
+                pollVoterIndex.voteCommitted(vote.pollId, vote.userId);
+            }
+
+            if(outcomes[i] == Outcome.STORED) {
+                voteTallyEngine.recordVote(vote.pollId, vote.choiceId);
+                pollResultsBroadcaster.voteCommitted(vote.pollId);
+            }
+        }
+
+        // Votes that failed on their own (null) have been completed already.
+        for(int i = 0; i < batch.size(); i++) {
+            if(outcomes[i] != null) {
+                batch.get(i).outcome.complete(outcomes[i]);
+            }
+        }
+    }
+
+    // As precise as what JPA writes (Jsr310JpaConverters stores a Date): the votes feed's cursors carry created_at
+    // at that precision, a finer one would have a page skip the votes sharing the timestamp of the last one before it.
+    private static Timestamp now() {
+        return(Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MILLIS)));
+    }
+
+    private Outcome[] insertBatch(List <PendingVote> batch) {
+        Timestamp now = now();
+
+        int[] insertCounts = jdbcTemplate.batchUpdate(INSERT_VOTE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingVote vote = batch.get(i);
+                ps.setLong(1, vote.choiceId);
+                ps.setLong(2, vote.userId);
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                ps.setLong(5, vote.pollId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return(batch.size());
+            }
+        });
+
+        Outcome[] outcomes = new Outcome[batch.size()];
+
+        // Sorted by id, so concurrent writers always lock counter rows in the same order.
+        Map <Long, Long> choiceIncrements = new TreeMap <> ();
+        Map <Long, Long> pollIncrements = new TreeMap <> ();
+        Map <Long, Long> userIncrements = new TreeMap <> ();
+
+        for(int i = 0; i < batch.size(); i++) {
+            if(insertCounts[i] == Statement.SUCCESS_NO_INFO) {
+                // Rewritten multi-row batches (rewriteBatchedStatements=true) don't report per-row outcomes.
+                throw new IllegalStateException("Batched vote ingestion needs per-statement update counts from the JDBC driver");
+            }
+
+            outcomes[i] = insertCounts[i] > 0 ? Outcome.STORED : Outcome.POLL_CLOSED;
+
+            if(outcomes[i] == Outcome.STORED) {
+                choiceIncrements.merge(batch.get(i).choiceId, 1L, Long::sum);
+                pollIncrements.merge(batch.get(i).pollId, 1L, Long::sum);
+                userIncrements.merge(batch.get(i).userId, 1L, Long::sum);
+            }
+        }
+
+        counterRepository.incrementVoteCounts(pollIncrements, choiceIncrements, userIncrements);
+
+        return(outcomes);
+    }
+
+    // In a transaction of its own. Null, with the vote completed exceptionally, when it failed on any other constraint
+    // (e.g. a choice that was deleted meanwhile).
+    private Outcome insertOne(PendingVote vote) {
+        try {
+            return(this.transactionTemplate.execute(status -> {
+                Timestamp now = now();
+
+                if(jdbcTemplate.update(INSERT_VOTE, vote.choiceId, vote.userId, now, now, vote.pollId) == 0) {
+                    return(Outcome.POLL_CLOSED);
+                }
+
+                counterRepository.incrementVoteCounts(vote.pollId, vote.choiceId, vote.userId);
+                return(Outcome.STORED);
+            }));
+        }
+        catch(DuplicateKeyException e) {
+            return(Outcome.DUPLICATE);
+        }
+        catch(DataIntegrityViolationException e) {
+            logger.warn("Could not insert the vote of user {} in poll {}", vote.userId, vote.pollId, e);
+            vote.outcome.completeExceptionally(e);
+            return(null);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.mypolls.polls.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mypolls.polls.config.ReplicaRoutingDataSource;
+import com.mypolls.polls.model.ChoiceVoteCount;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.repositories.ChoiceRepository;
+import com.mypolls.polls.util.GCounter;
+
+// In-memory vote counts per poll, so that reads don't have to go back to the database.
+// Tallies are seeded lazily from the denormalized choices.vote_count column (queried, never read off the loaded poll,
+// see Choice.voteCount), incremented after a vote commits, and periodically reconciled against the choices table to
+// correct any drift.
+// With several nodes, each one also counts the votes it commits in a G-counter, merged with the other nodes' by
+// VoteCountExchange: their votes reach this node's tallies within an exchange interval instead of a reconcile interval.
+@Component
+public class VoteTallyEngine {
+    @Autowired
+    private ChoiceRepository choiceRepository;
+
+    @Value("${app.votes.tally.idleEvictionMs:3600000}")
+    private long idleEvictionMs;
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteTallyEngine.class);
+
+    private final ConcurrentHashMap <Long, PollTally> tallies = new ConcurrentHashMap <> ();
+
+    // Votes committed by this node, and by the other nodes as far as this one knows, per poll choice.
+    private final GCounter <PollChoice> clusterVotes = new GCounter <> ();
+
+    private static final class PollChoice {
+        private final Long pollId;
+        private final Long choiceId;
+
+        PollChoice(Long pollId, Long choiceId) {
+            this.pollId = pollId;
+            this.choiceId = choiceId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return(true);
+            }
+            if(!(o instanceof PollChoice)) {
+                return(false);
+            }
+
+            PollChoice other = (PollChoice) o;
+            return(this.pollId.equals(other.pollId) && this.choiceId.equals(other.choiceId));
+        }
+
+        @Override
+        public int hashCode() {
+            return(Objects.hash(this.pollId, this.choiceId));
+        }
+    }
+
+    private static class PollTally {
+        // LongAdder stripes the counter cells, so concurrent votes on one choice don't contend on a single CAS.
+        private final ConcurrentHashMap <Long, LongAdder> choiceCounts = new ConcurrentHashMap <> ();
+        private volatile long lastAccess = System.currentTimeMillis();
+        private final Instant expirationDateTime;
+        // Registered before the seed query, so that the votes recorded while it runs are counted. Until the counts of
+        // the query are added, the tally is only collecting those and reads as absent.
+        private volatile boolean seeded;
+
+        PollTally(Instant expirationDateTime) {
+            this.expirationDateTime = expirationDateTime;
+        }
+
+        void seed(Map <Long, Long> counts) {
+            counts.forEach((choiceId, voteCount) -> counter(choiceId).add(voteCount));
+            this.seeded = true;
+        }
+
+        LongAdder counter(Long choiceId) {
+            return(this.choiceCounts.computeIfAbsent(choiceId, id -> new LongAdder()));
+        }
+
+        Map <Long, Long> snapshot() {
+            this.lastAccess = System.currentTimeMillis();
+
+            Map <Long, Long> counts = new HashMap <> ();
+            this.choiceCounts.forEach((choiceId, counter) -> counts.put(choiceId, counter.sum()));
+            return(counts);
+        }
+    }
+
+    public Map <Long, Long> getChoiceVoteCounts(Poll poll) {
+        return(getChoiceVoteCounts(Collections.singletonList(poll)));
+    }
+
+    // Null when the poll's tally hasn't been seeded (or was evicted).
+    public Map <Long, Long> getChoiceVoteCountsIfPresent(Long pollId) {
+        PollTally tally = seededTally(pollId);
+        return(tally == null ? null : tally.snapshot());
+    }
+
+    // Null when the poll's tally hasn't been seeded (or was evicted), spares loading the poll just for it.
+    public Instant getExpirationDateTimeIfPresent(Long pollId) {
+        PollTally tally = seededTally(pollId);
+        return(tally == null ? null : tally.expirationDateTime);
+    }
+
+    // Vote counts of every choice belonging to the given polls, polls without a tally cost one query between them.
+    // The counts of a closed poll are final (see PollExpiryScheduler), no need to keep a tally around.
+    // The tallies of the missing polls are registered before the query and the queried counts added to them after, a
+    // vote can't slip in between: one committed after the query is recorded into the tally. One committed before the
+    // query but recorded after the registration is counted by both, until the next reconcile.
+    public Map <Long, Long> getChoiceVoteCounts(List <Poll> polls) {
+        Map <Long, Long> choiceVotesMap = new HashMap <> ();
+        List <Poll> missing = new ArrayList <> ();
+
+        for(Poll poll : polls) {
+            PollTally tally = poll.isClosed() ? null : seededTally(poll.getId());
+
+            if(tally != null) {
+                choiceVotesMap.putAll(tally.snapshot());
+            }
+            else {
+                missing.add(poll);
+            }
+        }
+
+        if(missing.isEmpty()) {
+            return(choiceVotesMap);
+        }
+
+        // The tallies this call seeds, the ones another call registered first are left for it to seed.
+        Map <Long, PollTally> registered = new HashMap <> ();
+        for(Poll poll : missing) {
+            if(!poll.isClosed()) {
+                PollTally tally = new PollTally(poll.getExpirationDateTime());
+
+                if(this.tallies.putIfAbsent(poll.getId(), tally) == null) {
+                    registered.put(poll.getId(), tally);
+                }
+            }
+        }
+
+        Map <Long, Long> counts;
+        try {
+            counts = toMap(choiceRepository.findVoteCountsByPollIdIn(missing.stream().map(Poll::getId).collect(Collectors.toList())));
+        }
+        catch(RuntimeException e) {
+            registered.forEach(this.tallies::remove);
+            throw e;
+        }
+
+        for(Poll poll : missing) {
+            Map <Long, Long> pollCounts = countsOf(poll, counts);
+            PollTally tally = registered.get(poll.getId());
+
+            if(tally != null) {
+                tally.seed(pollCounts);
+                choiceVotesMap.putAll(tally.snapshot());
+            }
+            else {
+                choiceVotesMap.putAll(pollCounts);
+            }
+        }
+
+        return(choiceVotesMap);
+    }
+
+    // Must only be called once the vote has been committed. A tally still being seeded counts it too.
+    public void recordVote(Long pollId, Long choiceId) {
+        this.clusterVotes.increment(new PollChoice(pollId, choiceId));
+
+        PollTally tally = this.tallies.get(pollId);
+
+        if(tally != null) {
+            tally.counter(choiceId).increment();
+        }
+    }
+
+    public void evict(Long pollId) {
+        this.tallies.remove(pollId);
+    }
+
+    // Once a poll is closed, no node counts votes for it anymore.
+    public void pollClosed(Long pollId) {
+        evict(pollId);
+        this.clusterVotes.removeIf(key -> key.pollId.equals(pollId));
+    }
+
+    // The votes this node has committed since it started, poll id -> choice id -> vote count.
+    public Map <Long, Map <Long, Long>> getLocalVoteCounts() {
+        Map <Long, Map <Long, Long>> counts = new HashMap <> ();
+        this.clusterVotes.localState().forEach((key, count) -> counts.computeIfAbsent(key.pollId, id -> new HashMap <> ()).put(key.choiceId, count));
+        return(counts);
+    }
+
+    // Merges another node's counts and adds the votes this node didn't know of to the tallies, returns the ids of the
+    // polls that got any. The first counts of a node are only taken as a baseline: this node can't tell which of those
+    // votes its tallies were already seeded with (a node joining the cluster, or one not heard from before), the
+    // reconcile picks up the rest. Votes counted both by the seed and by a merge are likewise fixed by the reconcile.
+    public Set <Long> mergeVoteCounts(String nodeId, Map <Long, Map <Long, Long>> counts) {
+        boolean known = this.clusterVotes.knows(nodeId);
+
+        Map <PollChoice, Long> state = new HashMap <> ();
+        counts.forEach((pollId, choiceCounts) -> choiceCounts.forEach((choiceId, count) -> state.put(new PollChoice(pollId, choiceId), count)));
+
+        Map <PollChoice, Long> increases = this.clusterVotes.merge(nodeId, state);
+
+        Set <Long> pollIds = new HashSet <> ();
+        if(!known) {
+            return(pollIds);
+        }
+
+        increases.forEach((key, increase) -> {
+            PollTally tally = this.tallies.get(key.pollId);
+
+            if(tally != null) {
+                tally.counter(key.choiceId).add(increase);
+                pollIds.add(key.pollId);
+            }
+        });
+
+        return(pollIds);
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.tally.reconcileIntervalMs:60000}", initialDelayString = "${app.votes.tally.reconcileIntervalMs:60000}")
+    public void reconcile() {
+        long idleSince = System.currentTimeMillis() - this.idleEvictionMs;
+
+        this.tallies.entrySet().removeIf(entry -> entry.getValue().lastAccess < idleSince);
+
+        if(this.tallies.isEmpty()) {
+            return;
+        }
+
+        // Tallies still being seeded are left alone, the drift of the counts they are about to get isn't known yet.
+        List <Long> pollIds = this.tallies.entrySet().stream().filter(entry -> entry.getValue().seeded).map(Map.Entry::getKey).collect(Collectors.toList());
+        if(pollIds.isEmpty()) {
+            return;
+        }
+
+        // From the primary, tallies seeded from a lagging replica converge to the actual counts here.
+        Map <Long, Long> actual = toMap(ReplicaRoutingDataSource.onPrimary(() -> choiceRepository.findVoteCountsByPollIdIn(pollIds)));
+
+        int corrected = 0;
+        for(Long pollId : pollIds) {
+            PollTally tally = seededTally(pollId);
+            if(tally == null) {
+                continue;
+            }
+
+            for(Map.Entry <Long, LongAdder> entry : tally.choiceCounts.entrySet()) {
+                // Votes committed between the query and this point are briefly undercounted and fixed on the next pass.
+                long drift = actual.getOrDefault(entry.getKey(), 0L) - entry.getValue().sum();
+                if(drift != 0) {
+                    entry.getValue().add(drift);
+                    corrected++;
+                }
+            }
+        }
+
+        if(corrected > 0) {
+            logger.info("Corrected drift in {} choice tallies across {} polls", corrected, pollIds.size());
+        }
+    }
+
+    private PollTally seededTally(Long pollId) {
+        PollTally tally = this.tallies.get(pollId);
+        return(tally == null || !tally.seeded ? null : tally);
+    }
+
+    // The counts of the poll's choices among the given ones, choices the counts don't know of (yet) have none.
+    static Map <Long, Long> countsOf(Poll poll, Map <Long, Long> counts) {
+        Map <Long, Long> pollCounts = new HashMap <> ();
+        poll.getChoices().forEach(choice -> pollCounts.put(choice.getId(), counts.getOrDefault(choice.getId(), 0L)));
+        return(pollCounts);
+    }
+
+    static Map <Long, Long> toMap(List <ChoiceVoteCount> votes) {
+        Map <Long, Long> counts = new HashMap <> ();
+        votes.forEach(vote -> counts.put(vote.getChoiceId(), vote.getVoteCount()));
+        return(counts);
+    }
+}
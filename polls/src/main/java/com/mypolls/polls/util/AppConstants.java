@@ -5,4 +5,5 @@ public interface AppConstants {
     String DEFAULT_PAGE_SIZE = "30";
 
     int MAX_PAGE_SIZE = 50;
+    int MAX_BATCH_SIZE = 50;
 }
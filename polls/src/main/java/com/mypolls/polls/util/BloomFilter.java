@@ -0,0 +1,77 @@
+package com.mypolls.polls.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Probabilistic set of strings: mightContain never answers false for a string that was put, but may answer true
+// for one that wasn't (at roughly the false positive rate it was sized for). Safe for concurrent use, puts are
+// lock-free bit sets.
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+
+        // Optimal sizes: m = -n ln(p) / ln(2)^2 bits and k = m / n ln(2) hash functions.
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) this.bitCount / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        // Double hashing, the i-th bit index is h1 + i * h2.
+        for(int i = 1; i <= this.hashCount; i++) {
+            long index = indexOf(h1 + i * h2);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+
+            long current;
+            while(((current = this.bits.get(word)) & mask) == 0 && !this.bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for(int i = 1; i <= this.hashCount; i++) {
+            long index = indexOf(h1 + i * h2);
+
+            if((this.bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return(false);
+            }
+        }
+
+        return(true);
+    }
+
+    private long indexOf(int combinedHash) {
+        return((combinedHash & 0x7fffffffL) % this.bitCount);
+    }
+
+    // 64 bit FNV-1a over the UTF-8 bytes, finished with the murmur3 mixer so both halves are well distributed.
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for(byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return(h);
+    }
+}
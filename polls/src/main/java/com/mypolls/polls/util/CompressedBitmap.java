@@ -0,0 +1,106 @@
+package com.mypolls.polls.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Set of non-negative longs, compressed the way Roaring bitmaps are: values are grouped into chunks by their upper
+// 48 bits, each chunk holds the lower 16 bits of its values either as a sorted array (2 bytes a value, while sparse) or
+// as a 65536 bit bitmap (8 KB, once it holds more than 4096 values, past which the array would be larger).
+// Sequential ids, as user ids are, share a few chunks. Not thread-safe.
+public class CompressedBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private final Map <Long, Chunk> chunks = new HashMap <> ();
+    private long cardinality;
+
+    private static class Chunk {
+        // Sorted, the first size entries are used. Null once converted to a bitmap.
+        private char[] values = new char[4];
+        private int size;
+        private long[] bitmap;
+
+        boolean add(char low) {
+            if(this.bitmap != null) {
+                long word = this.bitmap[low >>> 6];
+                this.bitmap[low >>> 6] = word | (1L << low);
+                return((word & (1L << low)) == 0);
+            }
+
+            int index = Arrays.binarySearch(this.values, 0, this.size, low);
+            if(index >= 0) {
+                return(false);
+            }
+
+            if(this.size == ARRAY_MAX) {
+                toBitmap();
+                return(add(low));
+            }
+
+            index = -index - 1;
+            if(this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.min(ARRAY_MAX, this.size * 2));
+            }
+            System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+            this.values[index] = low;
+            this.size++;
+
+            return(true);
+        }
+
+        boolean contains(char low) {
+            if(this.bitmap != null) {
+                return((this.bitmap[low >>> 6] & (1L << low)) != 0);
+            }
+
+            return(Arrays.binarySearch(this.values, 0, this.size, low) >= 0);
+        }
+
+        long sizeInBytes() {
+            return(this.bitmap != null ? BITMAP_WORDS * 8L : this.values.length * 2L);
+        }
+
+        private void toBitmap() {
+            this.bitmap = new long[BITMAP_WORDS];
+
+            for(int i = 0; i < this.size; i++) {
+                this.bitmap[this.values[i] >>> 6] |= 1L << this.values[i];
+            }
+
+            this.values = null;
+        }
+    }
+
+    // False when the value was already in the set.
+    public boolean add(long value) {
+        if(value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+
+        boolean added = this.chunks.computeIfAbsent(value >>> 16, high -> new Chunk()).add((char) value);
+        if(added) {
+            this.cardinality++;
+        }
+
+        return(added);
+    }
+
+    public boolean contains(long value) {
+        if(value < 0) {
+            return(false);
+        }
+
+        Chunk chunk = this.chunks.get(value >>> 16);
+        return(chunk != null && chunk.contains((char) value));
+    }
+
+    public long getCardinality() {
+        return(this.cardinality);
+    }
+
+    // Of the chunks' contents, roughly, leaving out the object and map overheads.
+    public long sizeInBytes() {
+        return(this.chunks.values().stream().mapToLong(Chunk::sizeInBytes).sum());
+    }
+}
@@ -0,0 +1,103 @@
+package com.mypolls.polls.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Small bounded cache, least recently used entries are dropped once maxSize is reached and entries expire after ttlMs.
+// Access is synchronized, loads done through get(key, loader) run outside of the lock.
+public class ExpiringLruCache <K, V> {
+    private final int maxSize;
+    private final long ttlMs;
+    private final LinkedHashMap <K, Entry <V>> entries;
+
+    // Bumped on every removal, so that a load racing with an invalidation doesn't put stale data back.
+    private long invalidations;
+
+    private static class Entry <V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public ExpiringLruCache(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap <K, Entry <V>> (16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry <K, Entry <V>> eldest) {
+                return(size() > ExpiringLruCache.this.maxSize);
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry <V> entry = this.entries.get(key);
+
+        if(entry == null) {
+            return(null);
+        }
+
+        if(entry.expiresAt <= System.currentTimeMillis()) {
+            this.entries.remove(key);
+            return(null);
+        }
+
+        return(entry.value);
+    }
+
+    public V get(K key, Function <K, V> loader) {
+        V value;
+        long seenInvalidations;
+
+        synchronized(this) {
+            value = get(key);
+            seenInvalidations = this.invalidations;
+        }
+
+        if(value != null) {
+            return(value);
+        }
+
+        value = loader.apply(key);
+
+        synchronized(this) {
+            if(value != null && seenInvalidations == this.invalidations) {
+                put(key, value);
+            }
+        }
+
+        return(value);
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + this.ttlMs);
+    }
+
+    // Entries never outlive the cache's ttl, even when asked to.
+    public synchronized void put(K key, V value, long expiresAt) {
+        if(this.maxSize <= 0) {
+            return;
+        }
+
+        this.entries.put(key, new Entry <> (value, Math.min(expiresAt, System.currentTimeMillis() + this.ttlMs)));
+    }
+
+    public synchronized void remove(K key) {
+        this.invalidations++;
+        this.entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        this.invalidations++;
+        this.entries.clear();
+    }
+
+    public synchronized int size() {
+        return(this.entries.size());
+    }
+}
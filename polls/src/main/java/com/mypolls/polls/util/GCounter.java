@@ -0,0 +1,70 @@
+package com.mypolls.polls.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+// Grow-only counter CRDT (G-counter) over a set of keys. Each node only ever increments its own count of a key, the value
+// of a key is the sum of every node's count. Another node's state is merged by keeping the highest count seen per key,
+// which is commutative, associative and idempotent: states can be exchanged in any order, lost, or delivered twice.
+// Holds this node's counts and its view of the other nodes', keyed by their node id.
+public class GCounter <K> {
+    // Striped, increments on a hot key don't contend on a single CAS. A sum never goes backwards, as the merge requires.
+    private final ConcurrentHashMap <K, LongAdder> local = new ConcurrentHashMap <> ();
+
+    private final ConcurrentHashMap <String, ConcurrentHashMap <K, AtomicLong>> remote = new ConcurrentHashMap <> ();
+
+    public void increment(K key) {
+        this.local.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    public long value(K key) {
+        LongAdder localCount = this.local.get(key);
+        long value = localCount == null ? 0 : localCount.sum();
+
+        for(Map <K, AtomicLong> counts : this.remote.values()) {
+            AtomicLong count = counts.get(key);
+            value += count == null ? 0 : count.get();
+        }
+
+        return(value);
+    }
+
+    // This node's counts, the state to send to the other nodes.
+    public Map <K, Long> localState() {
+        Map <K, Long> state = new HashMap <> ();
+        this.local.forEach((key, count) -> state.put(key, count.sum()));
+        return(state);
+    }
+
+    public boolean knows(String nodeId) {
+        return(this.remote.containsKey(nodeId));
+    }
+
+    // Merges another node's state, returns by how much each key's count of that node went up.
+    public Map <K, Long> merge(String nodeId, Map <K, Long> state) {
+        ConcurrentHashMap <K, AtomicLong> counts = this.remote.computeIfAbsent(nodeId, id -> new ConcurrentHashMap <> ());
+        Map <K, Long> increases = new HashMap <> ();
+
+        state.forEach((key, count) -> {
+            AtomicLong known = counts.computeIfAbsent(key, k -> new AtomicLong());
+
+            long previous = known.getAndAccumulate(count, Math::max);
+            if(count > previous) {
+                increases.put(key, count - previous);
+            }
+        });
+
+        return(increases);
+    }
+
+    // Forgets keys that won't be counted anymore, on this node and in its view of the others. Outside of G-counter
+    // semantics: a state still holding them merges them back in as if they were new.
+    public void removeIf(Predicate <K> filter) {
+        this.local.keySet().removeIf(filter);
+        this.remote.values().forEach(counts -> counts.keySet().removeIf(filter));
+    }
+}
@@ -0,0 +1,75 @@
+package com.mypolls.polls.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Hashed timing wheel: a ring of buckets, one per tick, where an item sits in the bucket of its deadline.
+// Scheduling is O(1) and advancing only looks at the buckets of the ticks that passed, instead of a sorted queue
+// of every pending deadline. Items more than a full turn ahead wait out the extra rounds in their bucket.
+public class HashedTimingWheel <T> {
+    private final long tickMs;
+    private final List <List <Entry <T>>> buckets;
+
+    // Last tick (milliseconds since the epoch / tickMs) whose bucket has been processed.
+    private long currentTick;
+    private int size;
+
+    private static class Entry <T> {
+        private final T item;
+        private long rounds;
+
+        Entry(T item, long rounds) {
+            this.item = item;
+            this.rounds = rounds;
+        }
+    }
+
+    public HashedTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.buckets = new ArrayList <> (wheelSize);
+        for(int i = 0; i < wheelSize; i++) {
+            this.buckets.add(new ArrayList <> ());
+        }
+
+        this.currentTick = startMs / tickMs;
+    }
+
+    // Deadlines in the past are due on the next tick.
+    public synchronized void schedule(T item, long deadlineMs) {
+        long deadlineTick = Math.max((deadlineMs + this.tickMs - 1) / this.tickMs, this.currentTick + 1);
+        long rounds = (deadlineTick - this.currentTick - 1) / this.buckets.size();
+
+        this.buckets.get((int) (deadlineTick % this.buckets.size())).add(new Entry <> (item, rounds));
+        this.size++;
+    }
+
+    // Processes every tick up to now and returns the items that became due.
+    public synchronized List <T> advance(long nowMs) {
+        List <T> due = new ArrayList <> ();
+        long nowTick = nowMs / this.tickMs;
+
+        while(this.currentTick < nowTick) {
+            this.currentTick++;
+
+            for(Iterator <Entry <T>> it = this.buckets.get((int) (this.currentTick % this.buckets.size())).iterator(); it.hasNext(); ) {
+                Entry <T> entry = it.next();
+
+                if(entry.rounds > 0) {
+                    entry.rounds--;
+                    continue;
+                }
+
+                due.add(entry.item);
+                it.remove();
+                this.size--;
+            }
+        }
+
+        return(due);
+    }
+
+    public synchronized int size() {
+        return(this.size);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.mypolls.polls.model.Choice;
 import com.mypolls.polls.model.Poll;
 import com.mypolls.polls.model.User;
 import com.mypolls.polls.payload.ChoiceResponse;
@@ -12,14 +13,20 @@ import com.mypolls.polls.payload.PollResponse;
 import com.mypolls.polls.payload.UserSummary;
 
 public class ModelMapper {
+    // Vote counts are read straight off the denormalized Choice.voteCount of the given poll, so only for polls that
+    // weren't loaded through JPA (see Choice.voteCount).
+    public static PollResponse mapPollToPollResponse(Poll poll, User creator, Long userVoteId) {
+        Map <Long, Long> choiceVotesMap = poll.getChoices().stream().collect(Collectors.toMap(Choice::getId, Choice::getVoteCount));
+        return(mapPollToPollResponse(poll, choiceVotesMap, creator, userVoteId));
+    }
+
     public static PollResponse mapPollToPollResponse(Poll poll, Map <Long, Long> choiceVotesMap, User creator, Long userVoteId) {
         PollResponse pollResponse = new PollResponse();
         pollResponse.setId(poll.getId());
         pollResponse.setQuestion(poll.getQuestion());
         pollResponse.setCreationDateTime(poll.getCreatedAt());
         pollResponse.setExpirationDateTime(poll.getExpirationDateTime());
-        Instant now = Instant.now();
-        pollResponse.setIsExpired(poll.getExpirationDateTime().isBefore(now));
+        pollResponse.setIsExpired(poll.isClosed() || poll.getExpirationDateTime().isBefore(Instant.now()));
 
         List <ChoiceResponse> choiceResponses = poll.getChoices().stream().map(choice -> {
             ChoiceResponse choiceResponse = new ChoiceResponse();
@@ -0,0 +1,171 @@
+package com.mypolls.polls.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+// Byte arrays kept off the heap, in direct buffers allocated once up front: a large, long-lived cache there neither
+// grows the heap nor adds to what the GC has to trace and copy. Split into segments, each a slab of fixed size blocks
+// with its own lock, free list and least recently used order. An entry takes as many blocks as it needs, wherever
+// they are, the least recently used entries make room for new ones.
+// Entries carry a version, a lookup for any other version misses (the entry is out of date) and the next put replaces
+// it. Reads copy the bytes out under the segment's lock, so they go to memory, never straight to a client.
+public class OffHeapCache <K> {
+    private static final int MAX_SEGMENTS = 16;
+
+    private final int blockSize;
+    private final List <Segment <K>> segments = new ArrayList <> ();
+
+    private static class Entry {
+        private final long version;
+        private final int length;
+        private final int[] blocks;
+
+        Entry(long version, int length, int[] blocks) {
+            this.version = version;
+            this.length = length;
+            this.blocks = blocks;
+        }
+    }
+
+    private static class Segment <K> {
+        private final ByteBuffer slab;
+        private final int blockSize;
+        private final int[] freeBlocks;
+        private int freeCount;
+        private final LinkedHashMap <K, Entry> entries = new LinkedHashMap <> (16, 0.75f, true);
+        // Blocks are copied out through it, only ever used under the lock.
+        private final byte[] scratch;
+
+        Segment(int blocks, int blockSize) {
+            this.slab = ByteBuffer.allocateDirect(blocks * blockSize);
+            this.blockSize = blockSize;
+            this.freeBlocks = new int[blocks];
+            this.scratch = new byte[blockSize];
+
+            for(int i = 0; i < blocks; i++) {
+                this.freeBlocks[this.freeCount++] = blocks - 1 - i;
+            }
+        }
+
+        synchronized boolean copyTo(K key, long version, ByteArrayOutputStream out) {
+            Entry entry = this.entries.get(key);
+
+            if(entry == null || entry.version != version) {
+                return(false);
+            }
+
+            int remaining = entry.length;
+            for(int block : entry.blocks) {
+                int length = Math.min(remaining, this.blockSize);
+
+                this.slab.position(block * this.blockSize);
+                this.slab.get(this.scratch, 0, length);
+                out.write(this.scratch, 0, length);
+
+                remaining -= length;
+            }
+
+            return(true);
+        }
+
+        synchronized boolean contains(K key, long version) {
+            Entry entry = this.entries.get(key);
+            return(entry != null && entry.version == version);
+        }
+
+        synchronized void put(K key, long version, byte[] bytes, int offset, int length) {
+            free(this.entries.remove(key));
+
+            int needed = (length + this.blockSize - 1) / this.blockSize;
+            if(needed > this.freeBlocks.length) {
+                return;
+            }
+
+            for(Iterator <Entry> eldest = this.entries.values().iterator(); this.freeCount < needed; ) {
+                free(eldest.next());
+                eldest.remove();
+            }
+
+            int[] blocks = new int[needed];
+            for(int i = 0; i < needed; i++) {
+                blocks[i] = this.freeBlocks[--this.freeCount];
+
+                this.slab.position(blocks[i] * this.blockSize);
+                this.slab.put(bytes, offset + i * this.blockSize, Math.min(this.blockSize, length - i * this.blockSize));
+            }
+
+            this.entries.put(key, new Entry(version, length, blocks));
+        }
+
+        synchronized int size() {
+            return(this.entries.size());
+        }
+
+        synchronized long usedBytes() {
+            return((long) (this.freeBlocks.length - this.freeCount) * this.blockSize);
+        }
+
+        private void free(Entry entry) {
+            if(entry == null) {
+                return;
+            }
+
+            for(int block : entry.blocks) {
+                this.freeBlocks[this.freeCount++] = block;
+            }
+        }
+    }
+
+    // Holds up to maxBytes (rounded down to whole blocks), blockSize is a trade-off between the space lost to the last
+    // block of each entry and the bookkeeping of many small blocks. A maxBytes under one block caches nothing.
+    public OffHeapCache(long maxBytes, int blockSize) {
+        this.blockSize = blockSize;
+
+        long blocks = maxBytes / blockSize;
+        int segmentCount = (int) Math.max(1, Math.min(MAX_SEGMENTS, blocks));
+        // A direct buffer is indexed by an int.
+        int segmentBlocks = (int) Math.min(blocks / segmentCount, Integer.MAX_VALUE / blockSize);
+
+        for(int i = 0; i < segmentCount; i++) {
+            this.segments.add(new Segment <> (segmentBlocks, blockSize));
+        }
+    }
+
+    // Appends the entry's bytes to out, false (with nothing appended) when there's no entry of that version.
+    public boolean copyTo(K key, long version, ByteArrayOutputStream out) {
+        return(segment(key).copyTo(key, version, out));
+    }
+
+    public boolean contains(K key, long version) {
+        return(segment(key).contains(key, version));
+    }
+
+    public void put(K key, long version, byte[] bytes) {
+        put(key, version, bytes, 0, bytes.length);
+    }
+
+    // An entry larger than a segment isn't kept.
+    public void put(K key, long version, byte[] bytes, int offset, int length) {
+        segment(key).put(key, version, bytes, offset, length);
+    }
+
+    public int size() {
+        return(this.segments.stream().mapToInt(Segment::size).sum());
+    }
+
+    // Taken up by entries, whole blocks.
+    public long usedBytes() {
+        return(this.segments.stream().mapToLong(Segment::usedBytes).sum());
+    }
+
+    private Segment <K> segment(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+
+        return(this.segments.get((hash & 0x7fffffff) % this.segments.size()));
+    }
+}
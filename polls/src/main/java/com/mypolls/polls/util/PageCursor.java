@@ -0,0 +1,49 @@
+package com.mypolls.polls.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.mypolls.polls.exception.BadRequestException;
+
+// Position in a feed sorted by (createdAt DESC, id DESC), the next page starts right after the row it points at.
+// Clients get it as an opaque url safe string and should pass it back unchanged.
+public class PageCursor {
+    private final Instant createdAt;
+    private final Long id;
+
+    public PageCursor(Instant createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String encode() {
+        String raw = this.createdAt.getEpochSecond() + ":" + this.createdAt.getNano() + ":" + this.id;
+        return(Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // An empty cursor asks for the first page, in which case null is returned.
+    public static PageCursor decode(String cursor) {
+        if(cursor == null || cursor.isEmpty()) {
+            return(null);
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return(new PageCursor(createdAt, Long.parseLong(parts[2])));
+        }
+        catch(RuntimeException e) {
+            throw new BadRequestException("Invalid page cursor", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mypolls.polls.util;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.mypolls.polls.model.Choice;
+import com.mypolls.polls.model.Poll;
+
+// Strong ETag of poll responses (a poll, a page of polls). A poll's response only ever changes with its vote counts,
+// once it expires and once it's closed, its question, choices and creator don't. So the tag hashes the user asking
+// (responses carry their selected choice), then per poll its id and either its counts and whether it has expired or,
+// once closed, just that: its counts are final by then. Pages add their paging fields. 64-bit FNV-1a.
+public class PollETag {
+    private static final long OPEN = 1;
+    private static final long EXPIRED = 2;
+    private static final long CLOSED = 3;
+
+    private long hash = 0xcbf29ce484222325L;
+
+    // Null for anonymous users.
+    public PollETag(Long userId) {
+        add(userId == null ? 0 : userId);
+    }
+
+    public PollETag add(long value) {
+        for(int i = 0; i < Long.BYTES; i++) {
+            this.hash ^= (value >>> (i * 8)) & 0xff;
+            this.hash *= 0x100000001b3L;
+        }
+
+        return(this);
+    }
+
+    public PollETag add(String value) {
+        add(value == null ? -1 : value.length());
+
+        if(value != null) {
+            value.chars().forEach(this::add);
+        }
+
+        return(this);
+    }
+
+    // The counts of the poll's choices are needed unless it's closed, they may be those of other polls' choices too.
+    public PollETag addPoll(Poll poll, Map <Long, Long> choiceVoteCounts) {
+        if(poll.isClosed()) {
+            add(poll.getId()).add(CLOSED);
+            return(this);
+        }
+
+        Map <Long, Long> pollCounts = new TreeMap <> ();
+        for(Choice choice : poll.getChoices()) {
+            pollCounts.put(choice.getId(), choiceVoteCounts.getOrDefault(choice.getId(), 0L));
+        }
+
+        return(addOpenPoll(poll.getId(), poll.getExpirationDateTime(), pollCounts));
+    }
+
+    // Same as addPoll, from the id, expiration and counts of an open poll's choices (e.g. its tally's).
+    public PollETag addOpenPoll(Long pollId, Instant expirationDateTime, Map <Long, Long> choiceVoteCounts) {
+        add(pollId).add(expirationDateTime.isBefore(Instant.now()) ? EXPIRED : OPEN);
+        new TreeMap <> (choiceVoteCounts).forEach((choiceId, voteCount) -> add(choiceId).add(voteCount));
+
+        return(this);
+    }
+
+    // The hash itself, e.g. as the version of what was hashed.
+    public long getValue() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return("\"" + Long.toHexString(this.hash) + "\"");
+    }
+}
@@ -0,0 +1,94 @@
+package com.mypolls.polls.util;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Token bucket per key, as the generic cell rate algorithm (GCRA): rather than a token count and a last refill time,
+// a key's bucket is the single time at which it will be full again (its "theoretical arrival time"). A request gets
+// through when that's no more than a burst ahead of now, and pushes it one emission interval further. One AtomicLong
+// per key, updated with a CAS, no locks.
+// A bucket whose time has passed is full, no different from having no bucket: sweep() drops those, bounding the table
+// to the keys currently being limited. Should the table still be full of them, the buckets nearest to full are evicted
+// to make room: their keys get a fresh burst, a lesser evil than letting every new key through unlimited.
+public class RateLimiter <K> {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+
+    private final ConcurrentHashMap <K, AtomicLong> buckets = new ConcurrentHashMap <> ();
+
+    // Sweeping a full table on every new key would turn each one into a scan, at most one sweep per interval.
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(long requestsPerMinute, long burst, int maxKeys) {
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, requestsPerMinute);
+        this.burstNanos = Math.max(1, burst) * this.emissionIntervalNanos;
+        this.maxKeys = maxKeys;
+    }
+
+    // Zero when the request may go ahead, otherwise how many nanoseconds until it would have.
+    public long tryAcquire(K key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = this.buckets.get(key);
+
+        if(bucket == null) {
+            if(this.buckets.size() >= this.maxKeys) {
+                makeRoom(now);
+            }
+
+            bucket = this.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while(true) {
+            long fullAt = bucket.get();
+            long nextFullAt = Math.max(fullAt, now) + this.emissionIntervalNanos;
+
+            long wait = nextFullAt - now - this.burstNanos;
+            if(wait > 0) {
+                return(wait);
+            }
+
+            // A sweep may drop the bucket meanwhile, at worst costing the key one request's worth of limiting.
+            if(bucket.compareAndSet(fullAt, nextFullAt)) {
+                return(0);
+            }
+        }
+    }
+
+    public void sweep() {
+        long now = System.nanoTime();
+        this.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public int size() {
+        return(this.buckets.size());
+    }
+
+    private void makeRoom(long now) {
+        long sweepAt = this.nextSweep.get();
+
+        if(now - sweepAt >= 0 && this.nextSweep.compareAndSet(sweepAt, now + TimeUnit.SECONDS.toNanos(1))) {
+            sweep();
+        }
+
+        if(this.buckets.size() >= this.maxKeys) {
+            evictNearestToFull(now);
+        }
+    }
+
+    // An eighth of the table at once, so that the new keys that follow don't each pay for a scan.
+    private synchronized void evictNearestToFull(long now) {
+        if(this.buckets.size() < this.maxKeys) {
+            return;
+        }
+
+        this.buckets.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().get() - now))
+                    .limit(Math.max(1, this.maxKeys / 8))
+                    .collect(Collectors.toList())
+                    .forEach(entry -> this.buckets.remove(entry.getKey(), entry.getValue()));
+    }
+}
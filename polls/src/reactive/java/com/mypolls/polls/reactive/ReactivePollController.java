@@ -0,0 +1,52 @@
+package com.mypolls.polls.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mypolls.polls.model.PagedResponse;
+import com.mypolls.polls.payload.PollResponse;
+import com.mypolls.polls.util.AppConstants;
+
+import reactor.core.publisher.Mono;
+
+// The anonymous GET endpoints of PollController and UserController, same paths and parameters.
+@Profile("reactive")
+@RestController
+@RequestMapping("/api")
+public class ReactivePollController {
+    @Autowired
+    private ReactivePollService pollService;
+
+    @GetMapping("/polls")
+    public Mono <PagedResponse <PollResponse>> getPolls(@RequestParam(value = "page", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) int page,
+                                                        @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+                                                        @RequestParam(value = "cursor", required = false) String cursor) {
+                                                            if(cursor != null) {
+                                                                return(pollService.getAllPolls(cursor, size));
+                                                            }
+
+                                                            return(pollService.getAllPolls(page, size));
+                                                        }
+
+    @GetMapping("/polls/{pollId}")
+    public Mono <PollResponse> getPollById(@PathVariable Long pollId) {
+        return(pollService.getPollById(pollId));
+    }
+
+    @GetMapping("/users/{username}/polls")
+    public Mono <PagedResponse <PollResponse>> getPollsByCreatedBy(@PathVariable(value = "username") String username,
+                                                                    @RequestParam(value = "page", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER) int page,
+                                                                    @RequestParam(value = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor) {
+                                                                        if(cursor != null) {
+                                                                            return(pollService.getPollsCreatedBy(username, cursor, size));
+                                                                        }
+
+                                                                        return(pollService.getPollsCreatedBy(username, page, size));
+                                                                    }
+}
@@ -0,0 +1,164 @@
+package com.mypolls.polls.reactive;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.mypolls.polls.model.Choice;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.util.PageCursor;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reads polls, choices and users over R2DBC into the (detached) JPA entities, so ModelMapper can map them as is.
+// Same queries as the JPA repositories, polls ordered by (created_at DESC, id DESC) and vote counts read off the
+// denormalized choices.vote_count.
+@Profile("reactive")
+@Repository
+public class ReactivePollRepository {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private static final String POLL_COLUMNS = "SELECT p.id, p.question, p.created_at, p.created_by, p.expiration_date_time, p.closed_at, p.total_votes FROM polls p";
+    private static final String ORDER = " ORDER BY p.created_at DESC, p.id DESC";
+    private static final String AFTER = "(p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id))";
+
+    public Mono <Poll> findById(Long pollId) {
+        return(
+            databaseClient.sql(POLL_COLUMNS + " WHERE p.id = :pollId")
+                            .bind("pollId", pollId)
+                            .map((row, metadata) -> toPoll(row))
+                            .one()
+        );
+    }
+
+    // Offset page, optionally of the polls created by one user.
+    public Flux <Poll> findPage(Long createdBy, long offset, int limit) {
+        String where = createdBy == null ? "" : " WHERE p.created_by = :createdBy";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(POLL_COLUMNS + where + ORDER + " LIMIT :limit OFFSET :offset")
+                                                                .bind("limit", limit)
+                                                                .bind("offset", offset);
+
+        if(createdBy != null) {
+            spec = spec.bind("createdBy", createdBy);
+        }
+
+        return(spec.map((row, metadata) -> toPoll(row)).all());
+    }
+
+    // Keyset page, starting right after the given cursor (or at the top when it is null).
+    public Flux <Poll> findPageAfter(Long createdBy, PageCursor after, int limit) {
+        StringBuilder where = new StringBuilder();
+        if(createdBy != null) {
+            where.append(" WHERE p.created_by = :createdBy");
+        }
+        if(after != null) {
+            where.append(createdBy == null ? " WHERE " : " AND ").append(AFTER);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(POLL_COLUMNS + where + ORDER + " LIMIT :limit")
+                                                                .bind("limit", limit);
+
+        if(createdBy != null) {
+            spec = spec.bind("createdBy", createdBy);
+        }
+        if(after != null) {
+            spec = spec.bind("createdAt", LocalDateTime.ofInstant(after.getCreatedAt(), ZoneOffset.UTC)).bind("id", after.getId());
+        }
+
+        return(spec.map((row, metadata) -> toPoll(row)).all());
+    }
+
+    public Mono <Long> count(Long createdBy) {
+        String where = createdBy == null ? "" : " WHERE p.created_by = :createdBy";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT COUNT(p.id) FROM polls p" + where);
+
+        if(createdBy != null) {
+            spec = spec.bind("createdBy", createdBy);
+        }
+
+        return(spec.map((row, metadata) -> row.get(0, Long.class)).one());
+    }
+
+    // Adds their choices to the given polls, in a single query.
+    public Mono <List <Poll>> loadChoices(List <Poll> polls) {
+        if(polls.isEmpty()) {
+            return(Mono.just(polls));
+        }
+
+        Map <Long, Poll> pollsById = new HashMap <> ();
+        polls.forEach(poll -> pollsById.put(poll.getId(), poll));
+
+        return(
+            databaseClient.sql("SELECT c.id, c.text, c.vote_count, c.poll_id FROM choices c WHERE c.poll_id IN (:pollIds) ORDER BY c.id")
+                            .bind("pollIds", pollsById.keySet())
+                            .map((row, metadata) -> {
+                                Choice choice = new Choice(row.get("text", String.class));
+                                choice.setId(row.get("id", Long.class));
+                                choice.setVoteCount(row.get("vote_count", Long.class));
+
+                                pollsById.get(row.get("poll_id", Long.class)).addChoice(choice);
+                                return(choice);
+                            })
+                            .all()
+                            .then(Mono.just(polls))
+        );
+    }
+
+    public Mono <User> findUserByUsername(String username) {
+        return(
+            databaseClient.sql("SELECT u.id, u.name, u.username FROM users u WHERE u.username = :username")
+                            .bind("username", username)
+                            .map((row, metadata) -> toUser(row))
+                            .one()
+        );
+    }
+
+    public Mono <Map <Long, User>> findUsersByIdIn(Collection <Long> userIds) {
+        if(userIds.isEmpty()) {
+            return(Mono.just(new HashMap <> ()));
+        }
+
+        return(
+            databaseClient.sql("SELECT u.id, u.name, u.username FROM users u WHERE u.id IN (:userIds)")
+                            .bind("userIds", userIds)
+                            .map((row, metadata) -> toUser(row))
+                            .all()
+                            .collectMap(User::getId)
+        );
+    }
+
+    private static Poll toPoll(Row row) {
+        Poll poll = new Poll();
+        poll.setId(row.get("id", Long.class));
+        poll.setQuestion(row.get("question", String.class));
+        poll.setCreatedAt(toInstant(row.get("created_at", LocalDateTime.class)));
+        poll.setCreatedBy(row.get("created_by", Long.class));
+        poll.setExpirationDateTime(toInstant(row.get("expiration_date_time", LocalDateTime.class)));
+        poll.setClosedAt(toInstant(row.get("closed_at", LocalDateTime.class)));
+        poll.setTotalVotes(row.get("total_votes", Long.class));
+        return(poll);
+    }
+
+    private static User toUser(Row row) {
+        User user = new User(row.get("name", String.class), row.get("username", String.class), null, null);
+        user.setId(row.get("id", Long.class));
+        return(user);
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return(dateTime == null ? null : dateTime.toInstant(ZoneOffset.UTC));
+    }
+}
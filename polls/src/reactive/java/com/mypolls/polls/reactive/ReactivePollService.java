@@ -0,0 +1,121 @@
+package com.mypolls.polls.reactive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.mypolls.polls.exception.BadRequestException;
+import com.mypolls.polls.exception.ResourceNotFoundException;
+import com.mypolls.polls.model.PagedResponse;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.payload.PollResponse;
+import com.mypolls.polls.util.AppConstants;
+import com.mypolls.polls.util.ModelMapper;
+import com.mypolls.polls.util.PageCursor;
+
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of the anonymous read paths of PollService, same validation, paging and json.
+@Profile("reactive")
+@Service
+public class ReactivePollService {
+    @Autowired
+    private ReactivePollRepository pollRepository;
+
+    private void validatePageNumberAndSize(int page, int size) {
+        if(page < 0) {
+            throw new BadRequestException("Page number cannot be less than zero.");
+        }
+        if(size > AppConstants.MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be under: " + AppConstants.MAX_PAGE_SIZE);
+        }
+        if(size < 1) {
+            throw new BadRequestException("Page size must not be less than one.");
+        }
+    }
+
+    // Choices and creators are two independent queries, run concurrently.
+    private Mono <List <PollResponse>> mapPollsToPollResponses(List <Poll> polls) {
+        Set <Long> creatorIds = polls.stream().map(Poll::getCreatedBy).collect(Collectors.toSet());
+
+        return(
+            Mono.zip(pollRepository.loadChoices(polls), pollRepository.findUsersByIdIn(creatorIds))
+                .map(pollsAndCreators -> polls.stream()
+                                                .map(poll -> ModelMapper.mapPollToPollResponse(poll, pollsAndCreators.getT2().get(poll.getCreatedBy()), null))
+                                                .collect(Collectors.toList()))
+        );
+    }
+
+    private Mono <PagedResponse <PollResponse>> getOffsetPage(Long createdBy, int page, int size) {
+        validatePageNumberAndSize(page, size);
+
+        return(
+            Mono.zip(pollRepository.findPage(createdBy, (long) page * size, size).collectList().flatMap(this::mapPollsToPollResponses),
+                    pollRepository.count(createdBy))
+                .map(contentAndCount -> {
+                    long totalElements = contentAndCount.getT2();
+                    int totalPages = (int) ((totalElements + size - 1) / size);
+
+                    return(new PagedResponse <> (contentAndCount.getT1(), page, size, totalElements, totalPages, page + 1 >= totalPages));
+                })
+        );
+    }
+
+    // Fetches one row more than asked for, to find out whether there is a next page, like PollService.
+    private Mono <PagedResponse <PollResponse>> getKeysetPage(Long createdBy, String cursor, int size) {
+        validatePageNumberAndSize(0, size);
+        PageCursor after = PageCursor.decode(cursor);
+
+        return(
+            pollRepository.findPageAfter(createdBy, after, size + 1).collectList().flatMap(rows -> {
+                List <Poll> polls = new ArrayList <> (rows);
+                String nextCursor = null;
+
+                if(polls.size() > size) {
+                    polls.remove(polls.size() - 1);
+                    Poll last = polls.get(polls.size() - 1);
+                    nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+                }
+
+                String next = nextCursor;
+                return(mapPollsToPollResponses(polls).map(content -> new PagedResponse <> (content, size, next)));
+            })
+        );
+    }
+
+    public Mono <PagedResponse <PollResponse>> getAllPolls(int page, int size) {
+        return(getOffsetPage(null, page, size));
+    }
+
+    public Mono <PagedResponse <PollResponse>> getAllPolls(String cursor, int size) {
+        return(getKeysetPage(null, cursor, size));
+    }
+
+    public Mono <PagedResponse <PollResponse>> getPollsCreatedBy(String username, int page, int size) {
+        return(findUser(username).flatMap(user -> getOffsetPage(user.getId(), page, size)));
+    }
+
+    public Mono <PagedResponse <PollResponse>> getPollsCreatedBy(String username, String cursor, int size) {
+        return(findUser(username).flatMap(user -> getKeysetPage(user.getId(), cursor, size)));
+    }
+
+    public Mono <PollResponse> getPollById(Long pollId) {
+        return(
+            pollRepository.findById(pollId)
+                            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Poll", "id", pollId)))
+                            .flatMap(poll -> mapPollsToPollResponses(Collections.singletonList(poll)))
+                            .map(pollResponses -> pollResponses.get(0))
+        );
+    }
+
+    private Mono <User> findUser(String username) {
+        return(pollRepository.findUserByUsername(username).switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User", "username", username))));
+    }
+}
@@ -0,0 +1,49 @@
+package com.mypolls.polls.reactive;
+
+import java.util.TimeZone;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+
+// Read-only, non-blocking variant of the public poll feed (WebFlux on Netty, R2DBC), only built with the reactive maven
+// profile. It serves the same PollResponse / PagedResponse json as the servlet application, against the same database
+// (whose schema the servlet application owns), and is meant to be deployed next to it with the anonymous GET traffic
+// routed to it. Authenticated requests, and with them selectedChoice, stay on the servlet application.
+// Everything in this package is @Profile("reactive"), so that PollsApplication's component scan skips it.
+@Profile("reactive")
+@SpringBootApplication(exclude = {
+    DataSourceAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    UserDetailsServiceAutoConfiguration.class,
+    ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@PropertySource("classpath:reactive-defaults.properties")
+public class ReactivePollsApplication {
+
+    // Timestamps are stored in UTC by the servlet application, see PollsApplication.
+    @PostConstruct
+    void init() {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    public static SpringApplicationBuilder builder() {
+        return(
+            new SpringApplicationBuilder(ReactivePollsApplication.class)
+                .profiles("reactive")
+                .web(WebApplicationType.REACTIVE)
+        );
+    }
+
+    public static void main(String[] args) {
+        builder().run(args);
+    }
+}
@@ -0,0 +1,72 @@
+package com.mypolls.polls.reactive;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveWebConfig implements WebFluxConfigurer {
+    private final long MAX_AGE_SECONDS = 3600;
+
+    @Value("${app.cors.allowedOrigins}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedOrigins(allowedOrigins)
+                .allowedMethods("HEAD", "OPTIONS", "GET")
+                .maxAge(MAX_AGE_SECONDS);
+    }
+
+    // Tomcat is on the classpath as well (the servlet application's), and would otherwise be picked first.
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return(new NettyReactiveWebServerFactory());
+    }
+
+    // Only the anonymous feed endpoints exist here, anything else is refused. Metrics are only reachable from localhost.
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return(
+            http.csrf()
+                    .disable()
+                .httpBasic()
+                    .disable()
+                .formLogin()
+                    .disable()
+                .authorizeExchange()
+                    .pathMatchers(HttpMethod.GET, "/api/polls/**", "/api/users/**")
+                        .permitAll()
+                    .pathMatchers("/actuator/health")
+                        .permitAll()
+                    .pathMatchers("/actuator/**")
+                        .access((authentication, context) -> Mono.just(new AuthorizationDecision(isLoopback(context.getExchange()))))
+                    .anyExchange()
+                        .denyAll()
+                    .and()
+                .build()
+        );
+    }
+
+    private static boolean isLoopback(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return(remoteAddress != null && remoteAddress.getAddress() != null && remoteAddress.getAddress().isLoopbackAddress());
+    }
+}
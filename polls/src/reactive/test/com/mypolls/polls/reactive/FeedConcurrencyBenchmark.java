@@ -0,0 +1,190 @@
+package com.mypolls.polls.reactive;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mypolls.polls.PollsApplication;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+// Concurrency ceiling of the public feed, servlet (Tomcat, JPA) vs reactive (Netty, R2DBC), both served in this JVM
+// from one embedded H2 database. For each level, keeps that many GET /api/polls requests in flight for a while and
+// reports throughput and latency percentiles.
+// Run with: mvn -P reactive test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.mypolls.polls.reactive.FeedConcurrencyBenchmark
+// Tunables (system properties): bench.polls, bench.concurrency (comma separated), bench.warmupSeconds, bench.seconds, bench.path.
+public class FeedConcurrencyBenchmark {
+    private static final String DATABASE = "feedbench";
+
+    private static final int POLLS = Integer.getInteger("bench.polls", 5000);
+    private static final int USERS = 500;
+    private static final int CHOICES_PER_POLL = 4;
+    private static final String CONCURRENCY = System.getProperty("bench.concurrency", "1,16,64,256,1024");
+    private static final int WARMUP_SECONDS = Integer.getInteger("bench.warmupSeconds", 5);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 10);
+    private static final String PATH = System.getProperty("bench.path", "/api/polls?page=0&size=30");
+
+    public static void main(String[] args) {
+        byte[] secret = new byte[64];
+        new Random(1).nextBytes(secret);
+
+        ConfigurableApplicationContext servlet = new SpringApplicationBuilder(PollsApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:" + DATABASE + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "app.jwtSecret=" + Base64.getEncoder().encodeToString(secret),
+                "app.jwtExpirationInMs=3600000",
+                "app.cors.allowedOrigins=http://localhost:3000",
+                // The reactive stack's auto-configuration is on the classpath too, the servlet application has no use for it.
+                "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+                "logging.level.root=WARN"
+            )
+            .run();
+
+        seed(servlet.getBean(JdbcTemplate.class));
+
+        ConfigurableApplicationContext reactive = ReactivePollsApplication.builder()
+            .properties(
+                "server.port=0",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + DATABASE + "?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "spring.r2dbc.username=sa",
+                "app.cors.allowedOrigins=http://localhost:3000",
+                "logging.level.root=WARN"
+            )
+            .run();
+
+        List <String> results = new ArrayList <> ();
+        try {
+            for(String level : CONCURRENCY.split(",")) {
+                int concurrency = Integer.parseInt(level.trim());
+
+                for(String stack : new String[] {"servlet", "reactive"}) {
+                    String result = run(stack, port(stack.equals("servlet") ? servlet : reactive), concurrency);
+                    System.out.println(result);
+                    results.add(result);
+                }
+            }
+        }
+        finally {
+            reactive.close();
+            servlet.close();
+        }
+
+        System.out.println();
+        System.out.println(String.format("%-9s %6s %10s %9s %9s %9s %9s %7s", "stack", "conc", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors"));
+        results.forEach(System.out::println);
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return(Integer.parseInt(context.getEnvironment().getProperty("local.server.port")));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(1);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List <Object[]> users = new ArrayList <> ();
+        for(long id = 1; id <= USERS; id++) {
+            users.add(new Object[] {id, now, now, "user" + id + "@example.com", "User " + id, "-", "user" + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, created_at, updated_at, email, name, password, username, poll_count, vote_count) VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0)", users);
+
+        List <Object[]> polls = new ArrayList <> ();
+        List <Object[]> choices = new ArrayList <> ();
+        for(long id = 1; id <= POLLS; id++) {
+            Timestamp createdAt = Timestamp.from(Instant.now().minusSeconds(POLLS - id));
+            Timestamp expiresAt = Timestamp.from(Instant.now().plusSeconds(86400));
+            long totalVotes = 0;
+
+            for(int c = 0; c < CHOICES_PER_POLL; c++) {
+                long votes = random.nextInt(1000);
+                totalVotes += votes;
+                choices.add(new Object[] {id * CHOICES_PER_POLL + c, "Choice " + c, id, votes});
+            }
+
+            polls.add(new Object[] {id, createdAt, createdAt, 1 + random.nextInt(USERS), expiresAt, "Question " + id + "?", totalVotes});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO polls (id, created_at, updated_at, created_by, expiration_date_time, question, total_votes) VALUES (?, ?, ?, ?, ?, ?, ?)", polls);
+        jdbcTemplate.batchUpdate("INSERT INTO choices (id, text, poll_id, vote_count) VALUES (?, ?, ?, ?)", choices);
+    }
+
+    private static String run(String stack, int port, int concurrency) {
+        ConnectionProvider connections = ConnectionProvider.builder("bench-" + stack + "-" + concurrency)
+                                                            .maxConnections(concurrency)
+                                                            .pendingAcquireMaxCount(-1)
+                                                            .build();
+        // Own event loops, so the client doesn't share the reactive server's.
+        LoopResources loops = LoopResources.create("bench-client", 4, true);
+
+        WebClient client = WebClient.builder()
+                                    .baseUrl("http://localhost:" + port)
+                                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections).runOn(loops)))
+                                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                                    .build();
+
+        try {
+            load(client, concurrency, WARMUP_SECONDS, new ConcurrentHistogram(3), new LongAdder());
+
+            Histogram latencies = new ConcurrentHistogram(3);
+            LongAdder errors = new LongAdder();
+            long start = System.nanoTime();
+            load(client, concurrency, SECONDS, latencies, errors);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            return(String.format("%-9s %6d %10.0f %9.2f %9.2f %9.2f %9.2f %7d", stack, concurrency, latencies.getTotalCount() / seconds,
+                                latencies.getValueAtPercentile(50) / 1e6, latencies.getValueAtPercentile(90) / 1e6,
+                                latencies.getValueAtPercentile(99) / 1e6, latencies.getMaxValue() / 1e6, errors.sum()));
+        }
+        finally {
+            connections.dispose();
+            loops.dispose();
+        }
+    }
+
+    // Keeps `concurrency` requests in flight until the time is up.
+    private static void load(WebClient client, int concurrency, int seconds, Histogram latencies, LongAdder errors) {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        Flux.range(0, Integer.MAX_VALUE)
+            .takeWhile(i -> System.nanoTime() < end)
+            .flatMap(i -> {
+                long start = System.nanoTime();
+
+                return(
+                    client.get().uri(PATH).retrieve().bodyToMono(byte[].class)
+                            .timeout(Duration.ofSeconds(30))
+                            .doOnSuccess(body -> latencies.recordValue(System.nanoTime() - start))
+                            .onErrorResume(e -> {
+                                if(errors.sum() == 0) {
+                                    System.err.println("First failed request: " + e);
+                                }
+                                errors.increment();
+                                return(Mono.empty());
+                            })
+                );
+            }, concurrency)
+            .blockLast();
+    }
+}
@@ -0,0 +1,86 @@
+package com.mypolls.polls;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+
+// Users, polls, choices and votes inserted straight into the database of a test's application context, with ids of
+// their own so that tests sharing a context don't collide. The roles come from data.sql.
+public class TestData {
+    private static final AtomicLong nextId = new AtomicLong(10000);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JwtTokenProvider tokenProvider;
+
+    // As precise as the application's own timestamps, see VoteIngestionPipeline.
+    private static Timestamp now() {
+        return(Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MILLIS)));
+    }
+
+    public TestData(JdbcTemplate jdbcTemplate, JwtTokenProvider tokenProvider) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenProvider = tokenProvider;
+    }
+
+    public static long nextId() {
+        return(nextId.getAndIncrement());
+    }
+
+    public UserPrincipal user(RoleName... roles) {
+        long id = nextId();
+        Timestamp now = now();
+
+        this.jdbcTemplate.update("INSERT INTO users (id, created_at, updated_at, email, name, password, username, poll_count, vote_count) VALUES (?, ?, ?, ?, ?, 'x', ?, 0, 0)",
+                                 id, now, now, "user" + id + "@test.local", "Test User " + id, "user" + id);
+        for(RoleName role : roles) {
+            this.jdbcTemplate.update("INSERT INTO user_id (user_id, role_id) SELECT ?, id FROM roles WHERE name = ?", id, role.name());
+        }
+
+        List <GrantedAuthority> authorities = Arrays.stream(roles).map(role -> new SimpleGrantedAuthority(role.name())).collect(Collectors.toList());
+        return(new UserPrincipal(id, "Test User " + id, "user" + id, "user" + id + "@test.local", null, authorities));
+    }
+
+    // As sent in the Authorization header.
+    public String bearer(UserPrincipal user) {
+        return("Bearer " + this.tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())));
+    }
+
+    // Open, expiring in a day, with the given number of choices (ids following the poll's).
+    public long poll(UserPrincipal creator, int choices) {
+        long id = nextId();
+        Timestamp now = now();
+
+        this.jdbcTemplate.update("INSERT INTO polls (id, created_at, updated_at, created_by, updated_by, expiration_date_time, question, total_votes) VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+                                 id, now, now, creator.getId(), creator.getId(), Timestamp.from(Instant.now().plus(Duration.ofDays(1))), "Question " + id + "?");
+        for(int i = 0; i < choices; i++) {
+            this.jdbcTemplate.update("INSERT INTO choices (id, text, poll_id, vote_count) VALUES (?, ?, ?, 0)", nextId(), "Choice " + (i + 1), id);
+        }
+
+        return(id);
+    }
+
+    public List <Long> choices(long pollId) {
+        return(this.jdbcTemplate.queryForList("SELECT id FROM choices WHERE poll_id = ? ORDER BY id", Long.class, pollId));
+    }
+
+    // The vote alone, the counters are left as they are.
+    public void vote(long pollId, long choiceId, UserPrincipal user) {
+        Timestamp now = now();
+
+        this.jdbcTemplate.update("INSERT INTO votes (created_at, updated_at, poll_id, choice_id, user_id) VALUES (?, ?, ?, ?, ?)", now, now, pollId, choiceId, user.getId());
+    }
+}
@@ -0,0 +1,135 @@
+package com.mypolls.polls.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mypolls.polls.security.UserPrincipal;
+
+// Two embedded databases stand in for the primary and the replica, each knowing which one it is.
+class ReplicaRoutingDataSourceTests {
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    private ReadYourWritesTracker readYourWritesTracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        this.primary = database("primary");
+        this.replica = database("replica");
+
+        this.readYourWritesTracker = new ReadYourWritesTracker();
+        ReflectionTestUtils.setField(this.readYourWritesTracker, "stickyMs", 60000L);
+        ReflectionTestUtils.setField(this.readYourWritesTracker, "maxUsers", 100);
+        this.readYourWritesTracker.init();
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(this.primary, this.replica, this.readYourWritesTracker);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        this.readWriteTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        this.primary.shutdown();
+        this.replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(whichDatabase(this.readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        assertThat(whichDatabase(this.readWriteTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    void statementsOutsideOfTransactionsGoToThePrimary() {
+        assertThat(whichDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsOfAUserWhoHasJustWrittenStayOnThePrimary() {
+        authenticate(1L);
+        this.readYourWritesTracker.writeCommitted(1L);
+
+        assertThat(whichDatabase(this.readOnlyTransaction)).isEqualTo("primary");
+
+        // Other users keep reading from the replica.
+        authenticate(2L);
+        assertThat(whichDatabase(this.readOnlyTransaction)).isEqualTo("replica");
+
+        SecurityContextHolder.clearContext();
+        assertThat(whichDatabase(this.readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void stickinessExpires() {
+        ReflectionTestUtils.setField(this.readYourWritesTracker, "stickyMs", 0L);
+        this.readYourWritesTracker.init();
+
+        authenticate(1L);
+        this.readYourWritesTracker.writeCommitted(1L);
+
+        assertThat(whichDatabase(this.readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsCanBeForcedOntoThePrimary() {
+        String forced = ReplicaRoutingDataSource.onPrimary(() -> whichDatabase(this.readOnlyTransaction));
+
+        assertThat(forced).isEqualTo("primary");
+        assertThat(whichDatabase(this.readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    private String whichDatabase() {
+        return(this.jdbcTemplate.queryForObject("SELECT name FROM which_database", String.class));
+    }
+
+    private String whichDatabase(TransactionTemplate transaction) {
+        return(transaction.execute(status -> whichDatabase()));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName(name).build();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE which_database (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO which_database (name) VALUES (?)", name);
+
+        return(database);
+    }
+
+    private static void authenticate(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "User " + userId, "user" + userId, "user" + userId + "@example.com", "-", Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
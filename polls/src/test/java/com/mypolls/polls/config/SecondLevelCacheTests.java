@@ -0,0 +1,148 @@
+package com.mypolls.polls.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.model.Role;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.repositories.CounterRepository;
+import com.mypolls.polls.repositories.RoleRepository;
+import com.mypolls.polls.repositories.UserRepository;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+import com.mypolls.polls.security.UserPrincipalCache;
+
+// Without tallies, counts are queried on every read: cached entities must never stand in for them.
+@SpringBootTest(properties = "app.votes.tally.enabled=false")
+@AutoConfigureMockMvc
+class SecondLevelCacheTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    private TestData testData;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+        this.cache = this.entityManagerFactory.getCache();
+    }
+
+    @Test
+    void servesFreshCountsOfCachedPollsAndUsers() throws Exception {
+        UserPrincipal voter = this.testData.user(RoleName.ROLE_USER);
+        long pollId = this.testData.poll(this.testData.user(RoleName.ROLE_USER), 2);
+        long choiceId = this.testData.choices(pollId).get(0);
+
+        assertThat(read("/api/polls/" + pollId).get("totalVotes").asLong()).isZero();
+        assertThat(read("/api/users/" + voter.getUsername()).get("voteCount").asLong()).isZero();
+        assertThat(this.cache.contains(Poll.class, pollId)).isTrue();
+
+        // As the vote paths count a vote, over JDBC and around Hibernate.
+        this.testData.vote(pollId, choiceId, voter);
+        this.counterRepository.incrementVoteCounts(pollId, choiceId, voter.getId());
+
+        JsonNode poll = read("/api/polls/" + pollId);
+        assertThat(poll.get("totalVotes").asLong()).isEqualTo(1);
+        assertThat(poll.get("choices").get(0).get("voteCount").asLong()).isEqualTo(1);
+        assertThat(read("/api/users/" + voter.getUsername()).get("voteCount").asLong()).isEqualTo(1);
+
+        // Served from the cache all along.
+        assertThat(this.cache.contains(Poll.class, pollId)).isTrue();
+    }
+
+    @Test
+    void reloadsUsersAndRolesChangedThroughJpa() {
+        Long userId = this.testData.user(RoleName.ROLE_USER).getId();
+        assertThat(authorities(this.userPrincipalCache.get(userId))).containsExactly(RoleName.ROLE_USER.name());
+        assertThat(this.cache.contains(User.class, userId)).isTrue();
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            User user = this.userRepository.findById(userId).get();
+            user.setName("Promoted");
+            user.getRoles().add(this.roleRepository.findByName(RoleName.ROLE_ADMIN).get());
+        });
+
+        // The user's update evicted the principal, reloaded from the cached user and roles as they were committed.
+        UserPrincipal principal = this.userPrincipalCache.get(userId);
+        assertThat(principal.getName()).isEqualTo("Promoted");
+        assertThat(authorities(principal)).containsExactlyInAnyOrder(RoleName.ROLE_USER.name(), RoleName.ROLE_ADMIN.name());
+    }
+
+    @Test
+    void reloadsRolesChangedThroughJpa() {
+        Instant updatedAt = this.roleRepository.findByName(RoleName.ROLE_ADMIN).get().getUpdatedAt();
+        Long userId = this.testData.user(RoleName.ROLE_ADMIN).getId();
+        UserPrincipal principal = this.userPrincipalCache.get(userId);
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            Role role = this.roleRepository.findByName(RoleName.ROLE_ADMIN).get();
+            role.setUpdatedAt(Instant.now().plusSeconds(1));
+        });
+
+        // Neither the query cache nor the role's entry serve the role as it was.
+        assertThat(this.roleRepository.findByName(RoleName.ROLE_ADMIN).get().getUpdatedAt()).isAfter(updatedAt);
+        assertThat(this.userPrincipalCache.get(userId)).isNotSameAs(principal);
+    }
+
+    private JsonNode read(String path) throws Exception {
+        byte[] body = this.mockMvc.perform(get(path))
+                                  .andExpect(status().isOk())
+                                  .andReturn().getResponse().getContentAsByteArray();
+        return(this.objectMapper.readTree(body));
+    }
+
+    private static List <String> authorities(UserPrincipal principal) {
+        return(principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+    }
+}
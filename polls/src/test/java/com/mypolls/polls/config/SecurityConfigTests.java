@@ -0,0 +1,59 @@
+package com.mypolls.polls.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class SecurityConfigTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+    }
+
+    @Test
+    void exposesHealthToAnyone() throws Exception {
+        this.mockMvc.perform(get("/actuator/health"))
+                    .andExpect(status().isOk());
+    }
+
+    @Test
+    void exposesMetricsToAdminsOnly() throws Exception {
+        // Not even from localhost, where a proxy in front of the application would send everything from.
+        this.mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                        request.setRemoteAddr("127.0.0.1");
+                        return(request);
+                    }))
+                    .andExpect(status().isUnauthorized());
+        this.mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, this.testData.bearer(this.testData.user(RoleName.ROLE_USER))))
+                    .andExpect(status().isForbidden());
+        this.mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, this.testData.bearer(this.testData.user(RoleName.ROLE_USER, RoleName.ROLE_ADMIN))))
+                    .andExpect(status().isOk());
+    }
+}
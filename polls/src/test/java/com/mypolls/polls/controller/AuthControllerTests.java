@@ -0,0 +1,64 @@
+package com.mypolls.polls.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void signsUpAndLogsIn() throws Exception {
+        perform("/api/auth/signup", "{\"name\": \"Signup Test\", \"username\": \"signup\", \"email\": \"signup@test.local\", \"password\": \"secret-password\"}")
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Location", "http://localhost/api/users/signup"))
+            .andExpect(jsonPath("$.success").value(true));
+
+        perform("/api/auth/login", "{\"usernameOrEmail\": \"signup\", \"password\": \"secret-password\"}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accessToken").isNotEmpty());
+    }
+
+    @Test
+    void refusesATakenUsername() throws Exception {
+        perform("/api/auth/signup", "{\"name\": \"Taken Test\", \"username\": \"taken\", \"email\": \"taken@test.local\", \"password\": \"secret-password\"}")
+            .andExpect(status().isCreated());
+
+        perform("/api/auth/signup", "{\"name\": \"Taken Test\", \"username\": \"taken\", \"email\": \"other@test.local\", \"password\": \"secret-password\"}")
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void refusesAWrongPassword() throws Exception {
+        perform("/api/auth/signup", "{\"name\": \"Wrong Test\", \"username\": \"wrong\", \"email\": \"wrong@test.local\", \"password\": \"secret-password\"}")
+            .andExpect(status().isCreated());
+
+        perform("/api/auth/login", "{\"usernameOrEmail\": \"wrong\", \"password\": \"not-the-password\"}")
+            .andExpect(status().isUnauthorized());
+    }
+
+    // Both endpoints complete asynchronously.
+    private ResultActions perform(String path, String body) throws Exception {
+        MvcResult result = this.mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                                        .andExpect(request().asyncStarted())
+                                        .andReturn();
+
+        return(this.mockMvc.perform(asyncDispatch(result)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.mypolls.polls.controller;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+import com.mypolls.polls.util.AppConstants;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PollBatchTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    private TestData testData;
+    private UserPrincipal voter;
+    private long first;
+    private long second;
+    private List <Long> secondChoiceIds;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+
+        UserPrincipal creator = this.testData.user(RoleName.ROLE_USER);
+        this.voter = this.testData.user(RoleName.ROLE_USER);
+        this.first = this.testData.poll(creator, 2);
+        this.second = this.testData.poll(creator, 3);
+        this.secondChoiceIds = this.testData.choices(this.second);
+
+        this.testData.vote(this.second, this.secondChoiceIds.get(2), this.voter);
+        this.jdbcTemplate.update("UPDATE choices SET vote_count = 1 WHERE id = ?", this.secondChoiceIds.get(2));
+    }
+
+    @Test
+    void fetchesEachPollOnceAndListsTheMissingOnes() throws Exception {
+        long missing = TestData.nextId();
+
+        this.mockMvc.perform(get("/api/polls/batch").param("ids", this.second + "," + missing + "," + this.first + "," + this.second)
+                                                    .header(HttpHeaders.AUTHORIZATION, this.testData.bearer(this.voter)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.polls.length()").value(2))
+                    .andExpect(jsonPath("$.polls['" + this.second + "'].choices.length()").value(3))
+                    .andExpect(jsonPath("$.polls['" + this.second + "'].selectedChoice").value(this.secondChoiceIds.get(2)))
+                    .andExpect(jsonPath("$.polls['" + this.second + "'].totalVotes").value(1))
+                    .andExpect(jsonPath("$.polls['" + this.first + "'].selectedChoice").doesNotExist())
+                    .andExpect(jsonPath("$.missingIds").value(contains((int) missing)));
+    }
+
+    @Test
+    void servesAnonymousUsers() throws Exception {
+        this.mockMvc.perform(get("/api/polls/batch").param("ids", String.valueOf(this.second)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.polls['" + this.second + "'].totalVotes").value(1))
+                    .andExpect(jsonPath("$.polls['" + this.second + "'].selectedChoice").doesNotExist());
+    }
+
+    @Test
+    void refusesTooManyIds() throws Exception {
+        StringBuilder tooMany = new StringBuilder();
+        for(int i = 0; i <= AppConstants.MAX_BATCH_SIZE; i++) {
+            tooMany.append(i == 0 ? "" : ",").append(i + 1);
+        }
+
+        this.mockMvc.perform(get("/api/polls/batch").param("ids", tooMany.toString()))
+                    .andExpect(status().isBadRequest());
+    }
+}
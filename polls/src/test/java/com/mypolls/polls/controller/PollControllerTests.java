@@ -0,0 +1,167 @@
+package com.mypolls.polls.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PollControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TestData testData;
+    private UserPrincipal creator;
+    private UserPrincipal voter;
+    private long pollId;
+    private List <Long> choiceIds;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+
+        this.creator = this.testData.user(RoleName.ROLE_USER);
+        this.voter = this.testData.user(RoleName.ROLE_USER);
+        this.pollId = this.testData.poll(this.creator, 2);
+        this.choiceIds = this.testData.choices(this.pollId);
+    }
+
+    @Test
+    void answersAnUnchangedPollWithNotModified() throws Exception {
+        MockHttpServletResponse response = this.mockMvc.perform(getPoll(this.voter))
+                                                       .andExpect(status().isOk())
+                                                       .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                                                       .andExpect(jsonPath("$.id").value(this.pollId))
+                                                       .andReturn().getResponse();
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+
+        this.mockMvc.perform(getPoll(this.voter).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                    .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void changesTheETagWithAVote() throws Exception {
+        String eTag = this.mockMvc.perform(getPoll(this.voter)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(post("/api/polls/{pollId}/votes", this.pollId).contentType(MediaType.APPLICATION_JSON)
+                                                                           .content("{\"choiceId\": " + this.choiceIds.get(1) + "}")
+                                                                           .header(HttpHeaders.AUTHORIZATION, this.testData.bearer(this.voter)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.selectedChoice").value(this.choiceIds.get(1)))
+                    .andExpect(jsonPath("$.totalVotes").value(1));
+
+        this.mockMvc.perform(getPoll(this.voter).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                    .andExpect(jsonPath("$.selectedChoice").value(this.choiceIds.get(1)))
+                    .andExpect(jsonPath("$.totalVotes").value(1));
+
+        // Others see the count, not the choice.
+        this.mockMvc.perform(getPoll(this.creator))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalVotes").value(1))
+                    .andExpect(jsonPath("$.selectedChoice").doesNotExist());
+    }
+
+    @Test
+    void tagsEachUsersResponseApart() throws Exception {
+        String voterETag = this.mockMvc.perform(getPoll(this.voter)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String creatorETag = this.mockMvc.perform(getPoll(this.creator)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String anonymousETag = this.mockMvc.perform(getPoll(null)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(voterETag).isNotEqualTo(creatorETag).isNotEqualTo(anonymousETag);
+
+        this.mockMvc.perform(getPoll(this.creator).header(HttpHeaders.IF_NONE_MATCH, voterETag))
+                    .andExpect(status().isOk());
+    }
+
+    @Test
+    void servesAnonymousUsersGzippedJson() throws Exception {
+        MockHttpServletResponse plain = this.mockMvc.perform(getPoll(null)).andExpect(status().isOk()).andReturn().getResponse();
+
+        MockHttpServletResponse gzipped = this.mockMvc.perform(getPoll(null).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                                                      .andExpect(status().isOk())
+                                                      .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                                                      .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                                                      .andReturn().getResponse();
+
+        byte[] json = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray())));
+        assertThat(this.objectMapper.readTree(json)).isEqualTo(this.objectMapper.readTree(plain.getContentAsByteArray()));
+
+        // A strong ETag per encoding.
+        String eTag = gzipped.getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isEqualTo(plain.getHeader(HttpHeaders.ETAG).replaceFirst("\"$", "-gzip\""));
+        this.mockMvc.perform(getPoll(null).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified());
+        this.mockMvc.perform(getPoll(null).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk());
+    }
+
+    @Test
+    void answersAnUnchangedFeedPageWithNotModified() throws Exception {
+        for(String cursor : new String[] {"", null}) {
+            MockHttpServletRequestBuilder request = get("/api/polls").param("size", "5").header(HttpHeaders.AUTHORIZATION, this.testData.bearer(this.voter));
+            if(cursor != null) {
+                request.param("cursor", cursor);
+            }
+
+            String eTag = this.mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            this.mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, eTag))
+                        .andExpect(status().isNotModified());
+        }
+    }
+
+    @Test
+    void answersUnknownPollsWithNotFound() throws Exception {
+        this.mockMvc.perform(get("/api/polls/{pollId}", TestData.nextId()))
+                    .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletRequestBuilder getPoll(UserPrincipal user) {
+        MockHttpServletRequestBuilder request = get("/api/polls/{pollId}", this.pollId);
+
+        return(user == null ? request : request.header(HttpHeaders.AUTHORIZATION, this.testData.bearer(user)));
+    }
+}
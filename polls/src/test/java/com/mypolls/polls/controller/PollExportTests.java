@@ -0,0 +1,121 @@
+package com.mypolls.polls.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PollExportTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TestData testData;
+    private UserPrincipal creator;
+    private UserPrincipal voter;
+    private long pollId;
+    private List <Long> choiceIds;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+
+        this.creator = this.testData.user(RoleName.ROLE_USER);
+        this.voter = this.testData.user(RoleName.ROLE_USER);
+        this.pollId = this.testData.poll(this.creator, 2);
+        this.choiceIds = this.testData.choices(this.pollId);
+
+        // Quoted in CSV.
+        this.jdbcTemplate.update("UPDATE choices SET text = 'Yes, \"really\"' WHERE id = ?", this.choiceIds.get(0));
+
+        this.testData.vote(this.pollId, this.choiceIds.get(0), this.creator);
+        this.testData.vote(this.pollId, this.choiceIds.get(1), this.voter);
+    }
+
+    @Test
+    void exportsCsvToTheCreator() throws Exception {
+        MvcResult result = export(this.creator, "csv");
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/csv");
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"poll-" + this.pollId + "-votes.csv\"");
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("vote_id,choice_id,choice_text,user_id,created_at");
+        assertThat(lines[1]).contains("," + this.choiceIds.get(0) + ",\"Yes, \"\"really\"\"\"," + this.creator.getId() + ",");
+        assertThat(lines[2]).contains("," + this.choiceIds.get(1) + ",Choice 2," + this.voter.getId() + ",");
+    }
+
+    @Test
+    void exportsNdjson() throws Exception {
+        MvcResult result = export(this.creator, "ndjson");
+
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+
+        JsonNode first = this.objectMapper.readTree(lines[0]);
+        assertThat(first.get("choiceId").asLong()).isEqualTo(this.choiceIds.get(0));
+        assertThat(first.get("choiceText").asText()).isEqualTo("Yes, \"really\"");
+        assertThat(first.get("userId").asLong()).isEqualTo(this.creator.getId());
+        assertThat(this.objectMapper.readTree(lines[1]).get("userId").asLong()).isEqualTo(this.voter.getId());
+    }
+
+    @Test
+    void exportsToAnAdmin() throws Exception {
+        UserPrincipal admin = this.testData.user(RoleName.ROLE_USER, RoleName.ROLE_ADMIN);
+
+        assertThat(export(admin, "csv").getResponse().getContentAsString().split("\n")).hasSize(3);
+    }
+
+    @Test
+    void refusesOtherUsers() throws Exception {
+        this.mockMvc.perform(get("/api/polls/{pollId}/export", this.pollId).header(HttpHeaders.AUTHORIZATION, this.testData.bearer(this.voter)))
+                    .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void refusesUnknownFormats() throws Exception {
+        this.mockMvc.perform(get("/api/polls/{pollId}/export", this.pollId).param("format", "xml").header(HttpHeaders.AUTHORIZATION, this.testData.bearer(this.creator)))
+                    .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult export(UserPrincipal user, String format) throws Exception {
+        MvcResult started = this.mockMvc.perform(get("/api/polls/{pollId}/export", this.pollId).param("format", format)
+                                                                                              .header(HttpHeaders.AUTHORIZATION, this.testData.bearer(user)))
+                                        .andReturn();
+
+        return(this.mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.CONTENT_DISPOSITION)).andReturn());
+    }
+}
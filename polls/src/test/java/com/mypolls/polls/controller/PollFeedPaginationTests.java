@@ -0,0 +1,170 @@
+package com.mypolls.polls.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PollFeedPaginationTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+    }
+
+    @Test
+    void walksAUsersPollsNewestFirst() throws Exception {
+        UserPrincipal creator = this.testData.user(RoleName.ROLE_USER);
+        long[] polls = new long[5];
+        for(int i = 0; i < polls.length; i++) {
+            polls[i] = this.testData.poll(creator, 2);
+        }
+
+        // The middle three created at the same time, told apart by their ids.
+        Instant createdAt = Instant.parse("2026-01-01T00:00:00.123Z");
+        setCreatedAt(polls[0], createdAt.minusSeconds(60));
+        setCreatedAt(polls[1], createdAt);
+        setCreatedAt(polls[2], createdAt);
+        setCreatedAt(polls[3], createdAt);
+        setCreatedAt(polls[4], createdAt.plusSeconds(60));
+
+        assertThat(walk("/api/users/" + creator.getUsername() + "/polls", 2)).containsExactly(polls[4], polls[3], polls[2], polls[1], polls[0]);
+    }
+
+    @Test
+    void walksTheFeedWithoutSkippingOrRepeating() throws Exception {
+        UserPrincipal creator = this.testData.user(RoleName.ROLE_USER);
+        long newest = this.testData.poll(creator, 2);
+        long older = this.testData.poll(creator, 2);
+        // Ahead of whatever other tests created.
+        setCreatedAt(newest, Instant.parse("2100-01-01T00:00:01Z"));
+        setCreatedAt(older, Instant.parse("2100-01-01T00:00:00Z"));
+
+        List <Long> feed = walk("/api/polls", 3);
+
+        assertThat(feed).startsWith(newest, older);
+        assertThat(feed).doesNotHaveDuplicates();
+        assertThat(feed).hasSize(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM polls", Integer.class));
+    }
+
+    @Test
+    void walksAUsersVotes() throws Exception {
+        UserPrincipal creator = this.testData.user(RoleName.ROLE_USER);
+        UserPrincipal voter = this.testData.user(RoleName.ROLE_USER);
+        List <Long> polls = new ArrayList <> ();
+        for(int i = 0; i < 3; i++) {
+            long pollId = this.testData.poll(creator, 2);
+            // The polls of a page are sorted by their creation time.
+            setCreatedAt(pollId, Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i));
+            this.testData.vote(pollId, this.testData.choices(pollId).get(0), voter);
+            polls.add(0, pollId);
+        }
+        // As a batch of the vote ingestion pipeline stores them.
+        this.jdbcTemplate.update("UPDATE votes SET created_at = ? WHERE user_id = ?", Timestamp.from(Instant.parse("2026-01-01T00:00:00.123Z")), voter.getId());
+
+        assertThat(walk("/api/users/" + voter.getUsername() + "/votes", 2)).isEqualTo(polls);
+    }
+
+    @Test
+    void assemblesPagesWithTheUsersVotesAndTheCreators() throws Exception {
+        UserPrincipal creator = this.testData.user(RoleName.ROLE_USER);
+        UserPrincipal voter = this.testData.user(RoleName.ROLE_USER);
+        long voted = this.testData.poll(creator, 2);
+        long notVoted = this.testData.poll(creator, 2);
+        long choiceId = this.testData.choices(voted).get(1);
+        this.testData.vote(voted, choiceId, voter);
+
+        byte[] body = this.mockMvc.perform(get("/api/users/" + creator.getUsername() + "/polls").param("cursor", "")
+                                                                                                 .header(HttpHeaders.AUTHORIZATION, this.testData.bearer(voter)))
+                                  .andExpect(status().isOk())
+                                  .andReturn().getResponse().getContentAsByteArray();
+        JsonNode content = this.objectMapper.readTree(body).get("content");
+
+        assertThat(content).hasSize(2);
+        for(JsonNode poll : content) {
+            assertThat(poll.get("createdBy").get("username").asText()).isEqualTo(creator.getUsername());
+
+            if(poll.get("id").asLong() == voted) {
+                assertThat(poll.get("selectedChoice").asLong()).isEqualTo(choiceId);
+            }
+            else {
+                assertThat(poll.get("id").asLong()).isEqualTo(notVoted);
+                assertThat(poll.has("selectedChoice")).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidCursors() throws Exception {
+        this.mockMvc.perform(get("/api/polls").param("cursor", "not a cursor"))
+                    .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsPageSizesUnderOne() throws Exception {
+        for(String size : new String[] { "0", "-1" }) {
+            this.mockMvc.perform(get("/api/polls").param("size", size))
+                        .andExpect(status().isBadRequest());
+            this.mockMvc.perform(get("/api/polls").param("cursor", "").param("size", size))
+                        .andExpect(status().isBadRequest());
+        }
+    }
+
+    // The ids of every poll on the feed, page after page from an empty cursor until there's no next one.
+    private List <Long> walk(String path, int size) throws Exception {
+        List <Long> ids = new ArrayList <> ();
+        String cursor = "";
+
+        while(cursor != null) {
+            byte[] body = this.mockMvc.perform(get(path).param("cursor", cursor).param("size", String.valueOf(size)))
+                                      .andExpect(status().isOk())
+                                      .andReturn().getResponse().getContentAsByteArray();
+            JsonNode page = this.objectMapper.readTree(body);
+
+            assertThat(page.get("content").size()).isLessThanOrEqualTo(size);
+            page.get("content").forEach(poll -> ids.add(poll.get("id").asLong()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        }
+
+        return(ids);
+    }
+
+    private void setCreatedAt(long pollId, Instant createdAt) {
+        this.jdbcTemplate.update("UPDATE polls SET created_at = ? WHERE id = ?", Timestamp.from(createdAt), pollId);
+    }
+}
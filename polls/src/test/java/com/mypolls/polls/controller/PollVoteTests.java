@@ -0,0 +1,97 @@
+package com.mypolls.polls.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+import com.mypolls.polls.service.PollVoterIndex;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PollVoteTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private PollVoterIndex pollVoterIndex;
+
+    private TestData testData;
+    private UserPrincipal voter;
+    private long pollId;
+    private List <Long> choiceIds;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+
+        this.voter = this.testData.user(RoleName.ROLE_USER);
+        this.pollId = this.testData.poll(this.testData.user(RoleName.ROLE_USER), 2);
+        this.choiceIds = this.testData.choices(this.pollId);
+    }
+
+    @Test
+    void turnsAwayARepeatedVoteFromMemory() throws Exception {
+        vote(this.voter, this.choiceIds.get(0)).andExpect(status().isOk());
+        assertThat(this.pollVoterIndex.hasVoted(this.pollId, this.voter.getId())).isTrue();
+
+        vote(this.voter, this.choiceIds.get(1)).andExpect(status().isBadRequest())
+                                               .andExpect(result -> assertThat(result.getResolvedException()).hasMessage("You have already voted in this poll, cannot vote again"));
+
+        assertThat(votes()).isEqualTo(1);
+    }
+
+    @Test
+    void findsVotesItDidNotSeeThroughTheConstraint() throws Exception {
+        // Tracked, then voted in as if on another node.
+        vote(this.testData.user(RoleName.ROLE_USER), this.choiceIds.get(0)).andExpect(status().isOk());
+        this.testData.vote(this.pollId, this.choiceIds.get(1), this.voter);
+        assertThat(this.pollVoterIndex.hasVoted(this.pollId, this.voter.getId())).isFalse();
+
+        vote(this.voter, this.choiceIds.get(0)).andExpect(status().isBadRequest());
+
+        assertThat(this.pollVoterIndex.hasVoted(this.pollId, this.voter.getId())).isTrue();
+        assertThat(votes()).isEqualTo(2);
+    }
+
+    @Test
+    void loadsEarlierVotersOnThePollsFirstVote() throws Exception {
+        this.testData.vote(this.pollId, this.choiceIds.get(1), this.voter);
+
+        vote(this.voter, this.choiceIds.get(0)).andExpect(status().isBadRequest());
+
+        assertThat(this.pollVoterIndex.hasVoted(this.pollId, this.voter.getId())).isTrue();
+    }
+
+    private ResultActions vote(UserPrincipal user, Long choiceId) throws Exception {
+        return(this.mockMvc.perform(post("/api/polls/{pollId}/votes", this.pollId).contentType(MediaType.APPLICATION_JSON)
+                                                                                  .content("{\"choiceId\": " + choiceId + "}")
+                                                                                  .header(HttpHeaders.AUTHORIZATION, this.testData.bearer(user))));
+    }
+
+    private int votes() {
+        return(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM votes WHERE poll_id = ?", Integer.class, this.pollId));
+    }
+}
@@ -0,0 +1,75 @@
+package com.mypolls.polls.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+import com.mypolls.polls.service.UserIdentityIndex;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private UserIdentityIndex userIdentityIndex;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+    }
+
+    @Test
+    void servesTheProfileCountsFromTheUserRow() throws Exception {
+        UserPrincipal user = this.testData.user(RoleName.ROLE_USER);
+        this.jdbcTemplate.update("UPDATE users SET poll_count = 3, vote_count = 7 WHERE id = ?", user.getId());
+
+        this.mockMvc.perform(get("/api/users/{username}", user.getUsername()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(user.getId()))
+                    .andExpect(jsonPath("$.username").value(user.getUsername()))
+                    .andExpect(jsonPath("$.pollCount").value(3))
+                    .andExpect(jsonPath("$.voteCount").value(7));
+    }
+
+    @Test
+    void answersUnknownUsersWithNotFound() throws Exception {
+        this.mockMvc.perform(get("/api/users/{username}", "nobody"))
+                    .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void checksUsernameAvailability() throws Exception {
+        UserPrincipal user = this.testData.user(RoleName.ROLE_USER);
+        // Inserted behind the index's back, as on another instance, picked up by its rebuild.
+        this.userIdentityIndex.rebuild();
+
+        this.mockMvc.perform(get("/api/user/checkUsernameAvailability").param("username", user.getUsername()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.available").value(false));
+        this.mockMvc.perform(get("/api/user/checkUsernameAvailability").param("username", "available"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.available").value(true));
+    }
+}
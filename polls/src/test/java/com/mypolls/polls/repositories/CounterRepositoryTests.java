@@ -0,0 +1,110 @@
+package com.mypolls.polls.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.security.JwtTokenProvider;
+import com.mypolls.polls.security.UserPrincipal;
+
+@SpringBootTest
+class CounterRepositoryTests {
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TestData testData;
+    private UserPrincipal voter;
+    private long pollId;
+    private List <Long> choiceIds;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+
+        this.voter = this.testData.user(RoleName.ROLE_USER);
+        this.pollId = this.testData.poll(this.testData.user(RoleName.ROLE_USER), 2);
+        this.choiceIds = this.testData.choices(this.pollId);
+    }
+
+    @Test
+    void countsAVote() {
+        this.counterRepository.incrementVoteCounts(this.pollId, this.choiceIds.get(0), this.voter.getId());
+
+        assertThat(choiceVotes(this.choiceIds.get(0))).isEqualTo(1);
+        assertThat(choiceVotes(this.choiceIds.get(1))).isZero();
+        assertThat(totalVotes()).isEqualTo(1);
+        assertThat(counter("SELECT vote_count FROM users WHERE id = ?", this.voter.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void countsABatchOfVotes() {
+        this.counterRepository.incrementVoteCounts(Collections.singletonMap(this.pollId, 3L),
+                                                   Collections.singletonMap(this.choiceIds.get(1), 3L),
+                                                   Collections.singletonMap(this.voter.getId(), 2L));
+
+        assertThat(choiceVotes(this.choiceIds.get(1))).isEqualTo(3);
+        assertThat(totalVotes()).isEqualTo(3);
+        assertThat(counter("SELECT vote_count FROM users WHERE id = ?", this.voter.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void countsAPoll() {
+        this.counterRepository.incrementPollCount(this.voter.getId());
+
+        assertThat(counter("SELECT poll_count FROM users WHERE id = ?", this.voter.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void freezesTheCountsOfClosedPolls() {
+        // Counted off by one, as if a counter update had been lost.
+        this.testData.vote(this.pollId, this.choiceIds.get(0), this.voter);
+        this.testData.vote(this.pollId, this.choiceIds.get(1), this.testData.user(RoleName.ROLE_USER));
+        this.counterRepository.incrementVoteCounts(this.pollId, this.choiceIds.get(0), this.voter.getId());
+
+        int closed = this.transactionTemplate.execute(status -> this.counterRepository.closePolls(Collections.singletonList(this.pollId), Instant.now()));
+
+        assertThat(closed).isEqualTo(1);
+        assertThat(choiceVotes(this.choiceIds.get(0))).isEqualTo(1);
+        assertThat(choiceVotes(this.choiceIds.get(1))).isEqualTo(1);
+        assertThat(totalVotes()).isEqualTo(2);
+
+        // Late votes don't move them anymore, nor does closing the poll again.
+        this.counterRepository.incrementVoteCounts(this.pollId, this.choiceIds.get(0), this.voter.getId());
+        assertThat(choiceVotes(this.choiceIds.get(0))).isEqualTo(1);
+        assertThat(totalVotes()).isEqualTo(2);
+        int closedAgain = this.transactionTemplate.execute(status -> this.counterRepository.closePolls(Collections.singletonList(this.pollId), Instant.now()));
+        assertThat(closedAgain).isZero();
+    }
+
+    private long choiceVotes(Long choiceId) {
+        return(counter("SELECT vote_count FROM choices WHERE id = ?", choiceId));
+    }
+
+    private long totalVotes() {
+        return(counter("SELECT total_votes FROM polls WHERE id = ?", this.pollId));
+    }
+
+    private long counter(String sql, Long id) {
+        return(this.jdbcTemplate.queryForObject(sql, Long.class, id));
+    }
+}
@@ -0,0 +1,89 @@
+package com.mypolls.polls.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtTokenProviderTests {
+    private static final UserPrincipal USER = UserPrincipal.create(42L, "Token Test", "token", Arrays.asList("ROLE_USER", "ROLE_ADMIN"));
+
+    private static JwtTokenProvider tokenProvider(boolean embedClaims, int expirationInMs) {
+        byte[] secret = new byte[64];
+        new Random(1).nextBytes(secret);
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", expirationInMs);
+        ReflectionTestUtils.setField(tokenProvider, "embedClaims", embedClaims);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheMaxSize", 100);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheTtlMs", 60000L);
+        tokenProvider.init();
+
+        return(tokenProvider);
+    }
+
+    private static String token(JwtTokenProvider tokenProvider) {
+        return(tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(USER, null, USER.getAuthorities())));
+    }
+
+    @Test
+    void verifiesItsTokens() {
+        JwtTokenProvider tokenProvider = tokenProvider(false, 60000);
+        String token = token(tokenProvider);
+
+        VerifiedToken verified = tokenProvider.verify(token);
+
+        assertThat(verified.getUserId()).isEqualTo(42L);
+        assertThat(verified.getExpiresAt()).isGreaterThan(System.currentTimeMillis());
+        assertThat(tokenProvider.getUserIdFromJWT(token)).isEqualTo(42L);
+        // Without embedded claims the principal is loaded from the database.
+        assertThat(tokenProvider.getUserPrincipal(verified)).isNull();
+    }
+
+    @Test
+    void servesRepeatedTokensFromTheCache() {
+        JwtTokenProvider tokenProvider = tokenProvider(false, 60000);
+        String token = token(tokenProvider);
+
+        assertThat(tokenProvider.verify(token)).isSameAs(tokenProvider.verify(token));
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        JwtTokenProvider tokenProvider = tokenProvider(false, 60000);
+        String token = token(tokenProvider);
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThat(tokenProvider.verify(tampered)).isNull();
+        assertThat(tokenProvider.validateToken("not a token")).isFalse();
+
+        JwtTokenProvider expiring = tokenProvider(false, -1000);
+        assertThat(expiring.verify(token(expiring))).isNull();
+    }
+
+    @Test
+    void buildsAPrincipalPerRequestFromEmbeddedClaims() {
+        JwtTokenProvider tokenProvider = tokenProvider(true, 60000);
+        VerifiedToken verified = tokenProvider.verify(token(tokenProvider));
+
+        UserPrincipal first = tokenProvider.getUserPrincipal(verified);
+        UserPrincipal second = tokenProvider.getUserPrincipal(tokenProvider.verify(token(tokenProvider)));
+
+        assertThat(first.getId()).isEqualTo(42L);
+        assertThat(first.getUsername()).isEqualTo("token");
+        assertThat(first.getName()).isEqualTo("Token Test");
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER", "ROLE_ADMIN");
+
+        // What one request does with its principal can't leak into another's.
+        first.eraseCredentials();
+        assertThat(second).isNotSameAs(first);
+        assertThat(tokenProvider.getUserPrincipal(verified)).isNotSameAs(first);
+    }
+}
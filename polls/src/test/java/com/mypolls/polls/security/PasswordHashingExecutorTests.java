@@ -0,0 +1,74 @@
+package com.mypolls.polls.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mypolls.polls.exception.ServiceUnavailableException;
+import com.mypolls.polls.security.PasswordHashingExecutor.Operation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingExecutorTests {
+    private PasswordHashingExecutor executor;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+
+        this.executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(this.executor, "meterRegistry", this.meterRegistry);
+        ReflectionTestUtils.setField(this.executor, "threads", 1);
+        ReflectionTestUtils.setField(this.executor, "queueCapacity", 1);
+        this.executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.stop();
+    }
+
+    @Test
+    void timesEachOperation() throws Exception {
+        assertThat(this.executor.submit(Operation.LOGIN, () -> "hash").get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+
+        assertThat(this.meterRegistry.get("auth.hashing").tag("operation", "login").timer().count()).isEqualTo(1);
+        assertThat(this.meterRegistry.get("auth.hashing").tag("operation", "signup").timer().count()).isZero();
+    }
+
+    @Test
+    void refusesWorkOnceSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        // One running, one queued.
+        CompletableFuture <Boolean> busy = this.executor.submit(Operation.LOGIN, () -> {
+            running.countDown();
+            try {
+                return(release.await(5, TimeUnit.SECONDS));
+            }
+            catch(InterruptedException e) {
+                return(false);
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture <Boolean> queued = this.executor.submit(Operation.LOGIN, () -> true);
+
+        assertThatThrownBy(() -> this.executor.submit(Operation.SIGNUP, () -> true)).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(this.meterRegistry.get("auth.hashing.rejected").tag("operation", "signup").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mypolls.polls.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.RoleName;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {"app.ratelimit.polls.requestsPerMinute=1", "app.ratelimit.polls.burst=2"})
+@AutoConfigureMockMvc
+class RateLimitInterceptorTests {
+    private static final String POLL = "{\"question\": \"Limited?\", \"choices\": [{\"text\": \"Yes\"}, {\"text\": \"No\"}], \"pollLength\": {\"days\": 1, \"hours\": 0}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+    }
+
+    @Test
+    void turnsAwayAUserOverTheLimit() throws Exception {
+        UserPrincipal user = this.testData.user(RoleName.ROLE_USER);
+        int polls = pollCount(user);
+        double rejected = rejected("polls");
+
+        createPoll(user).andExpect(status().isCreated());
+        createPoll(user).andExpect(status().isCreated());
+        createPoll(user).andExpect(status().isTooManyRequests())
+                        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+
+        // Turned away before the poll was created.
+        assertThat(pollCount(user)).isEqualTo(polls + 2);
+        assertThat(rejected("polls")).isEqualTo(rejected + 1);
+        // Registered up front, for every limit.
+        assertThat(rejected("votes")).isNotNegative();
+    }
+
+    @Test
+    void limitsEachUserOnTheirOwn() throws Exception {
+        UserPrincipal first = this.testData.user(RoleName.ROLE_USER);
+        UserPrincipal second = this.testData.user(RoleName.ROLE_USER);
+
+        createPoll(first).andExpect(status().isCreated());
+        createPoll(first).andExpect(status().isCreated());
+        createPoll(first).andExpect(status().isTooManyRequests());
+
+        createPoll(second).andExpect(status().isCreated());
+    }
+
+    private ResultActions createPoll(UserPrincipal user) throws Exception {
+        return(this.mockMvc.perform(post("/api/polls").contentType(MediaType.APPLICATION_JSON)
+                                                      .content(POLL)
+                                                      .header(HttpHeaders.AUTHORIZATION, this.testData.bearer(user))));
+    }
+
+    private double rejected(String limit) {
+        return(this.meterRegistry.get("ratelimit.rejected").tag("limit", limit).counter().count());
+    }
+
+    private int pollCount(UserPrincipal user) {
+        return(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM polls WHERE created_by = ?", Integer.class, user.getId()));
+    }
+}
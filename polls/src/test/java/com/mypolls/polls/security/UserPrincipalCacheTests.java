@@ -0,0 +1,99 @@
+package com.mypolls.polls.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mypolls.polls.TestData;
+import com.mypolls.polls.model.Role;
+import com.mypolls.polls.model.RoleName;
+import com.mypolls.polls.model.User;
+import com.mypolls.polls.repositories.RoleRepository;
+import com.mypolls.polls.repositories.UserRepository;
+
+@SpringBootTest
+class UserPrincipalCacheTests {
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        this.testData = new TestData(this.jdbcTemplate, this.tokenProvider);
+    }
+
+    @Test
+    void cachesPrincipalsWithoutTheirPassword() {
+        Long userId = this.testData.user(RoleName.ROLE_USER).getId();
+
+        UserPrincipal principal = this.userPrincipalCache.get(userId);
+
+        assertThat(principal.getId()).isEqualTo(userId);
+        assertThat(principal.getPassword()).isNull();
+        assertThat(this.userPrincipalCache.get(userId)).isSameAs(principal);
+    }
+
+    @Test
+    void evictsAUserOnItsUpdate() {
+        Long userId = this.testData.user(RoleName.ROLE_USER).getId();
+        UserPrincipal principal = this.userPrincipalCache.get(userId);
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            User user = this.userRepository.findById(userId).get();
+            user.setName("Renamed");
+        });
+
+        UserPrincipal reloaded = this.userPrincipalCache.get(userId);
+        assertThat(reloaded).isNotSameAs(principal);
+        assertThat(reloaded.getName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void evictsEveryoneOnARoleUpdate() {
+        Long first = this.testData.user(RoleName.ROLE_USER).getId();
+        Long second = this.testData.user(RoleName.ROLE_USER, RoleName.ROLE_ADMIN).getId();
+        UserPrincipal firstPrincipal = this.userPrincipalCache.get(first);
+        UserPrincipal secondPrincipal = this.userPrincipalCache.get(second);
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            Role role = this.roleRepository.findByName(RoleName.ROLE_ADMIN).get();
+            role.setUpdatedAt(Instant.now().plusSeconds(1));
+        });
+
+        assertThat(this.userPrincipalCache.get(first)).isNotSameAs(firstPrincipal);
+        assertThat(this.userPrincipalCache.get(second)).isNotSameAs(secondPrincipal);
+    }
+
+    @Test
+    void evictsExplicitly() {
+        Long userId = this.testData.user(RoleName.ROLE_USER).getId();
+        UserPrincipal principal = this.userPrincipalCache.get(userId);
+
+        this.userPrincipalCache.evict(userId);
+
+        assertThat(this.userPrincipalCache.get(userId)).isNotSameAs(principal);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mypolls.polls.model.PagedResponse;
+import com.mypolls.polls.payload.PollResponse;
+import com.mypolls.polls.security.UserPrincipal;
+
+// More feed requests at once than the pool has connections: none may hold a connection while waiting on the lookups
+// it fans out, which take one each, none may wait on the pool (whose timeout is short here) for long.
+@SpringBootTest(properties = {
+    "spring.datasource.hikari.maximum-pool-size=2",
+    "spring.datasource.hikari.connection-timeout=1000",
+    "app.polls.feed.lookupThreads=8"
+})
+class FeedConcurrencyTests {
+    private static final int REQUESTS = 16;
+
+    @Autowired
+    private PollService pollService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService requests;
+    private UserPrincipal currentUser;
+
+    @BeforeEach
+    void setUp() {
+        this.requests = Executors.newFixedThreadPool(REQUESTS);
+        this.currentUser = UserPrincipal.create(1L, "Feed", "feed", Collections.singletonList("ROLE_USER"));
+
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp expiration = Timestamp.from(Instant.now().plus(Duration.ofDays(1)));
+
+        // The context, and its database, is shared by the tests.
+        if(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class) > 0) {
+            return;
+        }
+
+        this.jdbcTemplate.update("INSERT INTO users (id, created_at, updated_at, email, name, password, username, poll_count, vote_count) VALUES (1, ?, ?, 'feed@test.local', 'Feed', 'x', 'feed', 20, 0)", now, now);
+        for(long id = 1; id <= 20; id++) {
+            this.jdbcTemplate.update("INSERT INTO polls (id, created_at, updated_at, created_by, updated_by, expiration_date_time, question, total_votes) VALUES (?, ?, ?, 1, 1, ?, ?, 0)", id, now, now, expiration, "Question " + id + "?");
+            this.jdbcTemplate.update("INSERT INTO choices (id, text, poll_id, vote_count) VALUES (?, 'Yes', ?, 0), (?, 'No', ?, 0)", 2 * id, id, 2 * id + 1, id);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.requests.shutdownNow();
+    }
+
+    @Test
+    void cursorFeedDoesNotHoldItsConnectionWhileLookingUp() throws Exception {
+        List <byte[]> pages = run(() -> this.pollService.getAllPolls(this.currentUser, "", 10, eTag -> false));
+
+        assertThat(pages).allSatisfy(page -> assertThat(page).isNotEmpty());
+    }
+
+    @Test
+    void offsetFeedDoesNotHoldItsConnectionWhileLookingUp() throws Exception {
+        List <byte[]> pages = run(() -> this.pollService.getAllPolls(this.currentUser, 0, 10, eTag -> false));
+
+        assertThat(pages).allSatisfy(page -> assertThat(page).isNotEmpty());
+    }
+
+    @Test
+    void createdPollsDoNotHoldTheirConnectionWhileLookingUp() throws Exception {
+        List <PagedResponse <PollResponse>> pages = run(() -> this.pollService.getPollsCreatedBy("feed", this.currentUser, "", 10));
+
+        assertThat(pages).allSatisfy(page -> assertThat(page.getContent()).hasSize(10));
+    }
+
+    // All requests are released at once, each must complete well within the pool's timeout.
+    private <T> List <T> run(Callable <T> request) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List <Future <T>> futures = new ArrayList <> ();
+
+        for(int i = 0; i < REQUESTS; i++) {
+            futures.add(this.requests.submit(() -> {
+                start.await();
+                return(request.call());
+            }));
+        }
+        start.countDown();
+
+        List <T> results = new ArrayList <> ();
+        for(Future <T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+
+        return(results);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mypolls.polls.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeedLookupExecutorTests {
+    private FeedLookupExecutor executor;
+
+    private FeedLookupExecutor executor(boolean enabled, int threads, int queueCapacity) {
+        this.executor = new FeedLookupExecutor();
+        ReflectionTestUtils.setField(this.executor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(this.executor, "enabled", enabled);
+        ReflectionTestUtils.setField(this.executor, "threads", threads);
+        ReflectionTestUtils.setField(this.executor, "queueCapacity", queueCapacity);
+        this.executor.start();
+
+        return(this.executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.stop();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void runsLookupsOnItsThreadsWithTheCallersSecurityContext() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", null);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        CompletableFuture <String> thread = executor(true, 2, 4).supply(() -> Thread.currentThread().getName());
+        CompletableFuture <Authentication> context = this.executor.supply(() -> SecurityContextHolder.getContext().getAuthentication());
+
+        assertThat(FeedLookupExecutor.join(thread)).startsWith("feed-lookup-");
+        assertThat(FeedLookupExecutor.join(context)).isSameAs(authentication);
+    }
+
+    @Test
+    void runsLookupsInlineWhenDisabled() {
+        CompletableFuture <String> thread = executor(false, 1, 1).supply(() -> Thread.currentThread().getName());
+
+        assertThat(thread).isDone();
+        assertThat(FeedLookupExecutor.join(thread)).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void runsLookupsInTheCallerOnceTheQueueIsFull() throws InterruptedException {
+        executor(true, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture <Boolean> blocking = this.executor.supply(() -> {
+            started.countDown();
+            try {
+                return(release.await(10, TimeUnit.SECONDS));
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return(false);
+            }
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture <String> queued = this.executor.supply(() -> Thread.currentThread().getName());
+
+        CompletableFuture <String> overflow = this.executor.supply(() -> Thread.currentThread().getName());
+
+        assertThat(FeedLookupExecutor.join(overflow)).isEqualTo(Thread.currentThread().getName());
+        release.countDown();
+        assertThat(FeedLookupExecutor.join(blocking)).isTrue();
+        assertThat(FeedLookupExecutor.join(queued)).startsWith("feed-lookup-");
+    }
+
+    @Test
+    void rethrowsWhatALookupFailedWith() {
+        CompletableFuture <Object> lookup = executor(true, 1, 1).supply(() -> {
+            throw new ResourceNotFoundException("User", "id", 42L);
+        });
+
+        assertThatThrownBy(() -> FeedLookupExecutor.join(lookup)).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,23 @@
+package com.mypolls.polls.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.mypolls.polls.model.NodeVoteCounts;
+
+// Stand-in for a message broker topic between nodes living in the same JVM: every node subscribes to the same instance,
+// whatever one publishes is handed to all of them (the publisher included) on the publishing thread.
+class InJvmVoteCountTransport implements VoteCountTransport {
+    private final List <Consumer <NodeVoteCounts>> receivers = new CopyOnWriteArrayList <> ();
+
+    @Override
+    public void publish(NodeVoteCounts counts) {
+        this.receivers.forEach(receiver -> receiver.accept(counts));
+    }
+
+    @Override
+    public void subscribe(Consumer <NodeVoteCounts> receiver) {
+        this.receivers.add(receiver);
+    }
+}
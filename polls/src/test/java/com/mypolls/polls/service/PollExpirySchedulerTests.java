@@ -0,0 +1,97 @@
+package com.mypolls.polls.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.repositories.CounterRepository;
+
+class PollExpirySchedulerTests {
+    private PollExpiryScheduler scheduler;
+    private CounterRepository counterRepository;
+    private VoteTallyEngine voteTallyEngine;
+    private PollVoterIndex pollVoterIndex;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        this.counterRepository = mock(CounterRepository.class);
+        this.voteTallyEngine = mock(VoteTallyEngine.class);
+        this.pollVoterIndex = mock(PollVoterIndex.class);
+        this.cache = mock(Cache.class);
+
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(this.cache);
+
+        this.scheduler = new PollExpiryScheduler();
+        ReflectionTestUtils.setField(this.scheduler, "counterRepository", this.counterRepository);
+        ReflectionTestUtils.setField(this.scheduler, "voteTallyEngine", this.voteTallyEngine);
+        ReflectionTestUtils.setField(this.scheduler, "pollVoterIndex", this.pollVoterIndex);
+        ReflectionTestUtils.setField(this.scheduler, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(this.scheduler, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(this.scheduler, "enabled", true);
+        ReflectionTestUtils.setField(this.scheduler, "tickMs", 10L);
+        ReflectionTestUtils.setField(this.scheduler, "horizonMs", 60000L);
+        ReflectionTestUtils.setField(this.scheduler, "graceMs", 0L);
+        ReflectionTestUtils.setField(this.scheduler, "closeBatchSize", 500);
+        this.scheduler.init();
+    }
+
+    @Test
+    void closesExpiredPolls() throws Exception {
+        this.scheduler.schedule(1L, Instant.now().minusSeconds(1));
+        this.scheduler.schedule(2L, Instant.now().plusMillis(50));
+        this.scheduler.schedule(3L, Instant.now().plusSeconds(30));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        this.scheduler.tick();
+
+        verify(this.counterRepository).closePolls(eq(Arrays.asList(1L, 2L)), any(Instant.class));
+        verify(this.voteTallyEngine).pollClosed(1L);
+        verify(this.pollVoterIndex).pollClosed(2L);
+        verify(this.cache).evict(Poll.class, 1L);
+        verify(this.voteTallyEngine, never()).pollClosed(3L);
+    }
+
+    @Test
+    void leavesPollsPastTheHorizonToALaterReload() throws Exception {
+        this.scheduler.schedule(1L, Instant.now().plusSeconds(3600));
+
+        // Not taken as scheduled: a reload schedules it once it comes within the horizon (here, sooner than it would).
+        this.scheduler.schedule(1L, Instant.now().plusMillis(20));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        this.scheduler.tick();
+
+        verify(this.counterRepository).closePolls(eq(Collections.singletonList(1L)), any(Instant.class));
+    }
+
+    @Test
+    void doesNothingWhenDisabled() throws Exception {
+        ReflectionTestUtils.setField(this.scheduler, "enabled", false);
+
+        this.scheduler.schedule(1L, Instant.now().minusSeconds(1));
+        this.scheduler.tick();
+
+        verify(this.counterRepository, never()).closePolls(anyList(), any(Instant.class));
+    }
+}
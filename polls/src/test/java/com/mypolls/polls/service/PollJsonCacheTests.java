@@ -0,0 +1,154 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.model.PagedResponse;
+import com.mypolls.polls.payload.ChoiceResponse;
+import com.mypolls.polls.payload.PollResponse;
+import com.mypolls.polls.payload.UserSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PollJsonCacheTests {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private PollJsonCache cache(long maxBytes) {
+        PollJsonCache cache = new PollJsonCache();
+        ReflectionTestUtils.setField(cache, "objectMapper", this.objectMapper);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(cache, "gzipMaxBytes", maxBytes);
+        ReflectionTestUtils.setField(cache, "blockSize", 64);
+        cache.init();
+
+        return(cache);
+    }
+
+    private static PollResponse pollResponse(Long pollId) {
+        ChoiceResponse yes = new ChoiceResponse();
+        yes.setId(11L);
+        yes.setText("Yes");
+        yes.setVoteCount(3L);
+
+        ChoiceResponse no = new ChoiceResponse();
+        no.setId(12L);
+        no.setText("No");
+        no.setVoteCount(1L);
+
+        PollResponse pollResponse = new PollResponse();
+        pollResponse.setId(pollId);
+        pollResponse.setQuestion("Cached?");
+        pollResponse.setChoices(Arrays.asList(yes, no));
+        pollResponse.setCreatedBy(new UserSummary(5L, "creator", "Creator"));
+        pollResponse.setCreationDateTime(Instant.parse("2026-01-01T00:00:00Z"));
+        pollResponse.setExpirationDateTime(Instant.parse("2026-01-02T00:00:00Z"));
+        pollResponse.setIsExpired(false);
+        pollResponse.setTotalVotes(4L);
+
+        return(pollResponse);
+    }
+
+    @Test
+    void splicesEachUsersSelectedChoiceIntoTheCachedJson() throws Exception {
+        PollJsonCache cache = cache(1 << 20);
+        PollResponse pollResponse = pollResponse(1L);
+
+        ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+        cache.render(pollResponse, 42, 11L, rendered);
+
+        JsonNode voter = this.objectMapper.readTree(rendered.toByteArray());
+        assertThat(voter.get("selectedChoice").asLong()).isEqualTo(11L);
+        assertThat(voter.get("totalVotes").asLong()).isEqualTo(4L);
+        assertThat(voter.get("choices")).hasSize(2);
+
+        ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        assertThat(cache.write(1L, 42, 12L, cached)).isTrue();
+        assertThat(this.objectMapper.readTree(cached.toByteArray()).get("selectedChoice").asLong()).isEqualTo(12L);
+
+        ByteArrayOutputStream anonymous = new ByteArrayOutputStream();
+        assertThat(cache.write(1L, 42, null, anonymous)).isTrue();
+        // Exactly what rendering the response would give.
+        assertThat(this.objectMapper.readTree(anonymous.toByteArray())).isEqualTo(this.objectMapper.readTree(this.objectMapper.writeValueAsBytes(pollResponse)));
+    }
+
+    @Test
+    void missesOnceThePollChanges() {
+        PollJsonCache cache = cache(1 << 20);
+        cache.render(pollResponse(1L), 42, null, new ByteArrayOutputStream());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(cache.write(1L, 43, null, out)).isFalse();
+        assertThat(out.size()).isZero();
+        assertThat(cache.contains(1L, 42)).isTrue();
+        assertThat(cache.contains(1L, 43)).isFalse();
+    }
+
+    @Test
+    void versionsByCountsAndExpiry() {
+        Instant expiration = Instant.now().plusSeconds(3600);
+
+        long version = PollJsonCache.version(1L, expiration, Collections.singletonMap(11L, 3L));
+
+        assertThat(PollJsonCache.version(1L, expiration, Collections.singletonMap(11L, 3L))).isEqualTo(version);
+        assertThat(PollJsonCache.version(1L, expiration, Collections.singletonMap(11L, 4L))).isNotEqualTo(version);
+        assertThat(PollJsonCache.version(2L, expiration, Collections.singletonMap(11L, 3L))).isNotEqualTo(version);
+        assertThat(PollJsonCache.version(1L, Instant.now().minusSeconds(1), Collections.singletonMap(11L, 3L))).isNotEqualTo(version);
+    }
+
+    @Test
+    void splicesPollsIntoPages() throws Exception {
+        PollJsonCache cache = cache(1 << 20);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        cache.render(pollResponse(1L), 1, 11L, content);
+        content.write(',');
+        cache.render(pollResponse(2L), 2, null, content);
+
+        byte[] page = cache.renderPage(new PagedResponse <> (Collections.emptyList(), 2, "next"), content);
+
+        JsonNode json = this.objectMapper.readTree(page);
+        assertThat(json.get("content")).hasSize(2);
+        assertThat(json.get("content").get(0).get("selectedChoice").asLong()).isEqualTo(11L);
+        assertThat(json.get("content").get(1).get("id").asLong()).isEqualTo(2L);
+        assertThat(json.get("content").get(1).has("selectedChoice")).isFalse();
+        assertThat(json.get("nextCursor").asText()).isEqualTo("next");
+    }
+
+    @Test
+    void gzipsTheAnonymousJson() throws Exception {
+        PollJsonCache cache = cache(1 << 20);
+        assertThat(cache.getGzip(1L, 42)).isNull();
+
+        ByteArrayOutputStream anonymous = new ByteArrayOutputStream();
+        cache.render(pollResponse(1L), 42, null, anonymous);
+
+        byte[] gzip = cache.getGzip(1L, 42);
+        assertThat(StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(gzip)))).isEqualTo(anonymous.toByteArray());
+        assertThat(cache.getGzip(1L, 42)).isEqualTo(gzip);
+        assertThat(cache.getGzip(1L, 43)).isNull();
+    }
+
+    @Test
+    void rendersEveryTimeWhenTurnedOff() throws Exception {
+        PollJsonCache cache = cache(0);
+
+        ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+        cache.render(pollResponse(1L), 42, 11L, rendered);
+
+        assertThat(this.objectMapper.readTree(rendered.toByteArray()).get("selectedChoice").asLong()).isEqualTo(11L);
+        assertThat(cache.write(1L, 42, null, new ByteArrayOutputStream())).isFalse();
+        assertThat(cache.getGzip(1L, 42)).isNull();
+    }
+}
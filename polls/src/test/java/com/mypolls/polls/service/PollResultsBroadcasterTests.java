@@ -0,0 +1,183 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mypolls.polls.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// A single sender thread, so that a subscriber that never drains would hold up every other one.
+class PollResultsBroadcasterTests {
+    private PollResultsBroadcaster broadcaster;
+    private MeterRegistry meterRegistry;
+    private VoteTallyEngine voteTallyEngine;
+
+    // Its sends block until interrupted, as a write to a client that stopped reading does once the socket buffers are full.
+    private static class StalledEmitter extends SseEmitter {
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            this.sendStarted.countDown();
+
+            try {
+                new CountDownLatch(1).await();
+            }
+            catch(InterruptedException e) {
+                throw new IOException("Interrupted", e);
+            }
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            this.completed.countDown();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch sent = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            this.sent.countDown();
+        }
+    }
+
+    // Keeps the JSON of the events sent.
+    private static class CollectingEmitter extends SseEmitter {
+        private final BlockingQueue <String> events = new LinkedBlockingQueue <> ();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                           .filter(data -> MediaType.APPLICATION_JSON.equals(data.getMediaType()))
+                           .forEach(data -> this.events.add((String) data.getData()));
+        }
+
+        JsonNode next(ObjectMapper objectMapper) throws Exception {
+            String event = this.events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            return(objectMapper.readTree(event));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+
+        this.voteTallyEngine = mock(VoteTallyEngine.class);
+
+        this.broadcaster = new PollResultsBroadcaster();
+        ReflectionTestUtils.setField(this.broadcaster, "voteTallyEngine", this.voteTallyEngine);
+        ReflectionTestUtils.setField(this.broadcaster, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(this.broadcaster, "meterRegistry", this.meterRegistry);
+        ReflectionTestUtils.setField(this.broadcaster, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(this.broadcaster, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(this.broadcaster, "senderThreads", 1);
+        ReflectionTestUtils.setField(this.broadcaster, "sendTimeoutMs", 100L);
+        this.broadcaster.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.broadcaster.stop();
+    }
+
+    @Test
+    void dropsASubscriberThatNeverDrains() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        this.broadcaster.subscribe(1L, Collections.singletonMap(10L, 1L), stalled);
+        assertThat(stalled.sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Queued behind the stalled send.
+        RecordingEmitter healthy = new RecordingEmitter();
+        this.broadcaster.subscribe(1L, Collections.singletonMap(10L, 1L), healthy);
+
+        // Not pending for long enough yet.
+        this.broadcaster.dropStalledSubscribers();
+        assertThat(stalled.completed.getCount()).isEqualTo(1);
+
+        TimeUnit.MILLISECONDS.sleep(200);
+        this.broadcaster.dropStalledSubscribers();
+
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(healthy.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(this.meterRegistry.get("polls.results.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsSubscribersThatDrain() throws Exception {
+        RecordingEmitter healthy = new RecordingEmitter();
+        this.broadcaster.subscribe(1L, Collections.singletonMap(10L, 1L), healthy);
+        assertThat(healthy.sent.await(5, TimeUnit.SECONDS)).isTrue();
+
+        TimeUnit.MILLISECONDS.sleep(200);
+        this.broadcaster.dropStalledSubscribers();
+
+        assertThat(this.meterRegistry.get("polls.results.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void streamsTheCountsOfThePollsVotedIn() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        CollectingEmitter emitter = new CollectingEmitter();
+        this.broadcaster.subscribe(1L, Collections.singletonMap(10L, 1L), emitter);
+
+        JsonNode initial = emitter.next(objectMapper);
+        assertThat(initial.get("pollId").asLong()).isEqualTo(1L);
+        assertThat(initial.get("totalVotes").asLong()).isEqualTo(1L);
+
+        Map <Long, Long> counts = new HashMap <> ();
+        counts.put(10L, 2L);
+        counts.put(11L, 1L);
+        when(this.voteTallyEngine.getChoiceVoteCountsIfPresent(1L)).thenReturn(counts);
+
+        // Two votes between publications, one event. Nobody watches poll 2.
+        this.broadcaster.voteCommitted(1L);
+        this.broadcaster.voteCommitted(1L);
+        this.broadcaster.voteCommitted(2L);
+        this.broadcaster.publish();
+
+        JsonNode update = emitter.next(objectMapper);
+        assertThat(update.get("totalVotes").asLong()).isEqualTo(3L);
+        assertThat(update.get("choices")).hasSize(2);
+
+        this.broadcaster.publish();
+        assertThat(emitter.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        verify(this.voteTallyEngine, never()).getChoiceVoteCountsIfPresent(2L);
+    }
+
+    @Test
+    void refusesSubscribersOverTheLimit() {
+        ReflectionTestUtils.setField(this.broadcaster, "maxSubscribers", 1);
+        this.broadcaster.subscribe(1L, Collections.emptyMap(), new RecordingEmitter());
+
+        assertThatThrownBy(() -> this.broadcaster.subscribe(2L, Collections.emptyMap(), new RecordingEmitter())).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(this.meterRegistry.get("polls.results.subscribers").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PollVoterIndexTests {
+    private PollVoterIndex index;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+
+        this.index = new PollVoterIndex();
+        ReflectionTestUtils.setField(this.index, "jdbcTemplate", this.jdbcTemplate);
+        ReflectionTestUtils.setField(this.index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(this.index, "enabled", true);
+        ReflectionTestUtils.setField(this.index, "maxPolls", 2);
+        ReflectionTestUtils.setField(this.index, "idleEvictionMs", 3600000L);
+        this.index.registerMetrics();
+    }
+
+    @Test
+    void knowsNothingOfUntrackedPolls() {
+        this.index.voteCommitted(1L, 7L);
+
+        assertThat(this.index.hasVoted(1L, 7L)).isFalse();
+    }
+
+    @Test
+    void loadsAPollsVotersOnce() {
+        voters(1L, 7L, 100000L);
+
+        this.index.track(1L);
+        this.index.track(1L);
+
+        assertThat(this.index.hasVoted(1L, 7L)).isTrue();
+        assertThat(this.index.hasVoted(1L, 100000L)).isTrue();
+        assertThat(this.index.hasVoted(1L, 8L)).isFalse();
+        assertThat(this.index.hasVoted(2L, 7L)).isFalse();
+        verify(this.jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+    }
+
+    @Test
+    void addsCommittedVotes() {
+        voters(1L);
+        this.index.track(1L);
+
+        this.index.voteCommitted(1L, 8L);
+
+        assertThat(this.index.hasVoted(1L, 8L)).isTrue();
+    }
+
+    @Test
+    void forgetsClosedAndIdlePolls() throws InterruptedException {
+        voters(1L, 7L);
+        voters(2L, 7L);
+        this.index.track(1L);
+        this.index.track(2L);
+
+        this.index.pollClosed(1L);
+        assertThat(this.index.hasVoted(1L, 7L)).isFalse();
+
+        ReflectionTestUtils.setField(this.index, "idleEvictionMs", 0L);
+        Thread.sleep(5);
+        this.index.evictIdle();
+        assertThat(this.index.hasVoted(2L, 7L)).isFalse();
+    }
+
+    @Test
+    void tracksUpToMaxPolls() {
+        this.index.track(1L);
+        this.index.track(2L);
+        this.index.track(3L);
+
+        this.index.voteCommitted(3L, 7L);
+
+        assertThat(this.index.hasVoted(3L, 7L)).isFalse();
+        verify(this.jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), eq(3L));
+    }
+
+    @Test
+    void retriesAPollWhoseVotersFailedToLoad() {
+        doThrow(new QueryTimeoutException("timed out")).when(this.jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+        this.index.track(1L);
+
+        // Not tracked, so not mistaken for a poll nobody voted in.
+        this.index.voteCommitted(1L, 7L);
+        assertThat(this.index.hasVoted(1L, 7L)).isFalse();
+
+        voters(1L, 7L);
+        this.index.track(1L);
+        assertThat(this.index.hasVoted(1L, 7L)).isTrue();
+    }
+
+    @Test
+    void tracksNothingWhenDisabled() {
+        ReflectionTestUtils.setField(this.index, "enabled", false);
+
+        this.index.track(1L);
+        this.index.voteCommitted(1L, 7L);
+
+        assertThat(this.index.hasVoted(1L, 7L)).isFalse();
+    }
+
+    // What the query of the poll's voters returns.
+    private void voters(Long pollId, long... userIds) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+
+            for(long userId : userIds) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(userId);
+                handler.processRow(rs);
+            }
+
+            return(null);
+        }).when(this.jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(pollId));
+    }
+}
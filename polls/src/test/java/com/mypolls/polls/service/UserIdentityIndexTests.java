@@ -0,0 +1,107 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mypolls.polls.repositories.UserRepository;
+
+class UserIdentityIndexTests {
+    private UserIdentityIndex index;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.userRepository = mock(UserRepository.class);
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        when(this.userRepository.existsByUsername(anyString())).thenReturn(true);
+        when(this.userRepository.existsByEmail(anyString())).thenReturn(true);
+
+        this.index = new UserIdentityIndex();
+        ReflectionTestUtils.setField(this.index, "userRepository", this.userRepository);
+        ReflectionTestUtils.setField(this.index, "jdbcTemplate", this.jdbcTemplate);
+        ReflectionTestUtils.setField(this.index, "enabled", true);
+        ReflectionTestUtils.setField(this.index, "expectedUsers", 1000L);
+        ReflectionTestUtils.setField(this.index, "falsePositiveRate", 0.001);
+    }
+
+    @Test
+    void asksTheDatabaseUntilBuilt() {
+        assertThat(this.index.isUsernameAvailable("alice")).isFalse();
+
+        verify(this.userRepository).existsByUsername("alice");
+    }
+
+    @Test
+    void answersNamesThatAreNotTakenFromMemory() throws Exception {
+        users(new String[][] {{"alice", "alice@test.local"}});
+        this.index.rebuild();
+
+        assertThat(this.index.isUsernameAvailable("bob")).isTrue();
+        assertThat(this.index.isEmailAvailable("bob@test.local")).isTrue();
+        verify(this.userRepository, never()).existsByUsername("bob");
+
+        // Possibly taken, confirmed by the database, case insensitively.
+        assertThat(this.index.isUsernameAvailable("Alice")).isFalse();
+        assertThat(this.index.isEmailAvailable("alice@test.local")).isFalse();
+        verify(this.userRepository).existsByUsername("Alice");
+    }
+
+    @Test
+    void recordsSignups() {
+        users(new String[][] {});
+        this.index.rebuild();
+
+        this.index.userRegistered("carol", "carol@test.local");
+
+        assertThat(this.index.isUsernameAvailable("carol")).isFalse();
+        verify(this.userRepository).existsByUsername("carol");
+    }
+
+    @Test
+    void keepsSignupsMadeDuringARebuild() throws Exception {
+        users(new String[][] {});
+        this.index.rebuild();
+
+        // Committed after the rebuild's query started, so missed by it.
+        doAnswer(invocation -> {
+            this.index.userRegistered("dave", "dave@test.local");
+            return(null);
+        }).when(this.jdbcTemplate).query(eq("SELECT username, email FROM users"), any(RowCallbackHandler.class));
+        this.index.rebuild();
+
+        assertThat(this.index.isUsernameAvailable("dave")).isFalse();
+        verify(this.userRepository).existsByUsername("dave");
+    }
+
+    // What the rebuild's query returns.
+    private void users(String[][] rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+
+            for(String[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(row[0]);
+                when(rs.getString(2)).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+
+            return(null);
+        }).when(this.jdbcTemplate).query(eq("SELECT username, email FROM users"), any(RowCallbackHandler.class));
+    }
+}
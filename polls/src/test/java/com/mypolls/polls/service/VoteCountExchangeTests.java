@@ -0,0 +1,178 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mypolls.polls.model.Choice;
+import com.mypolls.polls.model.ChoiceVoteCount;
+import com.mypolls.polls.model.NodeVoteCounts;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.repositories.ChoiceRepository;
+
+// Several nodes in one JVM, each with its own tallies, exchanging their vote counts through an InJvmVoteCountTransport.
+class VoteCountExchangeTests {
+    private static final Long POLL_ID = 1L;
+    private static final Long FIRST_CHOICE_ID = 10L;
+    private static final Long SECOND_CHOICE_ID = 11L;
+
+    private final InJvmVoteCountTransport transport = new InJvmVoteCountTransport();
+    private final List <Node> nodes = new ArrayList <> ();
+
+    private static class Node {
+        private final VoteTallyEngine voteTallyEngine = new VoteTallyEngine();
+        private final PollResultsBroadcaster pollResultsBroadcaster = mock(PollResultsBroadcaster.class);
+        private final VoteCountExchange exchange = new VoteCountExchange();
+
+        Node(String nodeId, VoteCountTransport transport) {
+            ReflectionTestUtils.setField(this.exchange, "voteTallyEngine", this.voteTallyEngine);
+            ReflectionTestUtils.setField(this.exchange, "pollResultsBroadcaster", this.pollResultsBroadcaster);
+            ReflectionTestUtils.setField(this.exchange, "transport", transport);
+            ReflectionTestUtils.setField(this.exchange, "enabled", true);
+            ReflectionTestUtils.setField(this.exchange, "nodeId", nodeId);
+            this.exchange.init();
+        }
+
+        Map <Long, Long> counts() {
+            return(this.voteTallyEngine.getChoiceVoteCountsIfPresent(POLL_ID));
+        }
+
+        // Seeds the node's tally through a read, as if the choices table held the given counts.
+        void seed(long first, long second) {
+            ChoiceRepository choiceRepository = mock(ChoiceRepository.class);
+            when(choiceRepository.findVoteCountsByPollIdIn(anyList())).thenReturn(Arrays.asList(new ChoiceVoteCount(FIRST_CHOICE_ID, first), new ChoiceVoteCount(SECOND_CHOICE_ID, second)));
+            ReflectionTestUtils.setField(this.voteTallyEngine, "choiceRepository", choiceRepository);
+
+            Poll poll = new Poll();
+            poll.setId(POLL_ID);
+            poll.setExpirationDateTime(Instant.now().plus(1, ChronoUnit.DAYS));
+            for(Long choiceId : Arrays.asList(FIRST_CHOICE_ID, SECOND_CHOICE_ID)) {
+                Choice choice = new Choice("Choice " + choiceId);
+                choice.setId(choiceId);
+                poll.addChoice(choice);
+            }
+
+            this.voteTallyEngine.getChoiceVoteCounts(poll);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        for(int i = 0; i < 3; i++) {
+            Node node = new Node("node-" + i, this.transport);
+            node.seed(0, 0);
+            this.nodes.add(node);
+        }
+
+        // The nodes' first counts are only taken as a baseline.
+        exchange();
+    }
+
+    @Test
+    void votesCommittedOnAnyNodeReachEveryNode() {
+        node(0).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+        node(0).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+        node(1).voteTallyEngine.recordVote(POLL_ID, SECOND_CHOICE_ID);
+        node(2).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+
+        // Each node only knows of its own votes until the exchange.
+        assertThat(node(1).counts()).isEqualTo(counts(0, 1));
+
+        exchange();
+
+        this.nodes.forEach(node -> assertThat(node.counts()).isEqualTo(counts(3, 1)));
+        verify(node(1).pollResultsBroadcaster, atLeastOnce()).voteCommitted(POLL_ID);
+    }
+
+    @Test
+    void countsMergeInAnyOrderAndAnyNumberOfTimes() {
+        node(1).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+        NodeVoteCounts older = localCounts(node(1));
+
+        node(1).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+        node(1).voteTallyEngine.recordVote(POLL_ID, SECOND_CHOICE_ID);
+        NodeVoteCounts newer = localCounts(node(1));
+
+        node(0).exchange.receive(newer);
+        node(0).exchange.receive(older);
+        node(0).exchange.receive(newer);
+
+        assertThat(node(0).counts()).isEqualTo(counts(2, 1));
+    }
+
+    @Test
+    void nodesDontCountTheirOwnVotesTwice() {
+        node(0).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+
+        exchange();
+        exchange();
+
+        assertThat(node(0).counts()).isEqualTo(counts(1, 0));
+    }
+
+    @Test
+    void aJoiningNodesTalliesArentCountedTwice() {
+        node(0).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+        node(1).voteTallyEngine.recordVote(POLL_ID, SECOND_CHOICE_ID);
+
+        // Seeded from the database, the votes above included.
+        Node joining = new Node("node-3", this.transport);
+        joining.seed(1, 1);
+        this.nodes.add(joining);
+
+        exchange();
+        assertThat(joining.counts()).isEqualTo(counts(1, 1));
+        verify(joining.pollResultsBroadcaster, never()).voteCommitted(POLL_ID);
+
+        node(0).voteTallyEngine.recordVote(POLL_ID, SECOND_CHOICE_ID);
+        exchange();
+
+        this.nodes.forEach(node -> assertThat(node.counts()).isEqualTo(counts(1, 2)));
+    }
+
+    @Test
+    void closedPollsAreNoLongerCounted() {
+        node(0).voteTallyEngine.recordVote(POLL_ID, FIRST_CHOICE_ID);
+        exchange();
+
+        this.nodes.forEach(node -> node.voteTallyEngine.pollClosed(POLL_ID));
+
+        assertThat(node(0).voteTallyEngine.getLocalVoteCounts()).isEmpty();
+        assertThat(node(0).counts()).isNull();
+    }
+
+    private void exchange() {
+        this.nodes.forEach(node -> node.exchange.publish());
+    }
+
+    private Node node(int i) {
+        return(this.nodes.get(i));
+    }
+
+    private static NodeVoteCounts localCounts(Node node) {
+        return(new NodeVoteCounts(node.exchange.getNodeId(), node.voteTallyEngine.getLocalVoteCounts()));
+    }
+
+    private static Map <Long, Long> counts(long first, long second) {
+        Map <Long, Long> counts = new HashMap <> ();
+        counts.put(FIRST_CHOICE_ID, first);
+        counts.put(SECOND_CHOICE_ID, second);
+        return(counts);
+    }
+}
@@ -0,0 +1,48 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class VoteCountRepairJobTests {
+    @Autowired
+    private VoteCountRepairJob voteCountRepairJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repairsOpenPollsAndLeavesClosedPollsFrozen() {
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp expiration = Timestamp.from(Instant.now().plus(Duration.ofDays(1)));
+
+        this.jdbcTemplate.update("INSERT INTO users (id, created_at, updated_at, email, name, password, username, poll_count, vote_count) VALUES (201, ?, ?, 'repair@test.local', 'Repair', 'x', 'repair', 0, 0)", now, now);
+
+        // Both polls have one vote, the counts of the open one are off, those of the closed one are its final results.
+        this.jdbcTemplate.update("INSERT INTO polls (id, created_at, updated_at, created_by, updated_by, expiration_date_time, question, total_votes, closed_at) VALUES (201, ?, ?, 201, 201, ?, 'Open?', 7, NULL)", now, now, expiration);
+        this.jdbcTemplate.update("INSERT INTO polls (id, created_at, updated_at, created_by, updated_by, expiration_date_time, question, total_votes, closed_at) VALUES (202, ?, ?, 201, 201, ?, 'Closed?', 5, ?)", now, now, now, now);
+        this.jdbcTemplate.update("INSERT INTO choices (id, text, poll_id, vote_count) VALUES (201, 'Yes', 201, 7), (202, 'Yes', 202, 5)");
+        this.jdbcTemplate.update("INSERT INTO votes (created_at, updated_at, poll_id, choice_id, user_id) VALUES (?, ?, 201, 201, 201), (?, ?, 202, 202, 201)", now, now, now, now);
+
+        this.voteCountRepairJob.repair();
+
+        assertThat(count("SELECT total_votes FROM polls WHERE id = 201")).isEqualTo(1);
+        assertThat(count("SELECT vote_count FROM choices WHERE id = 201")).isEqualTo(1);
+        assertThat(count("SELECT total_votes FROM polls WHERE id = 202")).isEqualTo(5);
+        assertThat(count("SELECT vote_count FROM choices WHERE id = 202")).isEqualTo(5);
+        assertThat(count("SELECT poll_count FROM users WHERE id = 201")).isEqualTo(2);
+        assertThat(count("SELECT vote_count FROM users WHERE id = 201")).isEqualTo(2);
+    }
+
+    private long count(String sql) {
+        return(this.jdbcTemplate.queryForObject(sql, Long.class));
+    }
+}
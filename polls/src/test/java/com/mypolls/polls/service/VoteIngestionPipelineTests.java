@@ -0,0 +1,210 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mypolls.polls.exception.ServiceUnavailableException;
+import com.mypolls.polls.service.VoteIngestionPipeline.Outcome;
+
+@SpringBootTest(properties = "app.votes.ingestion.mode=batched")
+class VoteIngestionPipelineTests {
+    @Autowired
+    private VoteIngestionPipeline voteIngestionPipeline;
+
+    @Autowired
+    private PollVoterIndex pollVoterIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static long nextId = 100;
+
+    private long userId;
+    private long otherUserId;
+    private long pollId;
+    private long choiceId;
+
+    @BeforeEach
+    void setUp() {
+        this.userId = insertUser();
+        this.otherUserId = insertUser();
+        this.pollId = insertPoll(null);
+        this.choiceId = insertChoice(this.pollId);
+    }
+
+    @Test
+    void storesAndCountsAVote() throws Exception {
+        assertThat(await(this.voteIngestionPipeline.submit(this.pollId, this.choiceId, this.userId))).isEqualTo(Outcome.STORED);
+
+        assertThat(votes(this.pollId)).isEqualTo(1);
+        assertThat(counter("SELECT vote_count FROM choices WHERE id = ?", this.choiceId)).isEqualTo(1);
+        assertThat(counter("SELECT total_votes FROM polls WHERE id = ?", this.pollId)).isEqualTo(1);
+        assertThat(counter("SELECT vote_count FROM users WHERE id = ?", this.userId)).isEqualTo(1);
+
+        // No finer than the feed cursors.
+        Timestamp createdAt = this.jdbcTemplate.queryForObject("SELECT created_at FROM votes WHERE poll_id = ?", Timestamp.class, this.pollId);
+        assertThat(createdAt.getNanos() % 1000000).isZero();
+    }
+
+    @Test
+    void tellsDuplicatesApartInABatch() throws Exception {
+        this.pollVoterIndex.track(this.pollId);
+
+        CompletableFuture <Outcome> first = this.voteIngestionPipeline.submit(this.pollId, this.choiceId, this.userId);
+        CompletableFuture <Outcome> again = this.voteIngestionPipeline.submit(this.pollId, this.choiceId, this.userId);
+        CompletableFuture <Outcome> other = this.voteIngestionPipeline.submit(this.pollId, this.choiceId, this.otherUserId);
+
+        assertThat(await(first)).isEqualTo(Outcome.STORED);
+        assertThat(await(again)).isEqualTo(Outcome.DUPLICATE);
+        assertThat(await(other)).isEqualTo(Outcome.STORED);
+
+        assertThat(votes(this.pollId)).isEqualTo(2);
+        assertThat(counter("SELECT total_votes FROM polls WHERE id = ?", this.pollId)).isEqualTo(2);
+        assertThat(this.pollVoterIndex.hasVoted(this.pollId, this.userId)).isTrue();
+        assertThat(this.pollVoterIndex.hasVoted(this.pollId, this.otherUserId)).isTrue();
+    }
+
+    @Test
+    void doesNotStoreVotesInClosedPolls() throws Exception {
+        long closedPollId = insertPoll(Timestamp.from(Instant.now()));
+        long closedChoiceId = insertChoice(closedPollId);
+
+        assertThat(await(this.voteIngestionPipeline.submit(closedPollId, closedChoiceId, this.userId))).isEqualTo(Outcome.POLL_CLOSED);
+
+        assertThat(votes(closedPollId)).isZero();
+        assertThat(counter("SELECT vote_count FROM choices WHERE id = ?", closedChoiceId)).isZero();
+        assertThat(counter("SELECT total_votes FROM polls WHERE id = ?", closedPollId)).isZero();
+    }
+
+    @Test
+    void failsOtherConstraintViolationsWithoutMarkingTheVoter() throws Exception {
+        this.pollVoterIndex.track(this.pollId);
+
+        CompletableFuture <Outcome> missingChoice = this.voteIngestionPipeline.submit(this.pollId, -1L, this.userId);
+        CompletableFuture <Outcome> other = this.voteIngestionPipeline.submit(this.pollId, this.choiceId, this.otherUserId);
+
+        assertThatThrownBy(() -> await(missingChoice)).isInstanceOf(ExecutionException.class)
+                                                      .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(await(other)).isEqualTo(Outcome.STORED);
+
+        assertThat(this.pollVoterIndex.hasVoted(this.pollId, this.userId)).isFalse();
+        assertThat(votes(this.pollId)).isEqualTo(1);
+    }
+
+    @Test
+    void refusesVotesOnceStopped() throws Exception {
+        VoteIngestionPipeline pipeline = standalonePipeline(mock(TransactionTemplate.class));
+        pipeline.stop();
+
+        assertThatThrownBy(() -> pipeline.submit(this.pollId, this.choiceId, this.userId)).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void failsTheVotesLeftWhenStopped() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // A flush stuck on the database past the stop timeout, deaf to interrupts as JDBC calls usually are.
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            flushing.countDown();
+            while(true) {
+                try {
+                    release.await();
+                    throw new IllegalStateException("Connection lost");
+                }
+                catch(InterruptedException e) {
+                    // Keep waiting.
+                }
+            }
+        });
+
+        VoteIngestionPipeline pipeline = standalonePipeline(transactionTemplate);
+        CompletableFuture <Outcome> flushed = pipeline.submit(this.pollId, this.choiceId, this.userId);
+        assertThat(flushing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture <Outcome> left = pipeline.submit(this.pollId, this.choiceId, this.otherUserId);
+        pipeline.stop();
+
+        assertThatThrownBy(() -> await(left)).isInstanceOf(ExecutionException.class)
+                                             .hasCauseInstanceOf(ServiceUnavailableException.class);
+        assertThatThrownBy(() -> pipeline.submit(this.pollId, this.choiceId, this.otherUserId)).isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        assertThatThrownBy(() -> await(flushed)).isInstanceOf(ExecutionException.class)
+                                                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    // A pipeline of its own, flushing one vote at a time through the given transactions, that can be stopped without
+    // stopping the context's.
+    private static VoteIngestionPipeline standalonePipeline(TransactionTemplate transactionTemplate) {
+        VoteIngestionPipeline pipeline = new VoteIngestionPipeline();
+        ReflectionTestUtils.setField(pipeline, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(pipeline, "mode", "batched");
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 10);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 1);
+        ReflectionTestUtils.setField(pipeline, "maxBatchDelayMs", 10L);
+        ReflectionTestUtils.setField(pipeline, "enqueueTimeoutMs", 50L);
+        ReflectionTestUtils.setField(pipeline, "stopTimeoutMs", 100L);
+        pipeline.start();
+
+        return(pipeline);
+    }
+
+    private static <T> T await(CompletableFuture <T> future) throws Exception {
+        return(future.get(10, TimeUnit.SECONDS));
+    }
+
+    private long votes(long pollId) {
+        return(counter("SELECT COUNT(*) FROM votes WHERE poll_id = ?", pollId));
+    }
+
+    private long counter(String sql, long id) {
+        return(this.jdbcTemplate.queryForObject(sql, Long.class, id));
+    }
+
+    private long insertUser() {
+        long id = nextId++;
+        Timestamp now = Timestamp.from(Instant.now());
+
+        this.jdbcTemplate.update("INSERT INTO users (id, created_at, updated_at, email, name, password, username, poll_count, vote_count) VALUES (?, ?, ?, ?, 'Voter', 'x', ?, 0, 0)",
+                                 id, now, now, "voter" + id + "@test.local", "voter" + id);
+        return(id);
+    }
+
+    private long insertPoll(Timestamp closedAt) {
+        long id = nextId++;
+        Timestamp now = Timestamp.from(Instant.now());
+
+        this.jdbcTemplate.update("INSERT INTO polls (id, created_at, updated_at, created_by, updated_by, expiration_date_time, question, total_votes, closed_at) VALUES (?, ?, ?, ?, ?, ?, 'Question?', 0, ?)",
+                                 id, now, now, this.userId, this.userId, Timestamp.from(Instant.now().plus(Duration.ofDays(1))), closedAt);
+        return(id);
+    }
+
+    private long insertChoice(long pollId) {
+        long id = nextId++;
+
+        this.jdbcTemplate.update("INSERT INTO choices (id, text, poll_id, vote_count) VALUES (?, 'Yes', ?, 0)", id, pollId);
+        return(id);
+    }
+}
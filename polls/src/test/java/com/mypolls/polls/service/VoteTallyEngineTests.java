@@ -0,0 +1,173 @@
+package com.mypolls.polls.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mypolls.polls.model.Choice;
+import com.mypolls.polls.model.ChoiceVoteCount;
+import com.mypolls.polls.model.Poll;
+import com.mypolls.polls.repositories.ChoiceRepository;
+
+class VoteTallyEngineTests {
+    private static final Instant EXPIRATION = Instant.parse("2100-01-01T00:00:00Z");
+
+    private VoteTallyEngine engine;
+    private ChoiceRepository choiceRepository;
+
+    // choice id -> vote count, as in the choices table.
+    private final Map <Long, Long> stored = new HashMap <> ();
+
+    @BeforeEach
+    void setUp() {
+        this.choiceRepository = mock(ChoiceRepository.class);
+        when(this.choiceRepository.findVoteCountsByPollIdIn(anyList())).thenAnswer(invocation -> {
+            ChoiceVoteCount[] counts = this.stored.entrySet().stream().map(entry -> new ChoiceVoteCount(entry.getKey(), entry.getValue())).toArray(ChoiceVoteCount[]::new);
+            return(Arrays.asList(counts));
+        });
+
+        this.engine = new VoteTallyEngine();
+        ReflectionTestUtils.setField(this.engine, "choiceRepository", this.choiceRepository);
+        ReflectionTestUtils.setField(this.engine, "idleEvictionMs", 3600000L);
+    }
+
+    @Test
+    void seedsATallyOnceAndCountsVotesInMemory() {
+        Poll poll = poll(1L, 11L, 12L);
+        this.stored.put(11L, 3L);
+
+        assertThat(this.engine.getChoiceVoteCountsIfPresent(1L)).isNull();
+        assertThat(this.engine.getChoiceVoteCounts(poll)).containsEntry(11L, 3L).containsEntry(12L, 0L);
+
+        this.engine.recordVote(1L, 12L);
+        this.engine.recordVote(1L, 12L);
+
+        assertThat(this.engine.getChoiceVoteCounts(poll)).containsEntry(11L, 3L).containsEntry(12L, 2L);
+        assertThat(this.engine.getChoiceVoteCountsIfPresent(1L)).containsEntry(12L, 2L);
+        assertThat(this.engine.getExpirationDateTimeIfPresent(1L)).isEqualTo(EXPIRATION);
+        verify(this.choiceRepository, times(1)).findVoteCountsByPollIdIn(anyList());
+    }
+
+    @Test
+    void seedsSeveralPollsWithOneQuery() {
+        this.stored.put(11L, 1L);
+        this.stored.put(21L, 2L);
+
+        Map <Long, Long> counts = this.engine.getChoiceVoteCounts(Arrays.asList(poll(1L, 11L), poll(2L, 21L)));
+
+        assertThat(counts).containsEntry(11L, 1L).containsEntry(21L, 2L);
+        verify(this.choiceRepository, times(1)).findVoteCountsByPollIdIn(Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    void leavesVotesInUnseededPollsToTheSeed() {
+        this.engine.recordVote(1L, 11L);
+        this.stored.put(11L, 1L);
+
+        assertThat(this.engine.getChoiceVoteCounts(poll(1L, 11L))).containsEntry(11L, 1L);
+    }
+
+    @Test
+    void countsVotesRecordedWhileTheTallyIsSeeded() {
+        this.stored.put(11L, 3L);
+        when(this.choiceRepository.findVoteCountsByPollIdIn(anyList())).thenAnswer(invocation -> {
+            List <ChoiceVoteCount> counts = Collections.singletonList(new ChoiceVoteCount(11L, this.stored.get(11L)));
+
+            // Committed after the query read the choices table, only the tally can count it.
+            this.engine.recordVote(1L, 11L);
+            assertThat(this.engine.getChoiceVoteCountsIfPresent(1L)).isNull();
+
+            return(counts);
+        });
+
+        assertThat(this.engine.getChoiceVoteCounts(poll(1L, 11L))).containsEntry(11L, 4L);
+        assertThat(this.engine.getChoiceVoteCountsIfPresent(1L)).containsEntry(11L, 4L);
+    }
+
+    @Test
+    void forgetsTheTalliesOfAFailedSeed() {
+        when(this.choiceRepository.findVoteCountsByPollIdIn(anyList())).thenThrow(new IllegalStateException("Connection lost"));
+
+        assertThatThrownBy(() -> this.engine.getChoiceVoteCounts(poll(1L, 11L))).isInstanceOf(IllegalStateException.class);
+
+        // Not left behind as a tally no call seeds anymore.
+        this.engine.recordVote(1L, 11L);
+        doReturn(Collections.singletonList(new ChoiceVoteCount(11L, 1L))).when(this.choiceRepository).findVoteCountsByPollIdIn(anyList());
+
+        assertThat(this.engine.getChoiceVoteCounts(poll(1L, 11L))).containsEntry(11L, 1L);
+    }
+
+    @Test
+    void keepsNoTallyOfClosedPolls() {
+        Poll poll = poll(1L, 11L);
+        poll.setClosedAt(Instant.now());
+        this.stored.put(11L, 5L);
+
+        assertThat(this.engine.getChoiceVoteCounts(poll)).containsEntry(11L, 5L);
+        assertThat(this.engine.getChoiceVoteCountsIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void reconcilesDriftAgainstTheChoicesTable() {
+        Poll poll = poll(1L, 11L, 12L);
+        this.engine.getChoiceVoteCounts(poll);
+        this.engine.recordVote(1L, 11L);
+
+        // One vote the tally missed, the one it counted rolled back.
+        this.stored.put(12L, 1L);
+        this.engine.reconcile();
+
+        assertThat(this.engine.getChoiceVoteCountsIfPresent(1L)).containsEntry(11L, 0L).containsEntry(12L, 1L);
+    }
+
+    @Test
+    void evictsIdleTallies() throws InterruptedException {
+        this.engine.getChoiceVoteCounts(poll(1L, 11L));
+        this.engine.getChoiceVoteCounts(poll(2L, 21L));
+        this.engine.pollClosed(2L);
+        assertThat(this.engine.getChoiceVoteCountsIfPresent(2L)).isNull();
+
+        ReflectionTestUtils.setField(this.engine, "idleEvictionMs", 0L);
+        Thread.sleep(5);
+        this.engine.reconcile();
+
+        assertThat(this.engine.getChoiceVoteCountsIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void mapsCountsToThePollsChoices() {
+        Map <Long, Long> counts = VoteTallyEngine.countsOf(poll(1L, 11L, 12L), Collections.singletonMap(11L, 4L));
+
+        assertThat(counts).hasSize(2).containsEntry(11L, 4L).containsEntry(12L, 0L);
+    }
+
+    private static Poll poll(Long pollId, Long... choiceIds) {
+        Poll poll = new Poll();
+        poll.setId(pollId);
+        poll.setExpirationDateTime(EXPIRATION);
+
+        for(Long choiceId : choiceIds) {
+            Choice choice = new Choice("Choice " + choiceId);
+            choice.setId(choiceId);
+            poll.addChoice(choice);
+        }
+
+        return(poll);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mypolls.polls.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+    @Test
+    void containsEverythingPut() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+
+        for(int i = 0; i < 10000; i++) {
+            filter.put("user" + i);
+        }
+
+        for(int i = 0; i < 10000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void keepsToItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+
+        for(int i = 0; i < 10000; i++) {
+            filter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for(int i = 0; i < 100000; i++) {
+            if(filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // 1% expected, with some slack.
+        assertThat(falsePositives).isLessThan(2000);
+    }
+
+    @Test
+    void startsEmpty() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("user")).isFalse();
+    }
+}
@@ -0,0 +1,72 @@
+package com.mypolls.polls.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedBitmapTests {
+    @Test
+    void addsEachValueOnce() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        assertThat(bitmap.add(42)).isTrue();
+        assertThat(bitmap.add(42)).isFalse();
+        assertThat(bitmap.add(42 + 65536)).isTrue();
+
+        assertThat(bitmap.contains(42)).isTrue();
+        assertThat(bitmap.contains(43)).isFalse();
+        assertThat(bitmap.contains(42 + 65536)).isTrue();
+        assertThat(bitmap.contains(-1)).isFalse();
+        assertThat(bitmap.getCardinality()).isEqualTo(2);
+    }
+
+    @Test
+    void denseChunksTurnIntoBitmaps() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        for(long value = 0; value < 10000; value++) {
+            bitmap.add(value * 2);
+        }
+        bitmap.add(100000);
+
+        // Past 4096 values a chunk holds 8 KB of bits, a sparse one 2 bytes a value (of a capacity of at least 4).
+        assertThat(bitmap.sizeInBytes()).isEqualTo(8192 + 2 * 4);
+        assertThat(bitmap.getCardinality()).isEqualTo(10001);
+
+        for(long value = 0; value < 20000; value++) {
+            assertThat(bitmap.contains(value)).isEqualTo(value % 2 == 0);
+        }
+    }
+
+    @Test
+    void matchesAHashSet() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        Set <Long> expected = new HashSet <> ();
+        Random random = new Random(1);
+
+        for(int i = 0; i < 100000; i++) {
+            // Mostly small ids, a few far apart.
+            long value = random.nextInt(10) == 0 ? random.nextLong() & Long.MAX_VALUE : random.nextInt(200000);
+
+            assertThat(bitmap.add(value)).isEqualTo(expected.add(value));
+        }
+
+        assertThat(bitmap.getCardinality()).isEqualTo(expected.size());
+        expected.forEach(value -> assertThat(bitmap.contains(value)).isTrue());
+
+        for(int i = 0; i < 100000; i++) {
+            long value = random.nextInt(400000);
+            assertThat(bitmap.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+
+    @Test
+    void rejectsNegativeValues() {
+        assertThatThrownBy(() -> new CompressedBitmap().add(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mypolls.polls.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiringLruCacheTests {
+    @Test
+    void dropsTheLeastRecentlyUsedEntries() {
+        ExpiringLruCache <Integer, String> cache = new ExpiringLruCache <> (2, 60000);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+
+        cache.put(3, "three");
+
+        assertThat(cache.get(1)).isEqualTo("one");
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo("three");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiresEntries() throws InterruptedException {
+        ExpiringLruCache <Integer, String> cache = new ExpiringLruCache <> (10, 20);
+        cache.put(1, "one");
+        // Capped at the cache's ttl.
+        cache.put(2, "two", Long.MAX_VALUE);
+        cache.put(3, "three", System.currentTimeMillis() - 1);
+
+        assertThat(cache.get(3)).isNull();
+
+        Thread.sleep(40);
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.get(2)).isNull();
+    }
+
+    @Test
+    void loadsMissingEntriesOnce() {
+        ExpiringLruCache <Integer, String> cache = new ExpiringLruCache <> (10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(1, key -> "loaded " + loads.incrementAndGet())).isEqualTo("loaded 1");
+        assertThat(cache.get(1, key -> "loaded " + loads.incrementAndGet())).isEqualTo("loaded 1");
+
+        // Nothing to cache.
+        assertThat(cache.get(2, key -> null)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsALoadRacingWithAnInvalidationOut() {
+        ExpiringLruCache <Integer, String> cache = new ExpiringLruCache <> (10, 60000);
+
+        String loaded = cache.get(1, key -> {
+            // The entry changed while it was being loaded.
+            cache.remove(1);
+            return("stale");
+        });
+
+        assertThat(loaded).isEqualTo("stale");
+        assertThat(cache.get(1)).isNull();
+
+        cache.get(2, key -> {
+            cache.clear();
+            return("stale");
+        });
+        assertThat(cache.get(2)).isNull();
+    }
+
+    @Test
+    void cachesNothingWithoutRoom() {
+        ExpiringLruCache <Integer, String> cache = new ExpiringLruCache <> (0, 60000);
+
+        cache.put(1, "one");
+
+        assertThat(cache.get(1)).isNull();
+    }
+}
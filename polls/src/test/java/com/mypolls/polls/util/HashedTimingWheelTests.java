@@ -0,0 +1,52 @@
+package com.mypolls.polls.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTests {
+    @Test
+    void releasesItemsOnTheTickOfTheirDeadline() {
+        HashedTimingWheel <String> wheel = new HashedTimingWheel <> (1000, 8, 0);
+        wheel.schedule("a", 1500);
+        wheel.schedule("b", 3000);
+
+        assertThat(wheel.advance(1999)).isEmpty();
+        assertThat(wheel.advance(2000)).containsExactly("a");
+        assertThat(wheel.advance(2999)).isEmpty();
+        assertThat(wheel.advance(3000)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void waitsOutTheRoundsOfDeadlinesBeyondATurn() {
+        HashedTimingWheel <String> wheel = new HashedTimingWheel <> (1000, 4, 0);
+        // Same bucket as a deadline of 1000, two turns later.
+        wheel.schedule("late", 9000);
+        wheel.schedule("soon", 1000);
+
+        assertThat(wheel.advance(1000)).containsExactly("soon");
+        assertThat(wheel.advance(8999)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(9000)).containsExactly("late");
+    }
+
+    @Test
+    void releasesPastDeadlinesOnTheNextTick() {
+        HashedTimingWheel <String> wheel = new HashedTimingWheel <> (1000, 8, 5000);
+        wheel.schedule("overdue", 1000);
+
+        assertThat(wheel.advance(5999)).isEmpty();
+        assertThat(wheel.advance(6000)).containsExactly("overdue");
+    }
+
+    @Test
+    void catchesUpOnEveryTickMissed() {
+        HashedTimingWheel <Integer> wheel = new HashedTimingWheel <> (1000, 4, 0);
+        for(int i = 1; i <= 10; i++) {
+            wheel.schedule(i, i * 1000L);
+        }
+
+        assertThat(wheel.advance(20000)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+}
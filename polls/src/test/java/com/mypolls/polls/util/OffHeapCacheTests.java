@@ -0,0 +1,105 @@
+package com.mypolls.polls.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTests {
+    private static final int BLOCK_SIZE = 16;
+
+    @Test
+    void keepsEntriesAcrossBlocks() {
+        OffHeapCache <Long> cache = new OffHeapCache <> (1024, BLOCK_SIZE);
+        // Three blocks, the last one partly used.
+        byte[] bytes = "{\"id\":1,\"question\":\"Spanning blocks?\"".getBytes(StandardCharsets.UTF_8);
+
+        cache.put(1L, 7, bytes);
+
+        assertThat(cache.contains(1L, 7)).isTrue();
+        assertThat(copy(cache, 1L, 7)).isEqualTo(bytes);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.usedBytes()).isEqualTo(3 * BLOCK_SIZE);
+    }
+
+    @Test
+    void appendsToWhatIsAlreadyWritten() {
+        OffHeapCache <Long> cache = new OffHeapCache <> (1024, BLOCK_SIZE);
+        cache.put(1L, 7, "cached".getBytes(StandardCharsets.UTF_8), 0, 5);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        assertThat(cache.copyTo(1L, 7, out)).isTrue();
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("[cache");
+    }
+
+    @Test
+    void missesOtherVersions() {
+        OffHeapCache <Long> cache = new OffHeapCache <> (1024, BLOCK_SIZE);
+        cache.put(1L, 7, "old".getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(cache.copyTo(1L, 8, out)).isFalse();
+        assertThat(out.size()).isZero();
+        assertThat(cache.copyTo(2L, 7, out)).isFalse();
+
+        cache.put(1L, 8, "new".getBytes(StandardCharsets.UTF_8));
+        assertThat(cache.contains(1L, 7)).isFalse();
+        assertThat(copy(cache, 1L, 8)).isEqualTo("new".getBytes(StandardCharsets.UTF_8));
+        assertThat(cache.usedBytes()).isEqualTo(BLOCK_SIZE);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntries() {
+        // 16 segments of two blocks, 1, 17 and 33 share one.
+        OffHeapCache <Long> cache = new OffHeapCache <> (32 * BLOCK_SIZE, BLOCK_SIZE);
+        cache.put(1L, 1, new byte[BLOCK_SIZE]);
+        cache.put(17L, 1, new byte[BLOCK_SIZE]);
+        copy(cache, 1L, 1);
+
+        cache.put(33L, 1, new byte[BLOCK_SIZE]);
+
+        assertThat(cache.contains(1L, 1)).isTrue();
+        assertThat(cache.contains(17L, 1)).isFalse();
+        assertThat(cache.contains(33L, 1)).isTrue();
+
+        // Makes room for an entry of two blocks with both of them.
+        cache.put(49L, 1, new byte[2 * BLOCK_SIZE]);
+
+        assertThat(cache.contains(1L, 1)).isFalse();
+        assertThat(cache.contains(33L, 1)).isFalse();
+        assertThat(cache.contains(49L, 1)).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsEntriesLargerThanASegment() {
+        OffHeapCache <Long> cache = new OffHeapCache <> (32 * BLOCK_SIZE, BLOCK_SIZE);
+        cache.put(1L, 1, new byte[BLOCK_SIZE]);
+
+        cache.put(1L, 2, new byte[3 * BLOCK_SIZE]);
+
+        assertThat(cache.contains(1L, 1)).isFalse();
+        assertThat(cache.contains(1L, 2)).isFalse();
+        assertThat(cache.usedBytes()).isZero();
+    }
+
+    @Test
+    void cachesNothingWithoutRoomForABlock() {
+        OffHeapCache <Long> cache = new OffHeapCache <> (0, BLOCK_SIZE);
+
+        cache.put(1L, 1, new byte[1]);
+
+        assertThat(cache.contains(1L, 1)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static byte[] copy(OffHeapCache <Long> cache, Long key, long version) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(cache.copyTo(key, version, out)).isTrue();
+        return(out.toByteArray());
+    }
+}
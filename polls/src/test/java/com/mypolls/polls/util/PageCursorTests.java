@@ -0,0 +1,41 @@
+package com.mypolls.polls.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.mypolls.polls.exception.BadRequestException;
+
+class PageCursorTests {
+    @Test
+    void roundTripsToTheNanosecond() {
+        PageCursor cursor = new PageCursor(Instant.parse("2026-03-04T05:06:07.123456789Z"), 42L);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void encodesUrlSafe() {
+        String encoded = new PageCursor(Instant.MAX, Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void startsAtTheFirstPageWithoutACursor() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("")).isNull();
+    }
+
+    @Test
+    void rejectsCursorsItDidNotMake() {
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> PageCursor.decode("MTIz")).isInstanceOf(BadRequestException.class);
+    }
+}
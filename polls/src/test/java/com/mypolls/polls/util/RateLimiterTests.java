@@ -0,0 +1,76 @@
+package com.mypolls.polls.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTests {
+    @Test
+    void letsABurstThroughThenOneRequestPerInterval() {
+        RateLimiter <Long> limiter = new RateLimiter <> (60, 3, 100);
+
+        for(int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(1L)).isZero();
+        }
+
+        // One a second from then on, so the next one is about a second away.
+        long wait = limiter.tryAcquire(1L);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void limitsEachKeyOnItsOwn() {
+        RateLimiter <Long> limiter = new RateLimiter <> (60, 1, 100);
+
+        assertThat(limiter.tryAcquire(1L)).isZero();
+        assertThat(limiter.tryAcquire(1L)).isPositive();
+        assertThat(limiter.tryAcquire(2L)).isZero();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // One every 10ms.
+        RateLimiter <Long> limiter = new RateLimiter <> (6000, 1, 100);
+
+        assertThat(limiter.tryAcquire(1L)).isZero();
+        assertThat(limiter.tryAcquire(1L)).isPositive();
+
+        Thread.sleep(20);
+        assertThat(limiter.tryAcquire(1L)).isZero();
+    }
+
+    @Test
+    void sweepsFullBuckets() throws InterruptedException {
+        RateLimiter <Long> limiter = new RateLimiter <> (6000, 1, 100);
+        RateLimiter <Long> slow = new RateLimiter <> (1, 1, 100);
+
+        limiter.tryAcquire(1L);
+        slow.tryAcquire(1L);
+        Thread.sleep(20);
+
+        limiter.sweep();
+        slow.sweep();
+
+        assertThat(limiter.size()).isZero();
+        // Still a minute from being full.
+        assertThat(slow.size()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsTheBucketsNearestToFullWhenFullOfLimitedOnes() {
+        RateLimiter <Long> limiter = new RateLimiter <> (1, 1, 2);
+
+        assertThat(limiter.tryAcquire(1L)).isZero();
+        assertThat(limiter.tryAcquire(2L)).isZero();
+        assertThat(limiter.tryAcquire(2L)).isPositive();
+
+        // The first key's bucket is the one nearest to full, it makes room for the new key, which is limited all the same.
+        assertThat(limiter.tryAcquire(3L)).isZero();
+        assertThat(limiter.tryAcquire(3L)).isPositive();
+        assertThat(limiter.size()).isEqualTo(2);
+
+        assertThat(limiter.tryAcquire(2L)).isPositive();
+    }
+}